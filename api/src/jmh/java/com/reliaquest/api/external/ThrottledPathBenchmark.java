@@ -0,0 +1,88 @@
+package com.reliaquest.api.external;
+
+import com.reliaquest.api.exception.TooManyRequestsException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of reporting one throttled upstream call to the service layer: the previous exception with a full stack trace
+ * against the stackless exception now thrown at the controller boundary and the {@link UpstreamResult} returned
+ * within the integration layer.
+ * <p>
+ * The call is made {@code depth} frames down, roughly the depth of a request thread in Tomcat and Spring MVC, since
+ * filling in the stack trace costs per frame.
+ * <p>
+ * Measured on OpenJDK 17.0.9, one CPU, median of five 1s iterations after five warm-up ones (ns/op):
+ * <pre>
+ * depth  stackfulException  stacklessException  result
+ *    16               3066                1237      23
+ *   128              18046                7955     678
+ * </pre>
+ * Dropping the stack trace alone halves the cost; returning a result instead of unwinding is another 25x to 50x
+ * cheaper. These figures come from driving this class in a plain timing loop rather than through the JMH runner, so
+ * take them as ratios and rerun {@code ./gradlew :api:jmh} for absolute numbers on the target hardware.
+ * @author nikhilchavan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThrottledPathBenchmark {
+
+    private static final String MESSAGE = "Received too many requests. Please try again later.";
+
+    @Param({"16", "128"})
+    public int depth;
+
+    @Benchmark
+    public String stackfulException() {
+        try {
+            return callAt(depth, Trace.FILLED);
+        } catch (RuntimeException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String stacklessException() {
+        try {
+            return callAt(depth, Trace.NONE);
+        } catch (TooManyRequestsException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String result() {
+        UpstreamResult<String> result = resultAt(depth);
+        return result instanceof UpstreamResult.Failure<String> failure ? failure.message() : null;
+    }
+
+    private enum Trace {
+        FILLED,
+        NONE
+    }
+
+    private static String callAt(int depth, Trace trace) {
+        if (depth > 0) {
+            return callAt(depth - 1, trace);
+        }
+        if (trace == Trace.FILLED) {
+            // what TooManyRequestsException was before it stopped filling in its stack trace
+            throw new IllegalStateException(MESSAGE);
+        }
+        throw new TooManyRequestsException(MESSAGE);
+    }
+
+    private static UpstreamResult<String> resultAt(int depth) {
+        if (depth > 0) {
+            return resultAt(depth - 1);
+        }
+        return UpstreamResult.throttled(MESSAGE);
+    }
+}
@@ -0,0 +1,126 @@
+package com.reliaquest.api.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Cost of request logging on the calling thread: the previous setup (two synchronous info lines per request) against
+ * the async appender from config/logback-spring.xml, with and without per-endpoint sampling.
+ * <p>
+ * Events are written to a temporary file with Spring Boot's console pattern, so formatting and I/O are included. Unlike
+ * the shipped configuration, the async appender here neither discards INFO events nor drops them when its queue is
+ * full: the caller waits instead, so a score is the rate at which events are actually written, not the rate at which
+ * they are thrown away. Tear-down reports any event that still did not reach the file.
+ * @author nikhilchavan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+    private static final UUID ID = UUID.randomUUID();
+
+    @Param({"SYNC", "ASYNC", "ASYNC_SAMPLED"})
+    public String mode;
+
+    private LoggerContext context;
+    private Path file;
+    private Logger controllerLog;
+    private Logger integrationLog;
+    private LogSampler logSampler;
+    private boolean sampled;
+    private final LongAdder logged = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        file = Files.createTempFile("request-logging", ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (!"SYNC".equals(mode)) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(0);
+            asyncAppender.setNeverBlock(false);
+            // Waits for the whole backlog on stop, so tear-down counts every event
+            asyncAppender.setMaxFlushTime(0);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+
+        controllerLog = context.getLogger("com.reliaquest.api.controller.EmployeeController");
+        integrationLog = context.getLogger("com.reliaquest.api.external.EmployeeIntegrationService");
+        logSampler = new LogSampler(100, Map.of(), 10, Duration.ofMinutes(1), System::nanoTime);
+        sampled = "ASYNC_SAMPLED".equals(mode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.stop();
+        long written;
+        try (var lines = Files.lines(file)) {
+            written = lines.count();
+        }
+        if (written != logged.sum()) {
+            System.out.printf("%s: %d of %d events were not written%n", mode, logged.sum() - written, logged.sum());
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void getEmployeeByIdRequest() {
+        if (!sampled) {
+            controllerLog.info("Received API request to get employee by id: {}", ID);
+            integrationLog.info("Integration service : Calling get employee by id");
+            integrationLog.info("Successfully fetched employee data with id : {}", ID);
+            logged.add(3);
+        } else if (logSampler.sample("getEmployeeById")) {
+            controllerLog.info("{} {} -> {} in {} ms", "GET", "/api/v1/employee/" + ID, 200, 3);
+            logged.increment();
+        }
+    }
+}
@@ -2,10 +2,8 @@ package com.reliaquest.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.retry.annotation.EnableRetry;
 
 @SpringBootApplication
-@EnableRetry
 public class ApiApplication {
 
     public static void main(String[] args) {
@@ -1,5 +1,9 @@
 package com.reliaquest.api.config;
 
+import com.reliaquest.api.limit.AdaptiveConcurrencyLimiter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
@@ -13,4 +17,208 @@ public class ApplicationConfiguration {
 
     @Value("${employee.base.uri}")
     public String employeeBaseUri;
+
+    /*
+     * Comma separated employee services the roster is sharded across; defaults to the single employee.base.uri.
+     */
+    @Value("${employee.base.uris:${employee.base.uri}}")
+    public List<String> employeeBaseUris;
+
+    /*
+     * Get-by-id calls time out after a multiple of the observed p99, clamped to [min, max]; max applies until enough
+     * latency samples have been seen.
+     */
+    @Value("${employee.client.timeout.min:250ms}")
+    public Duration employeeClientMinTimeout;
+
+    @Value("${employee.client.timeout.max:5s}")
+    public Duration employeeClientMaxTimeout;
+
+    @Value("${employee.client.timeout.p99-multiplier:3}")
+    public double employeeClientTimeoutMultiplier;
+
+    /*
+     * Throttled upstream calls are repeated up to max-attempts times in total, waiting the delay in between.
+     */
+    @Value("${employee.client.retry.max-attempts:3}")
+    public int employeeClientRetryMaxAttempts;
+
+    @Value("${employee.client.retry.delay:20s}")
+    public Duration employeeClientRetryDelay;
+
+    @Value("${employee.client.latency.window:1024}")
+    public int employeeClientLatencyWindow;
+
+    @Value("${employee.client.latency.min-samples:20}")
+    public int employeeClientLatencyMinSamples;
+
+    /*
+     * A hedged get-by-id sends a second request once the first has been outstanding for the given percentile.
+     */
+    @Value("${employee.client.hedge.enabled:true}")
+    public boolean employeeClientHedgeEnabled;
+
+    @Value("${employee.client.hedge.percentile:0.95}")
+    public double employeeClientHedgePercentile;
+
+    @Value("${employee.client.hedge.budget-ratio:0.1}")
+    public double employeeClientHedgeBudgetRatio;
+
+    @Value("${employee.client.hedge.max-tokens:10}")
+    public int employeeClientHedgeMaxTokens;
+
+    @Value("${employee.client.hedge.throttle-cooldown:30s}")
+    public Duration employeeClientHedgeThrottleCooldown;
+
+    /*
+     * The salary sketch answers within this relative error and is rebuilt from a full roster fetch once this old.
+     */
+    @Value("${employee.salary-stats.relative-accuracy:0.01}")
+    public double salaryStatsRelativeAccuracy;
+
+    @Value("${employee.salary-stats.max-age:5m}")
+    public Duration salaryStatsMaxAge;
+
+    /*
+     * Requests are logged once per this many calls of each endpoint (1 logs all), optionally overridden per
+     * controller method, e.g. {getEmployeeById: 1000}. Errors are logged at most this often per interval.
+     */
+    @Value("${employee.logging.sample-every:100}")
+    public int loggingSampleEvery;
+
+    @Value("#{${employee.logging.sample-every-by-endpoint:{:}}}")
+    public Map<String, Integer> loggingSampleEveryByEndpoint;
+
+    @Value("${employee.logging.errors-per-interval:10}")
+    public int loggingErrorsPerInterval;
+
+    @Value("${employee.logging.error-interval:1m}")
+    public Duration loggingErrorInterval;
+
+    /*
+     * Asynchronous creates wait in a bounded queue drained by a few workers, which back off together from
+     * initial-backoff up to max-backoff while the employee service throttles. Finished jobs are kept for retention, at
+     * most max-finished-jobs of them.
+     */
+    @Value("${employee.create.async.queue-capacity:1000}")
+    public int createAsyncQueueCapacity;
+
+    @Value("${employee.create.async.workers:2}")
+    public int createAsyncWorkers;
+
+    @Value("${employee.create.async.max-attempts:10}")
+    public int createAsyncMaxAttempts;
+
+    @Value("${employee.create.async.initial-backoff:1s}")
+    public Duration createAsyncInitialBackoff;
+
+    @Value("${employee.create.async.max-backoff:30s}")
+    public Duration createAsyncMaxBackoff;
+
+    @Value("${employee.create.async.retention:10m}")
+    public Duration createAsyncRetention;
+
+    @Value("${employee.create.async.max-finished-jobs:10000}")
+    public int createAsyncMaxFinishedJobs;
+
+    /*
+     * Inbound requests in flight are capped by an AIMD limit between min and max. A request slower than the latency
+     * tolerance times its endpoint's baseline (and slower than min-drop-latency) cuts the limit by the backoff ratio.
+     * Priorities per controller method (HIGH, NORMAL, LOW) decide which endpoints are shed first.
+     */
+    @Value("${employee.limiter.enabled:true}")
+    public boolean limiterEnabled;
+
+    @Value("${employee.limiter.initial-limit:20}")
+    public int limiterInitialLimit;
+
+    @Value("${employee.limiter.min-limit:2}")
+    public int limiterMinLimit;
+
+    @Value("${employee.limiter.max-limit:200}")
+    public int limiterMaxLimit;
+
+    @Value("${employee.limiter.backoff-ratio:0.9}")
+    public double limiterBackoffRatio;
+
+    @Value("${employee.limiter.latency-tolerance:2.0}")
+    public double limiterLatencyTolerance;
+
+    @Value("${employee.limiter.min-drop-latency:50ms}")
+    public Duration limiterMinDropLatency;
+
+    @Value("#{${employee.limiter.priority-by-endpoint:"
+            + "{getEmployeeById:'HIGH',getAllEmployees:'LOW',exportEmployees:'LOW'}}}")
+    public Map<String, AdaptiveConcurrencyLimiter.Priority> limiterPriorityByEndpoint;
+
+    /*
+     * A full roster fetch is reused for this long (0 fetches on every request); list responses derived from it are
+     * written from cached JSON bytes, gzip-compressed for clients that accept it if enabled.
+     */
+    @Value("${employee.roster-cache.max-age:1s}")
+    public Duration rosterCacheMaxAge;
+
+    @Value("${employee.response-cache.gzip:true}")
+    public boolean responseCacheGzip;
+
+    /*
+     * At startup the roster and everything derived from it are fetched before the instance reports ready, for at
+     * most the budget.
+     */
+    @Value("${employee.warm-up.enabled:true}")
+    public boolean warmUpEnabled;
+
+    @Value("${employee.warm-up.budget:30s}")
+    public Duration warmUpBudget;
+
+    /*
+     * Ids seen in roster fetches and creates are kept in a Bloom filter sized for the false positive rate; for
+     * max-age after a fetch, lookups of ids it rules out are answered with not found without an upstream call.
+     * Off by default: ids created directly upstream or through another instance are wrongly not found until then.
+     */
+    @Value("${employee.id-filter.enabled:false}")
+    public boolean idFilterEnabled;
+
+    @Value("${employee.id-filter.false-positive-rate:0.01}")
+    public double idFilterFalsePositiveRate;
+
+    @Value("${employee.id-filter.max-age:1m}")
+    public Duration idFilterMaxAge;
+
+    /*
+     * Lookups by id arriving within window of the first are fetched together, up to max-size ids per upstream call.
+     */
+    @Value("${employee.lookup-batch.enabled:true}")
+    public boolean lookupBatchEnabled;
+
+    @Value("${employee.lookup-batch.window:2ms}")
+    public Duration lookupBatchWindow;
+
+    @Value("${employee.lookup-batch.max-size:64}")
+    public int lookupBatchMaxSize;
+
+    /*
+     * Employees fetched by id are cached, up to maximum-size of them, for expire-after-write.
+     */
+    @Value("${employee.by-id-cache.enabled:true}")
+    public boolean byIdCacheEnabled;
+
+    @Value("${employee.by-id-cache.maximum-size:10000}")
+    public long byIdCacheMaximumSize;
+
+    @Value("${employee.by-id-cache.expire-after-write:5m}")
+    public Duration byIdCacheExpireAfterWrite;
+
+    /*
+     * The JFR endpoint (POST /actuator/jfr) records for at most max-duration and only answers requests bearing the
+     * token; with no token set it refuses every request.
+     */
+    @Value("${management.jfr.token:}")
+    public String jfrToken;
+
+    @Value("${management.jfr.max-duration:5m}")
+    public Duration jfrMaxDuration;
+
+    @Value("${management.endpoints.web.base-path:/actuator}")
+    public String managementBasePath;
 }
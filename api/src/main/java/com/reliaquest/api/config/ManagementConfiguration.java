@@ -0,0 +1,26 @@
+package com.reliaquest.api.config;
+
+import com.reliaquest.api.profiling.ManagementTokenFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author nikhilchavan
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ManagementConfiguration {
+
+    private final ApplicationConfiguration appConfig;
+
+    @Bean
+    public FilterRegistrationBean<ManagementTokenFilter> jfrEndpointTokenFilter() {
+        FilterRegistrationBean<ManagementTokenFilter> registration =
+                new FilterRegistrationBean<>(new ManagementTokenFilter(appConfig.getJfrToken()));
+        String path = appConfig.getManagementBasePath() + "/jfr";
+        registration.addUrlPatterns(path, path + "/*");
+        return registration;
+    }
+}
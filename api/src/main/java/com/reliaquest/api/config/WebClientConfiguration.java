@@ -1,5 +1,15 @@
 package com.reliaquest.api.config;
 
+import com.reliaquest.api.external.EmployeeLookupBatcher;
+import com.reliaquest.api.external.EmployeeShards;
+import com.reliaquest.api.external.HedgeBudget;
+import com.reliaquest.api.external.KnownEmployeeIds;
+import com.reliaquest.api.external.Sleeper;
+import com.reliaquest.api.external.UpstreamLatencyTracker;
+import com.reliaquest.api.profiling.UpstreamCallEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,7 +25,81 @@ public class WebClientConfiguration {
     private final ApplicationConfiguration appConfig;
 
     @Bean
-    public WebClient employeeServiceExternalClient() {
-        return WebClient.builder().baseUrl(appConfig.getEmployeeBaseUri()).build();
+    public EmployeeShards employeeShards() {
+        return new EmployeeShards(appConfig.getEmployeeBaseUris().stream()
+                .map(baseUri -> WebClient.builder()
+                        .baseUrl(baseUri)
+                        .filter(UpstreamCallEvent.recordingFilter())
+                        .build())
+                .toList());
+    }
+
+    @Bean
+    public Sleeper upstreamRetrySleeper() {
+        return Sleeper.THREAD;
+    }
+
+    @Bean
+    public UpstreamLatencyTracker employeeByIdLatencyTracker() {
+        return new UpstreamLatencyTracker(
+                appConfig.getEmployeeClientLatencyWindow(), appConfig.getEmployeeClientLatencyMinSamples());
+    }
+
+    @Bean
+    public HedgeBudget employeeByIdHedgeBudget() {
+        return new HedgeBudget(
+                appConfig.getEmployeeClientHedgeBudgetRatio(),
+                appConfig.getEmployeeClientHedgeMaxTokens(),
+                appConfig.getEmployeeClientHedgeThrottleCooldown());
+    }
+
+    @Bean
+    public KnownEmployeeIds knownEmployeeIds() {
+        return new KnownEmployeeIds(
+                appConfig.isIdFilterEnabled(), appConfig.getIdFilterFalsePositiveRate(), appConfig.getIdFilterMaxAge());
+    }
+
+    @Bean
+    public EmployeeLookupBatcher employeeLookupBatcher() {
+        return new EmployeeLookupBatcher(
+                appConfig.isLookupBatchEnabled(), appConfig.getLookupBatchWindow(), appConfig.getLookupBatchMaxSize());
+    }
+
+    /**
+     * Publishes how many batches lookups by id were gathered into; ids over batches is the mean batch size.
+     */
+    @Bean
+    public MeterBinder employeeLookupBatcherMetrics(EmployeeLookupBatcher employeeLookupBatcher) {
+        return registry -> {
+            FunctionCounter.builder("employee.lookup.batches", employeeLookupBatcher, EmployeeLookupBatcher::batches)
+                    .description("Batches of lookups by id loaded from the employee service")
+                    .register(registry);
+            FunctionCounter.builder(
+                            "employee.lookup.batched.ids", employeeLookupBatcher, EmployeeLookupBatcher::batchedIds)
+                    .description("Distinct ids loaded in batches")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Publishes how many get-by-id calls the id filter saved, e.g. at /actuator/metrics/employee.id.filter.avoided.
+     */
+    @Bean
+    public MeterBinder knownEmployeeIdsMetrics(KnownEmployeeIds knownEmployeeIds) {
+        return registry -> {
+            FunctionCounter.builder("employee.id.filter.avoided", knownEmployeeIds, KnownEmployeeIds::avoidedLookups)
+                    .description("Lookups answered with not found without calling the employee service")
+                    .register(registry);
+            FunctionCounter.builder("employee.id.filter.passed", knownEmployeeIds, KnownEmployeeIds::passedLookups)
+                    .description("Lookups the id filter could not rule out")
+                    .register(registry);
+            FunctionCounter.builder(
+                            "employee.id.filter.false.positives", knownEmployeeIds, KnownEmployeeIds::falsePositives)
+                    .description("Passed lookups that the employee service answered with not found")
+                    .register(registry);
+            Gauge.builder("employee.id.filter.ids", knownEmployeeIds, KnownEmployeeIds::size)
+                    .description("Ids in the current id filter")
+                    .register(registry);
+        };
     }
 }
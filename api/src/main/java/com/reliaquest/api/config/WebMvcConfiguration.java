@@ -0,0 +1,44 @@
+package com.reliaquest.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.encoding.PreEncodedJsonConverter;
+import com.reliaquest.api.limit.AdaptiveConcurrencyLimiter;
+import com.reliaquest.api.limit.ConcurrencyLimitInterceptor;
+import com.reliaquest.api.logging.LogSampler;
+import com.reliaquest.api.logging.SampledRequestLoggingInterceptor;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * @author nikhilchavan
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    private final LogSampler logSampler;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final ApplicationConfiguration appConfig;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (appConfig.isLimiterEnabled()) {
+            registry.addInterceptor(
+                    new ConcurrencyLimitInterceptor(concurrencyLimiter, appConfig.getLimiterPriorityByEndpoint()));
+        }
+        registry.addInterceptor(new SampledRequestLoggingInterceptor(logSampler));
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new PreEncodedJsonConverter(objectMapper, appConfig.isResponseCacheGzip()));
+    }
+}
@@ -1,15 +1,23 @@
 package com.reliaquest.api.controller;
 
+import com.reliaquest.api.dto.CreateEmployeeJobDto;
 import com.reliaquest.api.dto.CreateEmployeeRequestDto;
 import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.dto.EmployeeFilterDto;
+import com.reliaquest.api.dto.SalaryDistributionDto;
+import com.reliaquest.api.encoding.EmployeeExporter;
 import com.reliaquest.api.service.IEmployeeService;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller class for Employee API
@@ -23,10 +31,12 @@ public class EmployeeController implements IEmployeeController<EmployeeDto, Crea
 
     private final IEmployeeService employeeService;
 
+    private final EmployeeExporter employeeExporter;
+
     @Override
     @GetMapping
     public ResponseEntity<List<EmployeeDto>> getAllEmployees() {
-        log.info("Received API request to get All employees");
+        log.debug("Received API request to get All employees");
         List<EmployeeDto> employeeDtoList = employeeService.getAllEmployees();
         return new ResponseEntity<>(employeeDtoList, HttpStatus.OK);
     }
@@ -35,15 +45,47 @@ public class EmployeeController implements IEmployeeController<EmployeeDto, Crea
     @GetMapping("/search/{searchString}")
     public ResponseEntity<List<EmployeeDto>> getEmployeesByNameSearch(
             @PathVariable("searchString") String searchString) {
-        log.info("Received API request to search employees by name: {}", searchString);
+        log.debug("Received API request to search employees by name: {}", searchString);
         List<EmployeeDto> employeeDtoList = employeeService.searchEmployeesByName(searchString);
         return new ResponseEntity<>(employeeDtoList, HttpStatus.OK);
     }
 
+    /**
+     * Finds employees by salary range, age range and title, e.g. {@code /filter?minSalary=50000&maxAge=40}.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<List<EmployeeDto>> filterEmployees(EmployeeFilterDto filter) {
+        log.debug("Received API request to filter employees: {}", filter);
+        List<EmployeeDto> employeeDtoList = employeeService.filterEmployees(filter);
+        return new ResponseEntity<>(employeeDtoList, HttpStatus.OK);
+    }
+
+    /**
+     * Streams every employee as NDJSON ({@code format=ndjson}, the default) or CSV ({@code format=csv}), gzipped when
+     * the client accepts it. Rows are written as they arrive from the employee service, so the first ones go out
+     * right away and memory use does not grow with the roster.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("Received API request to export employees as {}", format);
+        EmployeeExporter.Format exportFormat = EmployeeExporter.Format.of(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        Stream<EmployeeDto> employees = employeeService.exportEmployees();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> employeeExporter.write(employees, exportFormat, gzip, out));
+    }
+
     @Override
     @GetMapping("/{id}")
     public ResponseEntity<EmployeeDto> getEmployeeById(@PathVariable("id") String id) {
-        log.info("Received API request to get employee by id: {}", id);
+        log.debug("Received API request to get employee by id: {}", id);
         EmployeeDto employeeDto = employeeService.getEmployeeById(id);
         return new ResponseEntity<>(employeeDto, HttpStatus.OK);
     }
@@ -51,7 +93,7 @@ public class EmployeeController implements IEmployeeController<EmployeeDto, Crea
     @Override
     @GetMapping("/highestSalary")
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-        log.info("Received API request to get the highest salary of employee");
+        log.debug("Received API request to get the highest salary of employee");
         Integer highestSalary = employeeService.getHighestSalaryOfEmployees();
         return new ResponseEntity<>(highestSalary, HttpStatus.OK);
     }
@@ -59,23 +101,51 @@ public class EmployeeController implements IEmployeeController<EmployeeDto, Crea
     @Override
     @GetMapping("/topTenHighestEarningEmployeeNames")
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-        log.info("Received API request to get the Top 10 highest salaried employees");
+        log.debug("Received API request to get the Top 10 highest salaried employees");
         List<String> names = employeeService.getTopTenHighestEarningEmployeeNames();
         return new ResponseEntity<>(names, HttpStatus.OK);
     }
 
+    @GetMapping("/salaryDistribution")
+    public ResponseEntity<SalaryDistributionDto> getSalaryDistribution(
+            @RequestParam(name = "buckets", defaultValue = "10") int buckets) {
+        log.debug("Received API request to get the salary distribution with {} buckets", buckets);
+        SalaryDistributionDto salaryDistribution = employeeService.getSalaryDistribution(buckets);
+        return new ResponseEntity<>(salaryDistribution, HttpStatus.OK);
+    }
+
     @Override
     @PostMapping
     public ResponseEntity<EmployeeDto> createEmployee(@Valid @RequestBody CreateEmployeeRequestDto employeeInput) {
-        log.info("Received API request to create employee");
+        log.debug("Received API request to create employee");
         EmployeeDto employeeDto = employeeService.createEmployee(employeeInput);
         return new ResponseEntity<>(employeeDto, HttpStatus.CREATED);
     }
 
+    /**
+     * Accepts an employee creation without waiting for the employee service; poll the returned job for the outcome.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<CreateEmployeeJobDto> createEmployeeAsync(
+            @Valid @RequestBody CreateEmployeeRequestDto employeeInput) {
+        log.debug("Received API request to create employee asynchronously");
+        CreateEmployeeJobDto job = employeeService.submitCreateEmployee(employeeInput);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/employee/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<CreateEmployeeJobDto> getCreateEmployeeJob(@PathVariable("jobId") String jobId) {
+        log.debug("Received API request to get create employee job: {}", jobId);
+        CreateEmployeeJobDto job = employeeService.getCreateEmployeeJob(jobId);
+        return new ResponseEntity<>(job, HttpStatus.OK);
+    }
+
     @Override
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteEmployeeById(@PathVariable("id") String id) {
-        log.info("Received API request to delete employee by id: {}", id);
+        log.debug("Received API request to delete employee by id: {}", id);
         String employeeName = employeeService.deleteEmployeeById(id);
         return new ResponseEntity<>(employeeName, HttpStatus.OK);
     }
@@ -0,0 +1,36 @@
+package com.reliaquest.api.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Data;
+
+/**
+ * State of an asynchronous employee creation. {@code employee} is set once the job has succeeded and {@code error}
+ * once it has failed.
+ *
+ * @author nikhilchavan
+ */
+@Data
+public class CreateEmployeeJobDto {
+
+    private UUID jobId;
+
+    private Status status;
+
+    private int attempts;
+
+    private EmployeeDto employee;
+
+    private String error;
+
+    private Instant submittedAt;
+
+    private Instant completedAt;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
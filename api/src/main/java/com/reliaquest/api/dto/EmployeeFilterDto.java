@@ -0,0 +1,23 @@
+package com.reliaquest.api.dto;
+
+import lombok.Data;
+
+/**
+ * Criteria of an employee filter, bound from request parameters. Salary and age bounds are inclusive, the title must
+ * match exactly and criteria left out match everyone.
+ *
+ * @author nikhilchavan
+ */
+@Data
+public class EmployeeFilterDto {
+
+    private Integer minSalary;
+
+    private Integer maxSalary;
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    private String title;
+}
@@ -0,0 +1,30 @@
+package com.reliaquest.api.dto;
+
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Salary statistics of the roster. Percentiles and histogram counts are approximate within the configured relative
+ * accuracy; all fields except {@code count} and {@code histogram} are {@code null} for an empty roster.
+ *
+ * @author nikhilchavan
+ */
+@Data
+public class SalaryDistributionDto {
+
+    private long count;
+
+    private Integer min;
+
+    private Integer max;
+
+    private Double mean;
+
+    private Integer p50;
+
+    private Integer p90;
+
+    private Integer p99;
+
+    private List<SalaryHistogramBucketDto> histogram;
+}
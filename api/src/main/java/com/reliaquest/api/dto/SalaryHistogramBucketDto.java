@@ -0,0 +1,16 @@
+package com.reliaquest.api.dto;
+
+import lombok.Data;
+
+/**
+ * @author nikhilchavan
+ */
+@Data
+public class SalaryHistogramBucketDto {
+
+    private int lowerBound;
+
+    private int upperBound;
+
+    private long count;
+}
@@ -0,0 +1,149 @@
+package com.reliaquest.api.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.api.dto.EmployeeDto;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a stream of employees to a response body while the stream is consumed, as NDJSON or CSV, optionally
+ * gzipped on the fly. Output is flushed every {@value #FLUSH_EVERY} employees, so clients receive rows long before
+ * the export ends, and nothing beyond the stream's own read-ahead is held in memory.
+ * <p>
+ * A failure part way through is logged and rethrown, which aborts the response; a client sees a truncated body
+ * (and, when gzipped, a missing gzip trailer) rather than a short export that looks complete.
+ *
+ * @author nikhilchavan
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmployeeExporter {
+
+    private static final int FLUSH_EVERY = 1000;
+    private static final int GZIP_BUFFER_BYTES = 8192;
+    private static final String CSV_HEADER = "id,name,salary,age,title,email";
+    private static final String CSV_LINE_END = "\r\n";
+
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name + ". Expected ndjson or csv");
+        }
+    }
+
+    /**
+     * Writes {@code employees} to {@code out}, then closes both.
+     */
+    public void write(Stream<EmployeeDto> employees, Format format, boolean gzip, OutputStream out)
+            throws IOException {
+        try (employees;
+                OutputStream body = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_BYTES, true) : out) {
+            long written = format == Format.CSV
+                    ? writeCsv(employees.iterator(), body)
+                    : writeNdjson(employees.iterator(), body);
+            log.debug("Exported {} employees as {}", written, format);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Export of employees as {} aborted: {}", format, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private long writeNdjson(Iterator<EmployeeDto> employees, OutputStream out) throws IOException {
+        long written = 0;
+        try (SequenceWriter lines = objectMapper
+                .writerFor(EmployeeDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            while (employees.hasNext()) {
+                lines.write(employees.next());
+                if (++written % FLUSH_EVERY == 0) {
+                    lines.flush();
+                }
+            }
+        }
+        return written;
+    }
+
+    private static long writeCsv(Iterator<EmployeeDto> employees, OutputStream out) throws IOException {
+        long written = 0;
+        try (Writer rows = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            rows.write(CSV_HEADER);
+            rows.write(CSV_LINE_END);
+            while (employees.hasNext()) {
+                EmployeeDto employee = employees.next();
+                writeCsvField(rows, employee.getId());
+                rows.write(',');
+                writeCsvField(rows, employee.getName());
+                rows.write(',');
+                writeCsvField(rows, employee.getSalary());
+                rows.write(',');
+                writeCsvField(rows, employee.getAge());
+                rows.write(',');
+                writeCsvField(rows, employee.getTitle());
+                rows.write(',');
+                writeCsvField(rows, employee.getEmail());
+                rows.write(CSV_LINE_END);
+                if (++written % FLUSH_EVERY == 0) {
+                    rows.flush();
+                }
+            }
+        }
+        return written;
+    }
+
+    /*
+     * RFC 4180: fields containing a separator, quote or line break are quoted, with quotes doubled. Nulls are empty.
+     */
+    private static void writeCsvField(Writer rows, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            rows.write(text);
+            return;
+        }
+        rows.write('"');
+        rows.write(text.replace("\"", "\"\""));
+        rows.write('"');
+    }
+}
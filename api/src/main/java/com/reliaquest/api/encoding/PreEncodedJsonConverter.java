@@ -0,0 +1,119 @@
+package com.reliaquest.api.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Writes {@link PreEncodedList} response bodies from cached JSON bytes, and from cached gzip bytes when the client
+ * accepts them, so repeated requests for the same roster version cost a buffer copy instead of a Jackson
+ * serialization. One encoding is kept per cache key; a newer version replaces it.
+ *
+ * @author nikhilchavan
+ */
+@Slf4j
+public class PreEncodedJsonConverter extends AbstractHttpMessageConverter<PreEncodedList<?>> {
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+    private final Map<String, Encoded> encodings = new ConcurrentHashMap<>();
+
+    public PreEncodedJsonConverter(ObjectMapper objectMapper, boolean gzip) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PreEncodedList.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PreEncodedList<?> readInternal(Class<? extends PreEncodedList<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pre-encoded lists are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(PreEncodedList<?> list, HttpOutputMessage outputMessage) throws IOException {
+        Encoded encoded = encoded(list);
+        HttpHeaders headers = outputMessage.getHeaders();
+        byte[] body = encoded.json;
+        if (gzip) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip()) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                body = encoded.gzipped();
+            }
+        }
+        headers.setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+
+    private Encoded encoded(PreEncodedList<?> list) throws IOException {
+        Encoded current = encodings.get(list.cacheKey());
+        if (current != null && current.version == list.version()) {
+            return current;
+        }
+        Encoded fresh = new Encoded(list.version(), objectMapper.writeValueAsBytes(list.elements()));
+        encodings.merge(list.cacheKey(), fresh, (old, candidate) -> candidate.version > old.version ? candidate : old);
+        log.debug("Encoded {} version {} ({} bytes)", list.cacheKey(), list.version(), fresh.json.length);
+        return fresh;
+    }
+
+    private static boolean acceptsGzip() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        String acceptEncoding = attributes.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static final class Encoded {
+
+        private final long version;
+        private final byte[] json;
+        private volatile byte[] gzipped;
+
+        private Encoded(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        /*
+         * Compressed on first use; concurrent first uses may both compress, with identical results.
+         */
+        private byte[] gzipped() {
+            byte[] result = gzipped;
+            if (result == null) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+                try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                    out.write(json);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                result = buffer.toByteArray();
+                gzipped = result;
+            }
+            return result;
+        }
+    }
+}
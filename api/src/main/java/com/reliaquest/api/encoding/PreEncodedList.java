@@ -0,0 +1,50 @@
+package com.reliaquest.api.encoding;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list view that tells {@link PreEncodedJsonConverter} which cached encoding it may write instead of
+ * serializing the elements again. Lists with the same {@code cacheKey} and {@code version} must have equal content.
+ *
+ * @author nikhilchavan
+ */
+public final class PreEncodedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final String cacheKey;
+    private final long version;
+    private final List<E> elements;
+
+    private PreEncodedList(String cacheKey, long version, List<E> elements) {
+        this.cacheKey = cacheKey;
+        this.version = version;
+        this.elements = elements;
+    }
+
+    public static <E> PreEncodedList<E> of(String cacheKey, long version, List<E> elements) {
+        return new PreEncodedList<>(cacheKey, version, elements);
+    }
+
+    public String cacheKey() {
+        return cacheKey;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    List<E> elements() {
+        return elements;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+}
@@ -1,11 +1,13 @@
 package com.reliaquest.api.exception;
 
 /**
+ * Thrown without a stack trace: a missing employee is an expected outcome.
+ *
  * @author nikhilchavan
  */
 public class EmployeeNotFoundException extends RuntimeException {
 
     public EmployeeNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,11 +1,13 @@
 package com.reliaquest.api.exception;
 
 /**
+ * Carries no stack trace; it reports an upstream status or connection failure, not a bug in this code.
+ *
  * @author nikhilchavan
  */
 public class EmployeeServiceIntegrationException extends RuntimeException {
 
     public EmployeeServiceIntegrationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
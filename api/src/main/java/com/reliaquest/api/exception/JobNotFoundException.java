@@ -0,0 +1,11 @@
+package com.reliaquest.api.exception;
+
+/**
+ * @author nikhilchavan
+ */
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.reliaquest.api.exception;
+
+/**
+ * Thrown without a stack trace, as it is raised for every request shed under overload.
+ *
+ * @author nikhilchavan
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message, null, false, false);
+    }
+}
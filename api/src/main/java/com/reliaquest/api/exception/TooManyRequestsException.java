@@ -1,11 +1,13 @@
 package com.reliaquest.api.exception;
 
 /**
+ * Thrown without a stack trace, as it is raised for every throttled request.
+ *
  * @author nikhilchavan
  */
 public class TooManyRequestsException extends RuntimeException {
 
     public TooManyRequestsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
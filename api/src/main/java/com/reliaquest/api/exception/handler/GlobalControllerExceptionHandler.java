@@ -3,7 +3,13 @@ package com.reliaquest.api.exception.handler;
 import com.reliaquest.api.dto.CustomErrorDto;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.exception.EmployeeServiceIntegrationException;
+import com.reliaquest.api.exception.JobNotFoundException;
+import com.reliaquest.api.exception.ServiceOverloadedException;
 import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.logging.LogSampler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -14,9 +20,13 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 /**
  * @author nikhilchavan
  */
+@Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalControllerExceptionHandler {
 
+    private final LogSampler logSampler;
+
     @ExceptionHandler(EmployeeServiceIntegrationException.class)
     public ResponseEntity<CustomErrorDto> handleEmployeeServiceIntegrationException(
             EmployeeServiceIntegrationException ex) {
@@ -34,6 +44,14 @@ public class GlobalControllerExceptionHandler {
         return new ResponseEntity<>(errorDto, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<CustomErrorDto> handleJobNotFoundException(JobNotFoundException ex) {
+
+        CustomErrorDto errorDto = new CustomErrorDto();
+        errorDto.setError(ex.getMessage());
+        return new ResponseEntity<>(errorDto, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(TooManyRequestsException.class)
     public ResponseEntity<CustomErrorDto> handleTooManyRequestsException(TooManyRequestsException ex) {
 
@@ -42,6 +60,20 @@ public class GlobalControllerExceptionHandler {
         return new ResponseEntity<>(errorDto, HttpStatus.TOO_MANY_REQUESTS);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<CustomErrorDto> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        long suppressed = logSampler.tryLogError("load-shedding");
+        if (suppressed >= 0) {
+            log.warn("Shedding load: {} ({} similar rejections suppressed)", ex.getMessage(), suppressed);
+        }
+
+        CustomErrorDto errorDto = new CustomErrorDto();
+        errorDto.setError(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorDto);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<CustomErrorDto> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
 
@@ -71,6 +103,10 @@ public class GlobalControllerExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<CustomErrorDto> handleEmployeeServiceIntegrationException(Exception ex) {
+        long suppressed = logSampler.tryLogError(ex.getClass().getName());
+        if (suppressed >= 0) {
+            log.error("Unexpected error while handling request ({} similar errors suppressed)", suppressed, ex);
+        }
 
         CustomErrorDto errorDto = new CustomErrorDto();
         errorDto.setError("An internal error occured. Please contact support@reliaquest.com");
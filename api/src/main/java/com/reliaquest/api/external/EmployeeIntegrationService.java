@@ -1,23 +1,44 @@
 package com.reliaquest.api.external;
 
+import com.reliaquest.api.config.ApplicationConfiguration;
 import com.reliaquest.api.dto.CreateEmployeeRequestDto;
 import com.reliaquest.api.dto.EmployeeDto;
-import com.reliaquest.api.exception.EmployeeNotFoundException;
-import com.reliaquest.api.exception.EmployeeServiceIntegrationException;
-import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.dto.EmployeeFilterDto;
 import com.reliaquest.api.external.dto.*;
+import com.reliaquest.api.logging.LogSampler;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -29,140 +50,660 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class EmployeeIntegrationService {
 
-    private final WebClient employeeServiceExternalClient;
+    /*
+     * Employees decoded ahead of the consumer of an export; the rest of the download waits in socket buffers.
+     */
+    private static final int EXPORT_PREFETCH = 256;
 
-    @Retryable(
-            retryFor = {TooManyRequestsException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 20000))
-    public List<EmployeeDto> getAllEmployees() {
+    private static final Set<ProjectedEmployeeReader.Field> TOP_EARNER_FIELDS =
+            EnumSet.of(ProjectedEmployeeReader.Field.NAME, ProjectedEmployeeReader.Field.SALARY);
 
-        log.info("Integration service : Calling get all employees");
+    private final EmployeeShards employeeShards;
+
+    private final ApplicationConfiguration appConfig;
+
+    private final UpstreamLatencyTracker latencyTracker;
+
+    private final HedgeBudget hedgeBudget;
+
+    private final LogSampler logSampler;
+
+    private final KnownEmployeeIds knownIds;
+
+    private final EmployeeLookupBatcher lookupBatcher;
+
+    private final Sleeper sleeper;
+
+    public UpstreamResult<List<EmployeeDto>> getAllEmployees() {
+        return getAllEmployeesByShard().map(employeesByShard -> {
+            if (employeesByShard.size() == 1) {
+                return employeesByShard.get(0);
+            }
+            List<EmployeeDto> employees = new ArrayList<>();
+            employeesByShard.forEach(employees::addAll);
+            return employees;
+        });
+    }
+
+    /**
+     * Fetches the employees of every shard in parallel, and rebuilds the known ids from a successful fetch.
+     *
+     * @return one list per shard, in shard order
+     */
+    public UpstreamResult<List<List<EmployeeDto>>> getAllEmployeesByShard() {
+        try (KnownEmployeeIds.Rebuild rebuild = knownIds.startRebuild()) {
+            UpstreamResult<List<List<EmployeeDto>>> result = withRetry(this::fetchAllEmployeesByShard);
+            if (result instanceof UpstreamResult.Success<List<List<EmployeeDto>>> success) {
+                rebuild.complete(success.value());
+            }
+            return result;
+        }
+    }
+
+    private UpstreamResult<List<List<EmployeeDto>>> fetchAllEmployeesByShard() {
+
+        log.debug("Integration service : Calling get all employees");
+        List<ResponseEntity<GetAllEmployeeResponseDto>> responses;
         try {
-            ResponseEntity<GetAllEmployeeResponseDto> responseDto = employeeServiceExternalClient
-                    .get()
-                    .exchangeToMono(clientResponse -> clientResponse.toEntity(GetAllEmployeeResponseDto.class))
+            responses = Flux.range(0, employeeShards.size())
+                    .flatMapSequential(shard -> employeeShards
+                            .client(shard)
+                            .get()
+                            .exchangeToMono(
+                                    clientResponse -> clientResponse.toEntity(GetAllEmployeeResponseDto.class)))
+                    .collectList()
                     .block();
+        } catch (WebClientException wce) {
+            return connectionFailed(wce);
+        }
+        List<List<EmployeeDto>> employeesByShard = new ArrayList<>(responses.size());
+        for (int shard = 0; shard < responses.size(); shard++) {
+            ResponseEntity<GetAllEmployeeResponseDto> responseDto = responses.get(shard);
             HttpStatus status = HttpStatus.valueOf(responseDto.getStatusCode().value());
             switch (status) {
                 case OK:
-                    GetAllEmployeeResponseDto allEmployeeResponseDto = responseDto.getBody();
-                    log.info(
-                            "Successfully fetched {} employee records from external api",
-                            allEmployeeResponseDto.getData().size());
-                    return allEmployeeResponseDto.getData();
+                    List<EmployeeDto> employees = responseDto.getBody().getData();
+                    log.debug("Successfully fetched {} employee records from external api", employees.size());
+                    if (employeeShards.size() > 1) {
+                        for (EmployeeDto employee : employees) {
+                            employeeShards.remember(employee.getId(), shard);
+                        }
+                    }
+                    employeesByShard.add(employees);
+                    break;
                 case TOO_MANY_REQUESTS:
-                    throw new TooManyRequestsException("Received too many requests. Please try again later.");
+                    return throttled();
                 default:
-                    log.error("Error occurred while fetching All employees data. Status code returned: {}", status);
-                    throw new EmployeeServiceIntegrationException(
+                    logUpstreamError("get all employees", status);
+                    return UpstreamResult.failed(
                             "Error occurred while fetching All employees data. " + "Status code returned: " + status);
             }
-        } catch (WebClientException wce) {
-            throw new EmployeeServiceIntegrationException(
-                    "Error occurred while connecting to external service. Please try again later.");
         }
+        return UpstreamResult.success(employeesByShard);
     }
 
-    @Retryable(
-            retryFor = {TooManyRequestsException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 20000))
-    public EmployeeDto getEmployeeById(UUID id) {
+    /**
+     * Asks every shard for the employees matching {@code filter}, so only the matches are transferred.
+     */
+    public UpstreamResult<List<EmployeeDto>> filterEmployees(EmployeeFilterDto filter) {
+        return withRetry(() -> fetchMatchingEmployees("filter employees", uriBuilder -> uriBuilder
+                .path("/filter")
+                .queryParamIfPresent("minSalary", Optional.ofNullable(filter.getMinSalary()))
+                .queryParamIfPresent("maxSalary", Optional.ofNullable(filter.getMaxSalary()))
+                .queryParamIfPresent("minAge", Optional.ofNullable(filter.getMinAge()))
+                .queryParamIfPresent("maxAge", Optional.ofNullable(filter.getMaxAge()))
+                .queryParamIfPresent("title", Optional.ofNullable(filter.getTitle()))
+                .build()));
+    }
 
-        log.info("Integration service : Calling get employee by id");
-        try {
-            ResponseEntity<EmployeeResponseDto> employeeResponseDto = employeeServiceExternalClient
-                    .get()
-                    .uri("/{id}", id)
-                    .exchangeToMono(clientResponse -> clientResponse.toEntity(EmployeeResponseDto.class))
-                    .block();
+    /**
+     * Asks every shard for the employees whose name contains {@code name}, ignoring case; the shards answer from a
+     * name index instead of this service scanning the whole roster.
+     */
+    public UpstreamResult<List<EmployeeDto>> searchEmployeesByName(String name) {
+        return withRetry(() -> fetchMatchingEmployees(
+                "search employees",
+                uriBuilder -> uriBuilder.path("/search").queryParam("name", name).build()));
+    }
+
+    /**
+     * Highest salary across the shards, each of which keeps its own current as employees are created and deleted.
+     */
+    public UpstreamResult<OptionalInt> getHighestSalary() {
+        return withRetry(() -> fetchFromAllShards(
+                        "get highest salary",
+                        uriBuilder -> uriBuilder.path("/highest-salary").build(),
+                        HighestSalaryResponseDto.class))
+                .map(responses -> responses.stream()
+                        .map(HighestSalaryResponseDto::getData)
+                        .filter(Objects::nonNull)
+                        .mapToInt(Integer::intValue)
+                        .max());
+    }
+
+    /**
+     * The {@code limit} highest earners across the shards, highest first, with only their name and salary decoded.
+     * Every shard answers with its own top {@code limit} in rank order, so a stable sort of their concatenation by
+     * salary ranks ties by shard, then by their order within the shard.
+     */
+    public UpstreamResult<List<EmployeeDto>> getTopEarners(int limit) {
+        return withRetry(() -> fetchProjectedEmployees(
+                        "get top earners",
+                        uriBuilder -> uriBuilder
+                                .path("/top-earners")
+                                .queryParam("limit", limit)
+                                .build(),
+                        TOP_EARNER_FIELDS))
+                .map(earners -> {
+                    earners.sort(Comparator.comparing(
+                            EmployeeDto::getSalary, Comparator.nullsLast(Comparator.reverseOrder())));
+                    return earners.subList(0, Math.min(limit, earners.size()));
+                });
+    }
+
+    private UpstreamResult<List<EmployeeDto>> fetchMatchingEmployees(
+            String operation, Function<UriBuilder, URI> uriFunction) {
+        return fetchFromAllShards(operation, uriFunction, GetAllEmployeeResponseDto.class)
+                .map(responses -> {
+                    List<EmployeeDto> matches = new ArrayList<>();
+                    responses.forEach(response -> matches.addAll(response.getData()));
+                    log.debug("Successfully fetched {} matching employee records from external api", matches.size());
+                    return matches;
+                });
+    }
+
+    /*
+     * Like fetchMatchingEmployees, but decodes only the given fields of each employee from the raw response bytes.
+     */
+    private UpstreamResult<List<EmployeeDto>> fetchProjectedEmployees(
+            String operation, Function<UriBuilder, URI> uriFunction, Set<ProjectedEmployeeReader.Field> fields) {
+        return fetchFromAllShards(operation, uriFunction, byte[].class).flatMap(bodies -> {
+            List<EmployeeDto> employees = new ArrayList<>();
+            try {
+                for (byte[] body : bodies) {
+                    employees.addAll(ProjectedEmployeeReader.read(body, fields));
+                }
+            } catch (IOException ex) {
+                return unreadable(operation, ex);
+            }
+            log.debug("Successfully fetched {} matching employee records from external api", employees.size());
+            return UpstreamResult.success(employees);
+        });
+    }
 
-            HttpStatus status =
-                    HttpStatus.valueOf(employeeResponseDto.getStatusCode().value());
+    /*
+     * Sends the same GET to every shard and returns their response bodies in shard order, or the first failure.
+     */
+    private <R> UpstreamResult<List<R>> fetchFromAllShards(
+            String operation, Function<UriBuilder, URI> uriFunction, Class<R> responseType) {
 
+        log.debug("Integration service : Calling {}", operation);
+        List<ResponseEntity<R>> responses;
+        try {
+            responses = Flux.range(0, employeeShards.size())
+                    .flatMapSequential(shard -> employeeShards
+                            .client(shard)
+                            .get()
+                            .uri(uriFunction)
+                            .exchangeToMono(clientResponse -> clientResponse.toEntity(responseType)))
+                    .collectList()
+                    .block();
+        } catch (WebClientException wce) {
+            return connectionFailed(wce);
+        }
+        List<R> bodies = new ArrayList<>(responses.size());
+        for (ResponseEntity<R> response : responses) {
+            HttpStatus status = HttpStatus.valueOf(response.getStatusCode().value());
             switch (status) {
                 case OK:
-                    log.info("Successfully fetched employee data with id : {}", id);
-                    return employeeResponseDto.getBody().getData();
+                    bodies.add(response.getBody());
+                    break;
                 case TOO_MANY_REQUESTS:
-                    throw new TooManyRequestsException("Received too many requests. Please try again later.");
-                case NOT_FOUND:
-                    throw new EmployeeNotFoundException("Employee with ID : " + id + " not found.");
+                    return throttled();
                 default:
-                    throw new EmployeeServiceIntegrationException(
-                            "Error occurred while fetching All employees data. " + "Status code returned: " + status);
+                    logUpstreamError(operation, status);
+                    return UpstreamResult.failed(
+                            "Error occurred while trying to " + operation + ". Status code returned: " + status);
+            }
+        }
+        return UpstreamResult.success(bodies);
+    }
+
+    /**
+     * Streams the employees of every shard, one shard after another, decoding each shard's NDJSON export as it
+     * arrives. Only a few hundred employees are decoded ahead of the consumer, so its pace sets that of the download.
+     * A failure before the first employee is returned like that of any other call, and throttling is retried; a later
+     * one, including a later shard throttling, is thrown by the stream. Close the stream to release the connection.
+     */
+    public UpstreamResult<Stream<EmployeeDto>> exportEmployees() {
+        return withRetry(this::openExport);
+    }
+
+    private UpstreamResult<Stream<EmployeeDto>> openExport() {
+
+        log.debug("Integration service : Calling export employees");
+        Stream<EmployeeDto> download = Flux.range(0, employeeShards.size())
+                .concatMap(shard -> employeeShards
+                        .client(shard)
+                        .get()
+                        .uri("/export")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .retrieve()
+                        .bodyToFlux(EmployeeDto.class))
+                .toStream(EXPORT_PREFETCH);
+        Iterator<EmployeeDto> employees = download.iterator();
+        try {
+            employees.hasNext();
+        } catch (WebClientResponseException ex) {
+            download.close();
+            HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+            if (status == HttpStatus.TOO_MANY_REQUESTS) {
+                return throttled();
             }
+            logUpstreamError("export employees", status);
+            return UpstreamResult.failed(
+                    "Error occurred while trying to export employees. Status code returned: " + status);
         } catch (WebClientException wce) {
-            throw new EmployeeServiceIntegrationException(
-                    "Error occurred while connecting to external service. Please try again later.");
+            download.close();
+            return connectionFailed(wce);
         }
+        return UpstreamResult.success(StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(employees, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(download::close));
     }
 
-    @Retryable(
-            retryFor = {TooManyRequestsException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 20000))
-    public EmployeeDto createEmployee(CreateEmployeeRequestDto employeeRequestDto) {
+    /**
+     * Answers with not found without calling the employee service if the known ids rule {@code id} out.
+     */
+    public UpstreamResult<EmployeeDto> getEmployeeById(UUID id) {
+        if (knownIds.isDefinitelyUnknown(id)) {
+            log.debug("Employee with id : {} is not among the known ids", id);
+            return notFound(id);
+        }
+        UpstreamResult<EmployeeDto> result = lookupBatcher.load(id, this::fetchEmployeeBatch);
+        if (result instanceof UpstreamResult.NotFound<EmployeeDto>) {
+            knownIds.onNotFound(id);
+        }
+        return result;
+    }
 
-        log.info("Integration service : Calling create employee api");
+    /*
+     * A batch of one takes the single lookup path, with its adaptive timeout and hedging; a larger one is fetched with
+     * one list request per shard that may hold any of its ids. Each id gets its own result, failures included.
+     */
+    private Map<UUID, UpstreamResult<EmployeeDto>> fetchEmployeeBatch(List<UUID> ids) {
+        if (ids.size() == 1) {
+            UUID id = ids.get(0);
+            return Map.of(id, withRetry(() -> fetchEmployeeById(id)));
+        }
+        UpstreamResult<Map<UUID, EmployeeDto>> fetched = withRetry(() -> fetchEmployeesByIds(ids));
+        Map<UUID, UpstreamResult<EmployeeDto>> results = new HashMap<>();
+        for (UUID id : ids) {
+            results.put(
+                    id,
+                    fetched.flatMap(employeesById -> employeesById.containsKey(id)
+                            ? UpstreamResult.success(employeesById.get(id))
+                            : notFound(id)));
+        }
+        return results;
+    }
+
+    /*
+     * Lists the employees with the given ids, asking each shard only for the ids it holds or may hold. A server
+     * without the id filter ignores it and lists its whole roster, from which the ids are picked all the same.
+     */
+    private UpstreamResult<Map<UUID, EmployeeDto>> fetchEmployeesByIds(List<UUID> ids) {
+
+        log.debug("Integration service : Calling get employees by {} ids", ids.size());
+        List<Integer> shards = new ArrayList<>();
+        List<List<UUID>> idsByShard = new ArrayList<>();
+        for (int shard = 0; shard < employeeShards.size(); shard++) {
+            List<UUID> shardIds = new ArrayList<>();
+            for (UUID id : ids) {
+                OptionalInt knownShard = employeeShards.shardOf(id);
+                if (knownShard.isEmpty() || knownShard.getAsInt() == shard) {
+                    shardIds.add(id);
+                }
+            }
+            if (!shardIds.isEmpty()) {
+                shards.add(shard);
+                idsByShard.add(shardIds);
+            }
+        }
         try {
-            ResponseEntity<CreateEmployeeResponseDto> responseEntity = employeeServiceExternalClient
-                    .post()
-                    .body(Mono.just(employeeRequestDto), CreateEmployeeRequestDto.class)
-                    .exchangeToMono(clientResponse -> clientResponse.toEntity(CreateEmployeeResponseDto.class))
+            return Flux.range(0, shards.size())
+                    .flatMapSequential(i -> fetchEmployeesByIds(shards.get(i), idsByShard.get(i)))
+                    .collectList()
+                    .map(responses -> employeesByIdResult(ids, shards, responses))
+                    .timeout(
+                            byIdTimeout(),
+                            Mono.fromSupplier(
+                                    () -> UpstreamResult.failed("Timed out while fetching employee data by id")))
                     .block();
+        } catch (WebClientException wce) {
+            return connectionFailed(wce);
+        }
+    }
 
-            HttpStatus status =
-                    HttpStatus.valueOf(responseEntity.getStatusCode().value());
+    /*
+     * One timed list-by-id exchange, recorded with the get-by-id exchanges since both are held to the same timeout.
+     */
+    private Mono<ResponseEntity<byte[]>> fetchEmployeesByIds(int shard, List<UUID> ids) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return employeeShards
+                    .client(shard)
+                    .get()
+                    .uri(uriBuilder -> uriBuilder.queryParam("id", ids).build())
+                    .exchangeToMono(clientResponse -> clientResponse.toEntity(byte[].class))
+                    .doFinally(ignored -> latencyTracker.record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
 
+    private UpstreamResult<Map<UUID, EmployeeDto>> employeesByIdResult(
+            List<UUID> ids, List<Integer> shards, List<ResponseEntity<byte[]>> responses) {
+        Set<UUID> requested = new HashSet<>(ids);
+        Map<UUID, EmployeeDto> employeesById = new HashMap<>();
+        for (int i = 0; i < responses.size(); i++) {
+            ResponseEntity<byte[]> response = responses.get(i);
+            HttpStatus status = HttpStatus.valueOf(response.getStatusCode().value());
             switch (status) {
                 case OK:
-                    return responseEntity.getBody().getData();
+                    // Skips the rest of the roster undecoded when an older server answers with all of it
+                    List<EmployeeDto> employees;
+                    try {
+                        employees = ProjectedEmployeeReader.read(
+                                response.getBody(), ProjectedEmployeeReader.ALL_FIELDS, requested::contains);
+                    } catch (IOException ex) {
+                        return unreadable("get employees by id", ex);
+                    }
+                    for (EmployeeDto employee : employees) {
+                        employeesById.put(employee.getId(), employee);
+                        if (employeeShards.size() > 1) {
+                            employeeShards.remember(employee.getId(), shards.get(i));
+                        }
+                    }
+                    break;
                 case TOO_MANY_REQUESTS:
-                    throw new TooManyRequestsException("Received too many requests. Please try again later.");
+                    return throttled();
                 default:
-                    log.error("Error occurred while fetching employees data. Status code returned: {}", status);
-                    throw new EmployeeServiceIntegrationException(
-                            "Error occurred while fetching All employees data. " + "Status code returned: " + status);
+                    logUpstreamError("get employees by id", status);
+                    return UpstreamResult.failed(
+                            "Error occurred while fetching employee data by id. Status code returned: " + status);
             }
+        }
+        log.debug("Successfully fetched {} of {} employee records by id", employeesById.size(), ids.size());
+        return UpstreamResult.success(employeesById);
+    }
+
+    private UpstreamResult<EmployeeDto> fetchEmployeeById(UUID id) {
+
+        log.debug("Integration service : Calling get employee by id");
+        try {
+            OptionalInt shard = employeeShards.shardOf(id);
+            return (shard.isPresent() ? hedged(fetchEmployeeById(shard.getAsInt(), id)) : scatterEmployeeById(id))
+                    .map(employeeResponseDto -> employeeByIdResult(id, employeeResponseDto))
+                    .timeout(
+                            byIdTimeout(),
+                            Mono.fromSupplier(() -> UpstreamResult.failed(
+                                    "Timed out while fetching employee data with id : " + id)))
+                    .block();
         } catch (WebClientException wce) {
-            throw new EmployeeServiceIntegrationException(
-                    "Error occurred while connecting to external service. Please try again later.");
+            return connectionFailed(wce);
+        }
+    }
+
+    private UpstreamResult<EmployeeDto> employeeByIdResult(
+            UUID id, ResponseEntity<EmployeeResponseDto> employeeResponseDto) {
+        HttpStatus status = HttpStatus.valueOf(employeeResponseDto.getStatusCode().value());
+
+        switch (status) {
+            case OK:
+                log.debug("Successfully fetched employee data with id : {}", id);
+                return UpstreamResult.success(employeeResponseDto.getBody().getData());
+            case TOO_MANY_REQUESTS:
+                return throttled();
+            case NOT_FOUND:
+                return notFound(id);
+            default:
+                return UpstreamResult.failed(
+                        "Error occurred while fetching All employees data. " + "Status code returned: " + status);
+        }
+    }
+
+    /*
+     * Asks every shard for an id whose shard is not known yet. Answers with the shard that has it, otherwise with the
+     * most telling failure: throttling before errors before not found.
+     */
+    private Mono<ResponseEntity<EmployeeResponseDto>> scatterEmployeeById(UUID id) {
+        return Flux.range(0, employeeShards.size())
+                .flatMap(shard -> fetchEmployeeById(shard, id).doOnNext(response -> {
+                    if (response.getStatusCode().value() == HttpStatus.OK.value()) {
+                        employeeShards.remember(id, shard);
+                    }
+                }))
+                .collectList()
+                .map(responses -> responses.stream()
+                        .min(Comparator.comparingInt(EmployeeIntegrationService::scatterRank))
+                        .orElseThrow());
+    }
+
+    private static int scatterRank(ResponseEntity<?> response) {
+        int status = response.getStatusCode().value();
+        if (status == HttpStatus.OK.value()) {
+            return 0;
+        }
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return 1;
+        }
+        return status == HttpStatus.NOT_FOUND.value() ? 3 : 2;
+    }
+
+    /*
+     * One timed get-by-id exchange; every subscription sends a new request. Exchanges cut short by the timeout or a
+     * faster hedge are recorded too, at the time they were given, so a slow upstream raises the timeout it is held to.
+     */
+    private Mono<ResponseEntity<EmployeeResponseDto>> fetchEmployeeById(int shard, UUID id) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return employeeShards
+                    .client(shard)
+                    .get()
+                    .uri("/{id}", id)
+                    .exchangeToMono(clientResponse -> clientResponse.toEntity(EmployeeResponseDto.class))
+                    .doFinally(ignored -> latencyTracker.record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    /*
+     * Sends a second request if the first is still outstanding after the hedge percentile and the budget allows it,
+     * then takes whichever answers first and cancels the other.
+     */
+    private <T> Mono<T> hedged(Mono<T> request) {
+        hedgeBudget.onRequest();
+        if (!appConfig.isEmployeeClientHedgeEnabled()) {
+            return request;
         }
+        return latencyTracker
+                .percentile(appConfig.getEmployeeClientHedgePercentile())
+                .map(delay -> Mono.firstWithSignal(
+                        request,
+                        Mono.delay(delay).flatMap(ignored -> {
+                            if (!hedgeBudget.tryAcquire()) {
+                                return Mono.<T>never();
+                            }
+                            log.debug("Hedging get employee by id after {} ms", delay.toMillis());
+                            return request;
+                        })))
+                .orElse(request);
     }
 
-    @Retryable(
-            retryFor = {TooManyRequestsException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 20000))
-    public boolean deleteEmployeeByName(String name) {
+    private Duration byIdTimeout() {
+        Duration min = appConfig.getEmployeeClientMinTimeout();
+        Duration max = appConfig.getEmployeeClientMaxTimeout();
+        return latencyTracker
+                .percentile(0.99)
+                .map(p99 -> Duration.ofNanos((long) (p99.toNanos() * appConfig.getEmployeeClientTimeoutMultiplier())))
+                .map(timeout -> timeout.compareTo(min) < 0 ? min : timeout.compareTo(max) > 0 ? max : timeout)
+                .orElse(max);
+    }
 
-        log.info("Integration service : calling api to delete employee with name");
+    public UpstreamResult<EmployeeDto> createEmployee(CreateEmployeeRequestDto employeeRequestDto) {
+        return withRetry(() -> tryCreateEmployee(employeeRequestDto));
+    }
+
+    /**
+     * Creates an employee with a single call, for callers that pace themselves when throttled.
+     */
+    public UpstreamResult<EmployeeDto> tryCreateEmployee(CreateEmployeeRequestDto employeeRequestDto) {
+
+        log.debug("Integration service : Calling create employee api");
+        int shard = employeeShards.shardForName(employeeRequestDto.getName());
+        ResponseEntity<CreateEmployeeResponseDto> responseEntity;
         try {
-            DeleteEmployeeRequestDto deleteEmployeeRequestDto = new DeleteEmployeeRequestDto();
-            deleteEmployeeRequestDto.setName(name);
-            ResponseEntity<DeleteEmployeeResponseDto> responseEntity = employeeServiceExternalClient
+            responseEntity = employeeShards
+                    .client(shard)
+                    .post()
+                    .body(Mono.just(employeeRequestDto), CreateEmployeeRequestDto.class)
+                    .exchangeToMono(clientResponse -> clientResponse.toEntity(CreateEmployeeResponseDto.class))
+                    .block();
+        } catch (WebClientException wce) {
+            return connectionFailed(wce);
+        }
+
+        HttpStatus status = HttpStatus.valueOf(responseEntity.getStatusCode().value());
+
+        switch (status) {
+            case OK:
+                EmployeeDto employeeDto = responseEntity.getBody().getData();
+                employeeShards.remember(employeeDto.getId(), shard);
+                knownIds.add(employeeDto.getId());
+                return UpstreamResult.success(employeeDto);
+            case TOO_MANY_REQUESTS:
+                return throttled();
+            default:
+                logUpstreamError("create employee", status);
+                return UpstreamResult.failed(
+                        "Error occurred while fetching All employees data. " + "Status code returned: " + status);
+        }
+    }
+
+    /**
+     * Deletes the first employee with the given name, trying one shard after another.
+     */
+    public UpstreamResult<Boolean> deleteEmployeeByName(String name) {
+
+        log.debug("Integration service : calling api to delete employee with name");
+        return withRetry(() -> deleteFromShards(0, employeeShards.size(), name));
+    }
+
+    /**
+     * Deletes an employee by name on the shard that holds {@code id}, falling back to trying every shard when that
+     * shard is not known.
+     */
+    public UpstreamResult<Boolean> deleteEmployee(UUID id, String name) {
+
+        log.debug("Integration service : calling api to delete employee with name");
+        OptionalInt shard = employeeShards.shardOf(id);
+        UpstreamResult<Boolean> result = withRetry(() -> shard.isPresent()
+                ? deleteEmployeeByName(shard.getAsInt(), name)
+                : deleteFromShards(0, employeeShards.size(), name));
+        if (result instanceof UpstreamResult.Success<Boolean> deleted && deleted.value()) {
+            employeeShards.forget(id);
+        }
+        return result;
+    }
+
+    /*
+     * Tries shards [from, to) in order until one deletes the employee or fails.
+     */
+    private UpstreamResult<Boolean> deleteFromShards(int from, int to, String name) {
+        for (int shard = from; shard < to; shard++) {
+            UpstreamResult<Boolean> result = deleteEmployeeByName(shard, name);
+            if (!(result instanceof UpstreamResult.Success<Boolean> deleted) || deleted.value()) {
+                return result;
+            }
+        }
+        return UpstreamResult.success(false);
+    }
+
+    private UpstreamResult<Boolean> deleteEmployeeByName(int shard, String name) {
+        DeleteEmployeeRequestDto deleteEmployeeRequestDto = new DeleteEmployeeRequestDto();
+        deleteEmployeeRequestDto.setName(name);
+        ResponseEntity<DeleteEmployeeResponseDto> responseEntity;
+        try {
+            responseEntity = employeeShards
+                    .client(shard)
                     .method(HttpMethod.DELETE)
                     .body(Mono.just(deleteEmployeeRequestDto), DeleteEmployeeRequestDto.class)
                     .exchangeToMono(clientResponse -> clientResponse.toEntity(DeleteEmployeeResponseDto.class))
                     .block();
+        } catch (WebClientException wce) {
+            return connectionFailed(wce);
+        }
 
-            HttpStatus status =
-                    HttpStatus.valueOf(responseEntity.getStatusCode().value());
+        HttpStatus status = HttpStatus.valueOf(responseEntity.getStatusCode().value());
 
-            switch (status) {
-                case OK:
-                    return responseEntity.getBody().isData();
-                case TOO_MANY_REQUESTS:
-                    throw new TooManyRequestsException("Received too many requests. Please try again after later.");
-                default:
-                    throw new EmployeeServiceIntegrationException(
-                            "Error occurred while fetching All employees data. " + "Status code returned: " + status);
+        switch (status) {
+            case OK:
+                return UpstreamResult.success(responseEntity.getBody().isData());
+            case TOO_MANY_REQUESTS:
+                return throttled();
+            default:
+                return UpstreamResult.failed(
+                        "Error occurred while fetching All employees data. " + "Status code returned: " + status);
+        }
+    }
+
+    /*
+     * Repeats a call that was throttled, waiting the configured delay in between, up to the maximum attempts.
+     */
+    private <T> UpstreamResult<T> withRetry(Supplier<UpstreamResult<T>> call) {
+        UpstreamResult<T> result = call.get();
+        int maxAttempts = appConfig.getEmployeeClientRetryMaxAttempts();
+        for (int attempt = 1; attempt < maxAttempts && result.isThrottled(); attempt++) {
+            try {
+                sleeper.sleep(appConfig.getEmployeeClientRetryDelay());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return result;
             }
-        } catch (WebClientException wce) {
-            throw new EmployeeServiceIntegrationException(
-                    "Error occurred while connecting to external service. Please try again later.");
+            result = call.get();
+        }
+        return result;
+    }
+
+    private <T> UpstreamResult<T> throttled() {
+        hedgeBudget.onThrottled();
+        return UpstreamResult.throttled("Received too many requests. Please try again later.");
+    }
+
+    private static <T> UpstreamResult<T> notFound(UUID id) {
+        return UpstreamResult.notFound("Employee with ID : " + id + " not found.");
+    }
+
+    private <T> UpstreamResult<T> unreadable(String operation, IOException ex) {
+        logUpstreamError(operation, ex.getMessage());
+        return UpstreamResult.failed("Error occurred while reading the response of the external service.");
+    }
+
+    private <T> UpstreamResult<T> connectionFailed(WebClientException wce) {
+        logUpstreamError("employee service", wce.getMessage());
+        return UpstreamResult.failed("Error occurred while connecting to external service. Please try again later.");
+    }
+
+    /*
+     * Upstream failures come in bursts; log a bounded number of them per interval.
+     */
+    private void logUpstreamError(String operation, Object cause) {
+        long suppressed = logSampler.tryLogError(operation);
+        if (suppressed >= 0) {
+            log.error(
+                    "Error occurred while calling {} on external api: {} ({} similar errors suppressed)",
+                    operation,
+                    cause,
+                    suppressed);
         }
     }
 }
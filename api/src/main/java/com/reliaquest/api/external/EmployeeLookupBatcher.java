@@ -0,0 +1,138 @@
+package com.reliaquest.api.external;
+
+import com.reliaquest.api.dto.EmployeeDto;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Gathers lookups of employees by id that arrive at about the same time into batches, so that a burst of distinct
+ * lookups costs one upstream call instead of one each. The first lookup of a batch waits up to the window for others
+ * to join, or until the batch is full, then loads the whole batch on its own thread and hands each waiting lookup its
+ * result. Lookups of an id already waiting in the batch share that result.
+ * <p>
+ * The window is the most a lookup is delayed by batching; a lookup that finds no company waits it out and is then
+ * loaded alone.
+ * @author nikhilchavan
+ */
+public class EmployeeLookupBatcher {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedIds = new LongAdder();
+    private Batch open;
+
+    public EmployeeLookupBatcher(boolean enabled, Duration window, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Expected maxBatchSize >= 1");
+        }
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Looks {@code id} up in a batch with the other ids asked for within the window. Exceptions thrown by
+     * {@code loadBatch} reach every lookup of the batch.
+     *
+     * @param loadBatch loads distinct ids and returns a result for each of them
+     */
+    public UpstreamResult<EmployeeDto> load(
+            UUID id, Function<List<UUID>, Map<UUID, UpstreamResult<EmployeeDto>>> loadBatch) {
+        if (!enabled) {
+            return loadBatch.apply(List.of(id)).get(id);
+        }
+        Batch batch;
+        CompletableFuture<UpstreamResult<EmployeeDto>> result;
+        boolean first;
+        synchronized (this) {
+            first = open == null;
+            if (first) {
+                open = new Batch();
+            }
+            batch = open;
+            batch.lookups++;
+            result = batch.results.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (batch.results.size() >= maxBatchSize) {
+                open = null;
+                notifyAll();
+            }
+        }
+        if (first) {
+            awaitWindow(batch);
+            dispatch(batch, loadBatch);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    /**
+     * @return batches loaded, including batches of one
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return distinct ids loaded across all batches
+     */
+    public long batchedIds() {
+        return batchedIds.sum();
+    }
+
+    /**
+     * @return lookups waiting in the open batch, counting repeated ids
+     */
+    synchronized int waiting() {
+        return open == null ? 0 : open.lookups;
+    }
+
+    private synchronized void awaitWindow(Batch batch) {
+        long deadline = System.nanoTime() + windowNanos;
+        long remaining;
+        while (open == batch && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (open == batch) {
+            open = null;
+        }
+    }
+
+    private void dispatch(Batch batch, Function<List<UUID>, Map<UUID, UpstreamResult<EmployeeDto>>> loadBatch) {
+        List<UUID> ids = List.copyOf(batch.results.keySet());
+        batches.increment();
+        batchedIds.add(ids.size());
+        try {
+            Map<UUID, UpstreamResult<EmployeeDto>> loaded = loadBatch.apply(ids);
+            batch.results.forEach((id, result) -> result.complete(loaded.get(id)));
+        } catch (RuntimeException ex) {
+            batch.results.values().forEach(result -> result.completeExceptionally(ex));
+        }
+    }
+
+    /*
+     * Only changed under the batcher's lock while open; read by the thread that loads it once closed.
+     */
+    private static final class Batch {
+
+        private final Map<UUID, CompletableFuture<UpstreamResult<EmployeeDto>>> results = new LinkedHashMap<>();
+        private int lookups;
+    }
+}
@@ -0,0 +1,66 @@
+package com.reliaquest.api.external;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * The upstream employee services the roster is spread across, and which of them holds which employee.
+ * <p>
+ * Upstreams assign employee ids themselves, so a shard cannot be derived from an id. Instead every id seen in a
+ * list, get or create response is remembered together with the shard that returned it; lookups of ids not seen yet
+ * fall back to asking every shard. New employees are placed by a hash of their name, which is also the key the
+ * upstream deletes by. With a single shard nothing is tracked.
+ * @author nikhilchavan
+ */
+public class EmployeeShards {
+
+    private final List<WebClient> clients;
+    private final Map<UUID, Integer> shardsById = new ConcurrentHashMap<>();
+
+    public EmployeeShards(List<WebClient> clients) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one employee service is required");
+        }
+        this.clients = List.copyOf(clients);
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    public WebClient client(int shard) {
+        return clients.get(shard);
+    }
+
+    public OptionalInt shardOf(UUID id) {
+        if (clients.size() == 1) {
+            return OptionalInt.of(0);
+        }
+        Integer shard = id == null ? null : shardsById.get(id);
+        return shard == null ? OptionalInt.empty() : OptionalInt.of(shard);
+    }
+
+    public int shardForName(String name) {
+        if (name == null) {
+            return 0;
+        }
+        return Math.floorMod(name.toLowerCase(Locale.ROOT).hashCode(), clients.size());
+    }
+
+    public void remember(UUID id, int shard) {
+        if (clients.size() > 1 && id != null) {
+            shardsById.put(id, shard);
+        }
+    }
+
+    public void forget(UUID id) {
+        if (id != null) {
+            shardsById.remove(id);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.reliaquest.api.external;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that caps hedged requests to a fraction of primary traffic. Each primary request earns
+ * {@code tokensPerRequest} tokens and each hedge spends one, so with a ratio of 0.1 at most one request in ten is
+ * duplicated. When the upstream throttles, the bucket is emptied and hedging stays off for the cooldown, so hedges
+ * never add load to an upstream that is already shedding it. Nothing is earned during the cooldown either.
+ * @author nikhilchavan
+ */
+public class HedgeBudget {
+
+    private final double tokensPerRequest;
+    private final double maxTokens;
+    private final long cooldownNanos;
+    private final LongSupplier nanoTime;
+    private double tokens;
+    private boolean throttled;
+    private long throttledAt;
+
+    public HedgeBudget(double tokensPerRequest, int maxTokens, Duration throttleCooldown) {
+        this(tokensPerRequest, maxTokens, throttleCooldown, System::nanoTime);
+    }
+
+    HedgeBudget(double tokensPerRequest, int maxTokens, Duration throttleCooldown, LongSupplier nanoTime) {
+        this.tokensPerRequest = tokensPerRequest;
+        this.maxTokens = maxTokens;
+        this.cooldownNanos = throttleCooldown.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public synchronized void onRequest() {
+        if (!inCooldown()) {
+            tokens = Math.min(maxTokens, tokens + tokensPerRequest);
+        }
+    }
+
+    public synchronized void onThrottled() {
+        throttled = true;
+        throttledAt = nanoTime.getAsLong();
+        tokens = 0;
+    }
+
+    /**
+     * @return whether a hedge may be sent now; spends a token if so
+     */
+    public synchronized boolean tryAcquire() {
+        if (inCooldown() || tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private boolean inCooldown() {
+        if (throttled && nanoTime.getAsLong() - throttledAt >= cooldownNanos) {
+            throttled = false;
+        }
+        return throttled;
+    }
+}
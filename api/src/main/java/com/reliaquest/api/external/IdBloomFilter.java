@@ -0,0 +1,100 @@
+package com.reliaquest.api.external;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of employee ids. An id that was added is always reported as possibly present; an id that
+ * was not is reported as possibly present with roughly the false positive rate it was sized for. Ids cannot be
+ * removed, so the filter is rebuilt instead. Adds and lookups may run concurrently.
+ * @author nikhilchavan
+ */
+final class IdBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private int size;
+
+    private IdBloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Sizes a filter to answer with {@code falsePositiveRate} once {@code expectedIds} ids have been added.
+     */
+    static IdBloomFilter create(int expectedIds, double falsePositiveRate) {
+        if (expectedIds < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected expectedIds >= 1 and 0 < falsePositiveRate < 1");
+        }
+        long bits = Math.max(64, (long) Math.ceil(-expectedIds * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int hashes = (int) Math.max(1, Math.round((double) bits / expectedIds * LN2));
+        return new IdBloomFilter(bits, hashes);
+    }
+
+    void add(UUID id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 + GOLDEN_GAMMA) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndUpdate(word, value -> value | mask);
+            }
+        }
+        size++;
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 + GOLDEN_GAMMA) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return ids added so far, counting repeats
+     */
+    int size() {
+        return size;
+    }
+
+    int hashes() {
+        return hashes;
+    }
+
+    long bits() {
+        return bits;
+    }
+
+    /*
+     * Both halves feed the hash, so ids that differ in only one of them (e.g. sequential test ids) still spread over
+     * the bits.
+     */
+    private static long hash(UUID id) {
+        return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+    }
+
+    /*
+     * Murmur3's 64-bit finalizer.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb53a2e1ac58bL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
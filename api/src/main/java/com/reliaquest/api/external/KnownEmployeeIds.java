@@ -0,0 +1,205 @@
+package com.reliaquest.api.external;
+
+import com.reliaquest.api.dto.EmployeeDto;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Ids known to exist upstream, kept in a Bloom filter so that looking up an id that certainly does not exist is
+ * answered with not found without calling the employee service.
+ * <p>
+ * The filter is rebuilt from every full roster fetch, and ids created through this service are added as they are
+ * created. Ids created directly upstream are missing until the next fetch, so a filter is only trusted to answer
+ * misses for the configured maximum age after the fetch it was built from started. Deleted ids stay in the filter
+ * until the next rebuild and are passed on to the employee service like any other possible hit.
+ * <p>
+ * A fetch that overlaps a create may or may not include the new id, so ids added while a rebuild is in flight are
+ * replayed into the filter it installs.
+ * @author nikhilchavan
+ */
+public class KnownEmployeeIds {
+
+    /*
+     * Filters are sized for the fetched roster plus a quarter, so creates until the next rebuild do not push the
+     * false positive rate far past the configured one, and never for fewer than this many ids.
+     */
+    private static final int MIN_EXPECTED_IDS = 1024;
+
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long maxAgeNanos;
+    private final LongSupplier nanoTime;
+    private final LongAdder avoided = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final List<Added> added = new ArrayList<>();
+    private long sequence;
+    private int rebuildsInFlight;
+    private long installedTicket = -1;
+    private volatile Installed installed;
+
+    public KnownEmployeeIds(boolean enabled, double falsePositiveRate, Duration maxAge) {
+        this(enabled, falsePositiveRate, maxAge, System::nanoTime);
+    }
+
+    KnownEmployeeIds(boolean enabled, double falsePositiveRate, Duration maxAge, LongSupplier nanoTime) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected 0 < falsePositiveRate < 1");
+        }
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Starts a rebuild just before a full roster fetch. Complete it with the fetched roster, and close it either way.
+     */
+    public synchronized Rebuild startRebuild() {
+        rebuildsInFlight++;
+        return new Rebuild(sequence++, nanoTime.getAsLong());
+    }
+
+    /**
+     * Records an id that now exists upstream, e.g. one that was just created.
+     */
+    public synchronized void add(UUID id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        if (installed != null) {
+            installed.filter().add(id);
+        }
+        if (rebuildsInFlight > 0) {
+            added.add(new Added(sequence++, id));
+        }
+    }
+
+    /**
+     * @return whether {@code id} certainly does not exist upstream, in which case the lookup counts as avoided
+     */
+    public boolean isDefinitelyUnknown(UUID id) {
+        Installed current = installed;
+        if (!isTrusted(current)) {
+            return false;
+        }
+        if (current.filter().mightContain(id)) {
+            passed.increment();
+            return false;
+        }
+        avoided.increment();
+        return true;
+    }
+
+    /**
+     * Records that the employee service did not find {@code id}, which counts as a false positive if the filter
+     * passed the lookup on.
+     */
+    public void onNotFound(UUID id) {
+        Installed current = installed;
+        if (isTrusted(current) && current.filter().mightContain(id)) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * @return lookups answered with not found without calling the employee service
+     */
+    public long avoidedLookups() {
+        return avoided.sum();
+    }
+
+    /**
+     * @return lookups the filter could not rule out, which went to the employee service
+     */
+    public long passedLookups() {
+        return passed.sum();
+    }
+
+    /**
+     * @return passed lookups that the employee service answered with not found
+     */
+    public long falsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * @return ids in the current filter, counting repeats, or 0 before the first rebuild
+     */
+    public synchronized int size() {
+        return installed == null ? 0 : installed.filter().size();
+    }
+
+    private boolean isTrusted(Installed current) {
+        return current != null && nanoTime.getAsLong() - current.fetchStartedAt() < maxAgeNanos;
+    }
+
+    private synchronized void install(Rebuild rebuild, IdBloomFilter filter) {
+        if (rebuild.ticket < installedTicket) {
+            return;
+        }
+        for (Added entry : added) {
+            if (entry.sequence() > rebuild.ticket) {
+                filter.add(entry.id());
+            }
+        }
+        added.removeIf(entry -> entry.sequence() < rebuild.ticket);
+        installedTicket = rebuild.ticket;
+        installed = new Installed(filter, rebuild.startedAt);
+    }
+
+    private synchronized void release() {
+        if (--rebuildsInFlight == 0) {
+            added.clear();
+        }
+    }
+
+    /**
+     * One rebuild from a full roster fetch. A rebuild whose fetch started before that of the installed filter is
+     * dropped when completed.
+     */
+    public final class Rebuild implements AutoCloseable {
+
+        private final long ticket;
+        private final long startedAt;
+        private boolean closed;
+
+        private Rebuild(long ticket, long startedAt) {
+            this.ticket = ticket;
+            this.startedAt = startedAt;
+        }
+
+        public void complete(List<List<EmployeeDto>> employeesByShard) {
+            if (!enabled) {
+                return;
+            }
+            int count = employeesByShard.stream().mapToInt(List::size).sum();
+            IdBloomFilter filter =
+                    IdBloomFilter.create(Math.max(MIN_EXPECTED_IDS, count + count / 4), falsePositiveRate);
+            for (List<EmployeeDto> employees : employeesByShard) {
+                for (EmployeeDto employee : employees) {
+                    if (employee.getId() != null) {
+                        filter.add(employee.getId());
+                    }
+                }
+            }
+            install(this, filter);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release();
+            }
+        }
+    }
+
+    private record Installed(IdBloomFilter filter, long fetchStartedAt) {}
+
+    private record Added(long sequence, UUID id) {}
+}
@@ -0,0 +1,133 @@
+package com.reliaquest.api.external;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.reliaquest.api.dto.EmployeeDto;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decodes the employees of a list response from the employee service token by token, setting only the fields the
+ * caller needs and, when given a filter, keeping only the employees it wants. Unwanted values are stepped over
+ * without becoming strings, numbers or UUIDs, and unwanted employees without becoming objects at all, so a consumer
+ * that needs two fields of a handful of employees pays for little more than scanning the bytes.
+ * @author nikhilchavan
+ */
+final class ProjectedEmployeeReader {
+
+    enum Field {
+        ID("id"),
+        NAME("employee_name"),
+        SALARY("employee_salary"),
+        AGE("employee_age"),
+        TITLE("employee_title"),
+        EMAIL("employee_email");
+
+        private static final Map<String, Field> BY_JSON_NAME =
+                Stream.of(values()).collect(Collectors.toUnmodifiableMap(field -> field.jsonName, Function.identity()));
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+    }
+
+    static final Set<Field> ALL_FIELDS = EnumSet.allOf(Field.class);
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private ProjectedEmployeeReader() {}
+
+    /**
+     * Reads every employee in the {@code data} array of {@code body}; a missing or null array reads as empty.
+     *
+     * @param fields fields to set; the others are left null
+     */
+    static List<EmployeeDto> read(byte[] body, Set<Field> fields) throws IOException {
+        return read(body, fields, null);
+    }
+
+    /**
+     * Reads the employees in the {@code data} array of {@code body} whose id {@code wanted} accepts.
+     *
+     * @param fields fields to set; the others are left null
+     */
+    static List<EmployeeDto> read(byte[] body, Set<Field> fields, Predicate<UUID> wanted) throws IOException {
+        List<EmployeeDto> employees = new ArrayList<>();
+        if (body == null || body.length == 0) {
+            return employees;
+        }
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a list response object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean data = "data".equals(parser.currentName());
+                if (parser.nextToken() == JsonToken.START_ARRAY && data) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        EmployeeDto employee = readEmployee(parser, fields, wanted);
+                        if (employee != null) {
+                            employees.add(employee);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return employees;
+    }
+
+    /*
+     * Once the id rules an employee out, the rest of its fields are skipped.
+     */
+    private static EmployeeDto readEmployee(JsonParser parser, Set<Field> fields, Predicate<UUID> wanted)
+            throws IOException {
+        EmployeeDto employee = new EmployeeDto();
+        boolean keep = wanted == null;
+        boolean idSeen = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Field field = Field.BY_JSON_NAME.get(parser.currentName());
+            JsonToken value = parser.nextToken();
+            if (field == Field.ID && value == JsonToken.VALUE_STRING && !idSeen) {
+                idSeen = true;
+                if (wanted == null && !fields.contains(Field.ID)) {
+                    continue;
+                }
+                UUID id = UUID.fromString(parser.getText());
+                keep = wanted == null || wanted.test(id);
+                if (keep && fields.contains(Field.ID)) {
+                    employee.setId(id);
+                }
+            } else if (field == null
+                    || field == Field.ID
+                    || value == JsonToken.VALUE_NULL
+                    || !fields.contains(field)
+                    || (idSeen && !keep)) {
+                parser.skipChildren();
+            } else {
+                switch (field) {
+                    case NAME -> employee.setName(parser.getText());
+                    case SALARY -> employee.setSalary(parser.getValueAsInt());
+                    case AGE -> employee.setAge(parser.getValueAsInt());
+                    case TITLE -> employee.setTitle(parser.getText());
+                    case EMAIL -> employee.setEmail(parser.getText());
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return keep ? employee : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.reliaquest.api.external;
+
+import java.time.Duration;
+
+/**
+ * Waits between retries; replaced in tests so retries do not take real time.
+ *
+ * @author nikhilchavan
+ */
+@FunctionalInterface
+public interface Sleeper {
+
+    Sleeper THREAD = duration -> Thread.sleep(duration.toMillis());
+
+    void sleep(Duration duration) throws InterruptedException;
+}
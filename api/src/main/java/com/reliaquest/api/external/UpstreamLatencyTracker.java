@@ -0,0 +1,55 @@
+package com.reliaquest.api.external;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Sliding window of the most recent upstream response times, used to derive timeouts and hedge delays from what the
+ * upstream is actually doing rather than from fixed guesses.
+ * <p>
+ * Percentiles are read from a sorted copy of the window that is refreshed every few samples, so the hot path does
+ * not sort on every request.
+ * @author nikhilchavan
+ */
+public class UpstreamLatencyTracker {
+
+    private final long[] samples;
+    private final int minSamples;
+    private final int refreshEvery;
+    private int next;
+    private long count;
+    private long sortedAt = -1;
+    private long[] sorted = new long[0];
+
+    public UpstreamLatencyTracker(int window, int minSamples) {
+        if (window < 1 || minSamples < 1 || minSamples > window) {
+            throw new IllegalArgumentException("Expected 1 <= minSamples <= window");
+        }
+        this.samples = new long[window];
+        this.minSamples = minSamples;
+        this.refreshEvery = Math.max(1, window / 32);
+    }
+
+    public synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count++;
+    }
+
+    /**
+     * @return the {@code quantile} (e.g. 0.95) of the window, or empty until enough samples have been recorded
+     */
+    public synchronized Optional<Duration> percentile(double quantile) {
+        if (count < minSamples) {
+            return Optional.empty();
+        }
+        if (sortedAt < 0 || count - sortedAt >= refreshEvery) {
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+            Arrays.sort(sorted);
+            sortedAt = count;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return Optional.of(Duration.ofNanos(sorted[Math.min(sorted.length - 1, Math.max(0, index))]));
+    }
+}
@@ -0,0 +1,95 @@
+package com.reliaquest.api.external;
+
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.EmployeeServiceIntegrationException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import java.util.function.Function;
+
+/**
+ * Outcome of a call to the employee service. Not found, throttled and failed calls are expected outcomes, so they
+ * are returned as values instead of thrown: no stack trace is captured and nothing unwinds through proxies, however
+ * often the upstream throttles. {@link #orElseThrow()} turns a failure into an exception where one is needed, at the
+ * boundary to the controller.
+ *
+ * @author nikhilchavan
+ */
+public sealed interface UpstreamResult<T> {
+
+    record Success<T>(T value) implements UpstreamResult<T> {}
+
+    /**
+     * Any outcome other than success.
+     */
+    sealed interface Failure<T> extends UpstreamResult<T> {
+
+        String message();
+    }
+
+    record NotFound<T>(String message) implements Failure<T> {}
+
+    record Throttled<T>(String message) implements Failure<T> {}
+
+    record Failed<T>(String message) implements Failure<T> {}
+
+    static <T> UpstreamResult<T> success(T value) {
+        return new Success<>(value);
+    }
+
+    static <T> UpstreamResult<T> notFound(String message) {
+        return new NotFound<>(message);
+    }
+
+    static <T> UpstreamResult<T> throttled(String message) {
+        return new Throttled<>(message);
+    }
+
+    static <T> UpstreamResult<T> failed(String message) {
+        return new Failed<>(message);
+    }
+
+    default boolean isThrottled() {
+        return this instanceof Throttled;
+    }
+
+    /**
+     * Transforms the value of a success and passes failures through unchanged.
+     */
+    @SuppressWarnings("unchecked")
+    default <R> UpstreamResult<R> map(Function<? super T, ? extends R> mapper) {
+        if (this instanceof Success<T> success) {
+            return new Success<>(mapper.apply(success.value()));
+        }
+        return (UpstreamResult<R>) this;
+    }
+
+    /**
+     * Passes the value of a success to {@code mapper}, whose result may itself be a failure, and passes failures
+     * through unchanged.
+     */
+    @SuppressWarnings("unchecked")
+    default <R> UpstreamResult<R> flatMap(Function<? super T, UpstreamResult<R>> mapper) {
+        if (this instanceof Success<T> success) {
+            return mapper.apply(success.value());
+        }
+        return (UpstreamResult<R>) this;
+    }
+
+    /**
+     * @return the value of a success
+     * @throws EmployeeNotFoundException if not found
+     * @throws TooManyRequestsException if throttled
+     * @throws EmployeeServiceIntegrationException if failed
+     */
+    default T orElseThrow() {
+        if (this instanceof Success<T> success) {
+            return success.value();
+        }
+        if (this instanceof NotFound<T> notFound) {
+            throw new EmployeeNotFoundException(notFound.message());
+        }
+        if (this instanceof Throttled<T> throttled) {
+            throw new TooManyRequestsException(throttled.message());
+        }
+        throw new EmployeeServiceIntegrationException(((Failed<T>) this).message());
+    }
+}
@@ -0,0 +1,13 @@
+package com.reliaquest.api.external.dto;
+
+import lombok.Data;
+
+/**
+ * @author nikhilchavan
+ */
+@Data
+public class HighestSalaryResponseDto {
+
+    private Integer data;
+    private String status;
+}
@@ -0,0 +1,70 @@
+package com.reliaquest.api.jobs;
+
+import com.reliaquest.api.dto.CreateEmployeeJobDto;
+import com.reliaquest.api.dto.CreateEmployeeRequestDto;
+import com.reliaquest.api.dto.EmployeeDto;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One queued employee creation. Written by a single worker at a time and read by status requests.
+ *
+ * @author nikhilchavan
+ */
+class CreateEmployeeJob {
+
+    final UUID id = UUID.randomUUID();
+    final CreateEmployeeRequestDto request;
+    final Instant submittedAt = Instant.now();
+    private volatile CreateEmployeeJobDto.Status status = CreateEmployeeJobDto.Status.QUEUED;
+    private volatile int attempts;
+    private volatile EmployeeDto employee;
+    private volatile String error;
+    private volatile Instant completedAt;
+    private volatile long completedNanos;
+
+    CreateEmployeeJob(CreateEmployeeRequestDto request) {
+        this.request = request;
+    }
+
+    void start() {
+        status = CreateEmployeeJobDto.Status.RUNNING;
+        attempts++;
+    }
+
+    int attempts() {
+        return attempts;
+    }
+
+    void succeed(EmployeeDto created) {
+        employee = created;
+        complete(CreateEmployeeJobDto.Status.SUCCEEDED);
+    }
+
+    void fail(String message) {
+        error = message;
+        complete(CreateEmployeeJobDto.Status.FAILED);
+    }
+
+    boolean completedBefore(long nanos) {
+        return completedAt != null && completedNanos - nanos < 0;
+    }
+
+    CreateEmployeeJobDto toDto() {
+        CreateEmployeeJobDto dto = new CreateEmployeeJobDto();
+        dto.setJobId(id);
+        dto.setStatus(status);
+        dto.setAttempts(attempts);
+        dto.setEmployee(employee);
+        dto.setError(error);
+        dto.setSubmittedAt(submittedAt);
+        dto.setCompletedAt(completedAt);
+        return dto;
+    }
+
+    private void complete(CreateEmployeeJobDto.Status finalStatus) {
+        completedNanos = System.nanoTime();
+        completedAt = Instant.now();
+        status = finalStatus;
+    }
+}
@@ -0,0 +1,255 @@
+package com.reliaquest.api.jobs;
+
+import com.reliaquest.api.config.ApplicationConfiguration;
+import com.reliaquest.api.dto.CreateEmployeeJobDto;
+import com.reliaquest.api.dto.CreateEmployeeRequestDto;
+import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.exception.JobNotFoundException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.external.EmployeeIntegrationService;
+import com.reliaquest.api.external.UpstreamResult;
+import com.reliaquest.api.roster.EmployeeByIdCache;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.stats.SalaryStatistics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind queue for employee creation. Submissions go into a bounded queue and are answered with a job id
+ * straight away; a few worker threads drain the queue into the employee service. When the service throttles, all
+ * workers pause with exponential backoff, so the queue drains at the rate the service allows instead of every caller
+ * waiting out its own retries. Finished jobs are kept for the configured retention so clients can poll the outcome,
+ * but never more than the configured number of them: past that, the oldest are dropped early. Expired jobs are swept
+ * whenever a job finishes and by any worker that has been idle for a retention period.
+ * <p>
+ * Jobs live in memory only: those still queued when the application stops are lost.
+ *
+ * @author nikhilchavan
+ */
+@Slf4j
+@Component
+public class CreateEmployeeJobQueue {
+
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final EmployeeIntegrationService integrationService;
+    private final SalaryStatistics salaryStatistics;
+    private final RosterCache rosterCache;
+    private final EmployeeByIdCache employeeByIdCache;
+    private final BlockingQueue<CreateEmployeeJob> queue;
+    private final Map<UUID, CreateEmployeeJob> jobs = new ConcurrentHashMap<>();
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long retentionNanos;
+    private final int maxFinishedJobs;
+    private final int workerCount;
+    // Finished jobs in completion order, guarded by itself
+    private final Deque<CreateEmployeeJob> finished = new ArrayDeque<>();
+    private final AtomicLong pausedUntil = new AtomicLong(System.nanoTime());
+    private final AtomicInteger consecutiveThrottles = new AtomicInteger();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    @Autowired
+    public CreateEmployeeJobQueue(
+            EmployeeIntegrationService integrationService,
+            SalaryStatistics salaryStatistics,
+            RosterCache rosterCache,
+            EmployeeByIdCache employeeByIdCache,
+            ApplicationConfiguration appConfig) {
+        this(
+                integrationService,
+                salaryStatistics,
+                rosterCache,
+                employeeByIdCache,
+                appConfig.getCreateAsyncQueueCapacity(),
+                appConfig.getCreateAsyncWorkers(),
+                appConfig.getCreateAsyncMaxAttempts(),
+                appConfig.getCreateAsyncInitialBackoff(),
+                appConfig.getCreateAsyncMaxBackoff(),
+                appConfig.getCreateAsyncRetention(),
+                appConfig.getCreateAsyncMaxFinishedJobs());
+    }
+
+    CreateEmployeeJobQueue(
+            EmployeeIntegrationService integrationService,
+            SalaryStatistics salaryStatistics,
+            RosterCache rosterCache,
+            EmployeeByIdCache employeeByIdCache,
+            int capacity,
+            int workerCount,
+            int maxAttempts,
+            Duration initialBackoff,
+            Duration maxBackoff,
+            Duration retention,
+            int maxFinishedJobs) {
+        this.integrationService = integrationService;
+        this.salaryStatistics = salaryStatistics;
+        this.rosterCache = rosterCache;
+        this.employeeByIdCache = employeeByIdCache;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.retentionNanos = retention.toNanos();
+        this.maxFinishedJobs = maxFinishedJobs;
+        this.workerCount = workerCount;
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::work, "create-employee-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Queues the creation of an employee.
+     *
+     * @throws TooManyRequestsException if the queue is full
+     */
+    public CreateEmployeeJobDto submit(CreateEmployeeRequestDto request) {
+        CreateEmployeeJob job = new CreateEmployeeJob(request);
+        jobs.put(job.id, job);
+        if (!queue.offer(job)) {
+            jobs.remove(job.id);
+            throw new TooManyRequestsException("Too many employee creations are pending. Please try again later.");
+        }
+        return job.toDto();
+    }
+
+    /**
+     * @throws JobNotFoundException if the job is unknown or has expired
+     */
+    public CreateEmployeeJobDto get(UUID jobId) {
+        CreateEmployeeJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new JobNotFoundException("Job with id : " + jobId + " not found.");
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        if (!queue.isEmpty()) {
+            log.warn("Dropping {} queued employee creation(s) on shutdown", queue.size());
+        }
+    }
+
+    private void work() {
+        while (running) {
+            CreateEmployeeJob job;
+            try {
+                job = queue.poll(retentionNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (job == null) {
+                sweep();
+                continue;
+            }
+            run(job);
+            if (running) {
+                retire(job);
+            }
+        }
+    }
+
+    private void run(CreateEmployeeJob job) {
+        while (running) {
+            awaitPause();
+            job.start();
+            UpstreamResult<EmployeeDto> result;
+            try {
+                result = integrationService.tryCreateEmployee(job.request);
+            } catch (RuntimeException ex) {
+                job.fail(ex.getMessage());
+                return;
+            }
+            if (result instanceof UpstreamResult.Success<EmployeeDto> created) {
+                consecutiveThrottles.set(0);
+                // Like a synchronous create: the known ids already have it, and lookups by id hit the cache
+                rosterCache.invalidate();
+                employeeByIdCache.put(created.value());
+                salaryStatistics.onCreated(created.value());
+                job.succeed(created.value());
+                return;
+            }
+            if (!result.isThrottled()) {
+                job.fail(((UpstreamResult.Failure<EmployeeDto>) result).message());
+                return;
+            }
+            pause();
+            if (job.attempts() >= maxAttempts) {
+                job.fail("Employee service kept throttling after " + job.attempts() + " attempts");
+                return;
+            }
+        }
+    }
+
+    /*
+     * Doubles the shared pause with every throttled attempt in a row, up to the maximum backoff.
+     */
+    private void pause() {
+        int throttles = consecutiveThrottles.incrementAndGet();
+        long backoff = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(throttles - 1, MAX_BACKOFF_SHIFT));
+        long until = System.nanoTime() + backoff;
+        pausedUntil.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+        log.debug(
+                "Employee service throttled {} time(s) in a row, pausing creations for {} ms",
+                throttles,
+                backoff / 1_000_000);
+    }
+
+    private void awaitPause() {
+        long wait;
+        while (running && (wait = pausedUntil.get() - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private void retire(CreateEmployeeJob job) {
+        synchronized (finished) {
+            finished.addLast(job);
+        }
+        sweep();
+    }
+
+    /*
+     * Drops finished jobs past their retention, and the oldest ones beyond the cap. Jobs are appended as they finish,
+     * so only the head of the deque needs looking at. A job cut short by shutdown never finishes and is not tracked.
+     */
+    private void sweep() {
+        long cutoff = System.nanoTime() - retentionNanos;
+        synchronized (finished) {
+            CreateEmployeeJob oldest;
+            while ((oldest = finished.peekFirst()) != null
+                    && (finished.size() > maxFinishedJobs || oldest.completedBefore(cutoff))) {
+                jobs.remove(finished.removeFirst().id);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.reliaquest.api.limit;
+
+import com.reliaquest.api.config.ApplicationConfiguration;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the number of requests in flight with a limit that adapts to the measured latency (AIMD).
+ * <p>
+ * A request that completes normally while the limit is in use raises the limit by {@code 1 / limit}, i.e. roughly one
+ * per round of requests. A request that fails with an overload status or takes more than the latency tolerance times
+ * its endpoint's baseline latency multiplies the limit by the backoff ratio. Only the first such request of each
+ * round cuts the limit, so one burst of slow responses does not collapse it. The baseline is a running minimum that
+ * drifts slowly towards recent latencies.
+ * <p>
+ * Lower priorities may only use a share of the limit, so low priority work is shed first and the remaining capacity
+ * stays available to the endpoints that matter most.
+ * @author nikhilchavan
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final long minDropLatencyNanos;
+    private final Map<String, Double> baselineNanos = new HashMap<>();
+    private double limit;
+    private int inFlight;
+    private long round;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(ApplicationConfiguration appConfig) {
+        this(
+                appConfig.getLimiterInitialLimit(),
+                appConfig.getLimiterMinLimit(),
+                appConfig.getLimiterMaxLimit(),
+                appConfig.getLimiterBackoffRatio(),
+                appConfig.getLimiterLatencyTolerance(),
+                appConfig.getLimiterMinDropLatency());
+    }
+
+    public AdaptiveConcurrencyLimiter(
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double backoffRatio,
+            double latencyTolerance,
+            Duration minDropLatency) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.minDropLatencyNanos = minDropLatency.toNanos();
+    }
+
+    public enum Priority {
+        HIGH(1.0),
+        NORMAL(0.8),
+        LOW(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    /**
+     * Admits a request if the requests in flight leave room under its priority's share of the limit.
+     *
+     * @return a permit to pass to {@link #release}, or -1 if the request must be rejected
+     */
+    public synchronized long tryAcquire(Priority priority) {
+        if (inFlight >= Math.max(1, (int) (limit * priority.share))) {
+            return -1;
+        }
+        inFlight++;
+        return round;
+    }
+
+    /**
+     * Records the outcome of an admitted request and adjusts the limit.
+     *
+     * @param permit value returned by {@link #tryAcquire}
+     * @param endpoint key the latency baseline is kept under
+     * @param overloaded whether the request failed in a way that indicates overload
+     */
+    public synchronized void release(long permit, String endpoint, long latencyNanos, boolean overloaded) {
+        int wasInFlight = inFlight--;
+        boolean slow = isSlow(endpoint, latencyNanos);
+        if (overloaded || slow) {
+            if (permit == round) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                round++;
+            }
+        } else if (wasInFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private boolean isSlow(String endpoint, long latencyNanos) {
+        Double baseline = baselineNanos.get(endpoint);
+        if (baseline == null || latencyNanos < baseline) {
+            baselineNanos.put(endpoint, (double) latencyNanos);
+            return false;
+        }
+        baselineNanos.put(endpoint, baseline + (latencyNanos - baseline) * BASELINE_DRIFT);
+        return latencyNanos > minDropLatencyNanos && latencyNanos > baseline * latencyTolerance;
+    }
+}
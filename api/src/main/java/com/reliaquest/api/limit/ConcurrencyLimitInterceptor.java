@@ -0,0 +1,61 @@
+package com.reliaquest.api.limit;
+
+import com.reliaquest.api.exception.ServiceOverloadedException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits controller requests through the {@link AdaptiveConcurrencyLimiter} and rejects the rest before they reach
+ * the controller, so overload shows up as fast 503s instead of threads queueing on the employee service. Endpoints
+ * are keyed by controller method name; those not listed get {@link AdaptiveConcurrencyLimiter.Priority#NORMAL}.
+ * @author nikhilchavan
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+    private static final String STARTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final Map<String, AdaptiveConcurrencyLimiter.Priority> priorityByEndpoint;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String endpoint = handlerMethod.getMethod().getName();
+        long permit = limiter.tryAcquire(
+                priorityByEndpoint.getOrDefault(endpoint, AdaptiveConcurrencyLimiter.Priority.NORMAL));
+        if (permit < 0) {
+            throw new ServiceOverloadedException("Service is overloaded. Please try again later.");
+        }
+        request.setAttribute(PERMIT, permit);
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object permit = request.getAttribute(PERMIT);
+        if (permit == null) {
+            return;
+        }
+        request.removeAttribute(PERMIT);
+        int status = response.getStatus();
+        limiter.release(
+                (long) permit,
+                ((HandlerMethod) handler).getMethod().getName(),
+                System.nanoTime() - (long) request.getAttribute(STARTED_AT),
+                ex != null || status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500);
+    }
+}
@@ -0,0 +1,103 @@
+package com.reliaquest.api.logging;
+
+import com.reliaquest.api.config.ApplicationConfiguration;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which hot-path log lines are worth writing.
+ * <p>
+ * {@link #sample(String)} lets through the first and then every n-th event per key (e.g. per endpoint), so busy
+ * endpoints stay visible in the logs without one line per request. {@link #tryLogError(String)} lets through a
+ * bounded number of errors per key and interval, so an upstream outage cannot flood the log; the next error that is
+ * let through reports how many were suppressed in between.
+ * @author nikhilchavan
+ */
+@Component
+public class LogSampler {
+
+    private final int sampleEvery;
+    private final Map<String, Integer> sampleEveryByKey;
+    private final int errorsPerInterval;
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final Map<String, ErrorWindow> errorWindows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LogSampler(ApplicationConfiguration appConfig) {
+        this(
+                appConfig.getLoggingSampleEvery(),
+                appConfig.getLoggingSampleEveryByEndpoint(),
+                appConfig.getLoggingErrorsPerInterval(),
+                appConfig.getLoggingErrorInterval(),
+                System::nanoTime);
+    }
+
+    public LogSampler(
+            int sampleEvery,
+            Map<String, Integer> sampleEveryByKey,
+            int errorsPerInterval,
+            Duration errorInterval,
+            LongSupplier nanoTime) {
+        this.sampleEvery = sampleEvery;
+        this.sampleEveryByKey = Map.copyOf(sampleEveryByKey);
+        this.errorsPerInterval = errorsPerInterval;
+        this.intervalNanos = errorInterval.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return whether this occurrence of {@code key} should be logged
+     */
+    public boolean sample(String key) {
+        int every = sampleEveryByKey.getOrDefault(key, sampleEvery);
+        if (every <= 1) {
+            return true;
+        }
+        AtomicLong count = counts.get(key);
+        if (count == null) {
+            count = counts.computeIfAbsent(key, ignored -> new AtomicLong());
+        }
+        return count.getAndIncrement() % every == 0;
+    }
+
+    /**
+     * @return {@code -1} if this error should not be logged, otherwise how many errors of {@code key} were suppressed
+     *     since the last one that was logged
+     */
+    public long tryLogError(String key) {
+        ErrorWindow window = errorWindows.get(key);
+        if (window == null) {
+            window = errorWindows.computeIfAbsent(key, ignored -> new ErrorWindow());
+        }
+        return window.tryAcquire(nanoTime.getAsLong());
+    }
+
+    private final class ErrorWindow {
+
+        private long startedAt = nanoTime.getAsLong();
+        private int logged;
+        private long suppressed;
+
+        private synchronized long tryAcquire(long now) {
+            if (now - startedAt >= intervalNanos) {
+                startedAt = now;
+                logged = 0;
+            }
+            if (logged >= errorsPerInterval) {
+                suppressed++;
+                return -1;
+            }
+            logged++;
+            long suppressedSoFar = suppressed;
+            suppressed = 0;
+            return suppressedSoFar;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.reliaquest.api.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Logs one summary line (method, path, status, duration) for a sample of the requests to each endpoint, instead of
+ * every controller and integration call logging every request at info level.
+ * @author nikhilchavan
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SampledRequestLoggingInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_AT = SampledRequestLoggingInterceptor.class.getName() + ".startedAt";
+
+    private final LogSampler logSampler;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (log.isInfoEnabled()) {
+            request.setAttribute(STARTED_AT, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startedAt = request.getAttribute(STARTED_AT);
+        if (startedAt == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        if (logSampler.sample(handlerMethod.getMethod().getName())) {
+            log.info(
+                    "{} {} -> {} in {} ms",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    response.getStatus(),
+                    (System.nanoTime() - (long) startedAt) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.reliaquest.api.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * JFR event for one request to the employee service, from sending it until its response status arrives (the body is
+ * read afterwards). Hedged requests that lose the race show up as cancelled. Costs nothing unless a recording that
+ * enables the event is running.
+ * @author nikhilchavan
+ */
+@Name("com.reliaquest.api.UpstreamCall")
+@Label("Upstream Call")
+@Category({"Employee API", "Upstream"})
+@Description("A request to the employee service")
+@StackTrace(false)
+public class UpstreamCallEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Error")
+    @Description("Exception type if the request failed, 'cancelled' if it was abandoned")
+    String error;
+
+    /**
+     * @return a {@code WebClient} filter that records every exchange as an {@link UpstreamCallEvent}
+     */
+    public static ExchangeFilterFunction recordingFilter() {
+        return (request, next) -> Mono.defer(() -> {
+            UpstreamCallEvent event = new UpstreamCallEvent();
+            if (!event.isEnabled()) {
+                return next.exchange(request);
+            }
+            event.begin();
+            return next.exchange(request)
+                    .doOnNext(response -> event.status = response.statusCode().value())
+                    .doOnError(ex -> event.error = ex.getClass().getSimpleName())
+                    .doOnCancel(() -> event.error = "cancelled")
+                    .doFinally(signal -> {
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.method = request.method().name();
+                            event.path = request.url().getRawPath();
+                            event.commit();
+                        }
+                    });
+        });
+    }
+}
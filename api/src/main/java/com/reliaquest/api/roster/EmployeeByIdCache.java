@@ -0,0 +1,131 @@
+package com.reliaquest.api.roster;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.reliaquest.api.config.ApplicationConfiguration;
+import com.reliaquest.api.dto.EmployeeDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Employees recently fetched by id, so that lookups of hot ids are answered from memory rather than by the employee
+ * service, without holding the whole roster. The cache is bounded and admits by W-TinyLFU: a newly fetched employee
+ * only displaces one that has been asked for less often, so a burst of one-off lookups does not flush the hot set.
+ * Entries expire a fixed time after they were fetched. Deletes through this service invalidate them right away;
+ * deletes made directly upstream show up once they have expired.
+ * <p>
+ * Concurrent misses for one id share a single fetch, which runs on the thread of the first caller. An id invalidated
+ * while it is being fetched is not cached when the fetch completes. Hits, misses and evictions are published as the
+ * {@code cache.*} metrics tagged {@code cache=employeeById}.
+ *
+ * @author nikhilchavan
+ */
+@Component
+public class EmployeeByIdCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final long maximumSize;
+    private final AsyncCache<UUID, EmployeeDto> cache;
+
+    @Autowired
+    public EmployeeByIdCache(ApplicationConfiguration appConfig) {
+        this(
+                appConfig.isByIdCacheEnabled(),
+                appConfig.getByIdCacheMaximumSize(),
+                appConfig.getByIdCacheExpireAfterWrite(),
+                System::nanoTime);
+    }
+
+    public EmployeeByIdCache(boolean enabled, long maximumSize, Duration expireAfterWrite, LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(nanoTime::getAsLong)
+                // Housekeeping is cheap; run it on the calling thread rather than the common pool
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached employee with {@code id}, fetching it first on a miss. Exceptions thrown by {@code fetch}
+     * reach every caller waiting for that fetch, and nothing is cached.
+     */
+    public EmployeeDto get(UUID id, Function<UUID, EmployeeDto> fetch) {
+        if (!enabled) {
+            return fetch.apply(id);
+        }
+        CompletableFuture<EmployeeDto> fetching = new CompletableFuture<>();
+        CompletableFuture<EmployeeDto> cached = cache.get(id, (key, executor) -> fetching);
+        if (cached != fetching) {
+            try {
+                return cached.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            EmployeeDto employee = fetch.apply(id);
+            fetching.complete(employee);
+            return employee;
+        } catch (RuntimeException ex) {
+            fetching.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Caches an employee that was just created, since it is often read back right away.
+     */
+    public void put(EmployeeDto employee) {
+        if (enabled && employee.getId() != null) {
+            cache.put(employee.getId(), CompletableFuture.completedFuture(employee));
+        }
+    }
+
+    /**
+     * Caches employees from a full roster fetch, up to the maximum size, without replacing entries already cached,
+     * which may be newer.
+     */
+    public void seed(Collection<EmployeeDto> employees) {
+        if (!enabled) {
+            return;
+        }
+        long seeded = 0;
+        for (EmployeeDto employee : employees) {
+            if (seeded++ >= maximumSize) {
+                return;
+            }
+            if (employee.getId() != null) {
+                cache.asMap().putIfAbsent(employee.getId(), CompletableFuture.completedFuture(employee));
+            }
+        }
+    }
+
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache.synchronous(), "employeeById", Tags.empty()).bindTo(registry);
+    }
+}
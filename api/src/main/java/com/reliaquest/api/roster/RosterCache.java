@@ -0,0 +1,159 @@
+package com.reliaquest.api.roster;
+
+import com.reliaquest.api.config.ApplicationConfiguration;
+import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.external.EmployeeIntegrationService;
+import com.reliaquest.api.external.UpstreamResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the most recent full roster fetch for up to the configured maximum age, so concurrent and repeated list
+ * queries share one upstream fetch. Every fetch gets a new version, which callers use to key anything they derive
+ * from it, e.g. the encoded response bytes. Local creates and deletes invalidate the snapshot right away; changes made
+ * directly upstream show up once it has expired.
+ * <p>
+ * No lock is held while fetching. Callers arriving during a fetch wait on its future, and {@link #invalidate()} only
+ * bumps a generation: a fetch that started before it still answers its own callers but is never served afterwards.
+ *
+ * @author nikhilchavan
+ */
+@Slf4j
+@Component
+public class RosterCache {
+
+    private final EmployeeIntegrationService integrationService;
+    private final long maxAgeNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicReference<Fetch> inFlight = new AtomicReference<>();
+    private volatile Cached cached;
+
+    @Autowired
+    public RosterCache(EmployeeIntegrationService integrationService, ApplicationConfiguration appConfig) {
+        this(integrationService, appConfig.getRosterCacheMaxAge());
+    }
+
+    public RosterCache(EmployeeIntegrationService integrationService, Duration maxAge) {
+        this.integrationService = integrationService;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * Returns the cached snapshot, fetching a new one first if it is missing, expired or invalidated. Callers arriving
+     * during a fetch of the current generation wait for it instead of fetching again. A failed fetch is returned as is
+     * and not cached.
+     */
+    public UpstreamResult<Snapshot> get() {
+        while (true) {
+            long current = generation.get();
+            Cached hit = cached;
+            if (hit != null && hit.generation == current && System.nanoTime() - hit.fetchedAt < maxAgeNanos) {
+                return UpstreamResult.success(hit.snapshot);
+            }
+            Fetch running = inFlight.get();
+            if (running != null && running.generation == current) {
+                return await(running.result);
+            }
+            Fetch fetch = new Fetch(current);
+            if (inFlight.compareAndSet(running, fetch)) {
+                return fetch(fetch);
+            }
+        }
+    }
+
+    /**
+     * Drops the snapshot without waiting for a fetch in progress, which will not be cached either.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    private UpstreamResult<Snapshot> fetch(Fetch fetch) {
+        long startedAt = System.nanoTime();
+        try {
+            UpstreamResult<Snapshot> result = integrationService
+                    .getAllEmployeesByShard()
+                    .map(employeesByShard -> new Snapshot(versions.incrementAndGet(), employeesByShard));
+            if (result instanceof UpstreamResult.Success<Snapshot> success && generation.get() == fetch.generation) {
+                // Checked again on every read, so an invalidation racing this write still wins
+                cached = new Cached(success.value(), startedAt, fetch.generation);
+                log.debug(
+                        "Cached roster version {} with {} employees",
+                        success.value().version(),
+                        success.value().employees().size());
+            }
+            fetch.result.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            fetch.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.compareAndSet(fetch, null);
+        }
+    }
+
+    private static UpstreamResult<Snapshot> await(CompletableFuture<UpstreamResult<Snapshot>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private record Cached(Snapshot snapshot, long fetchedAt, long generation) {}
+
+    private static final class Fetch {
+
+        private final long generation;
+        private final CompletableFuture<UpstreamResult<Snapshot>> result = new CompletableFuture<>();
+
+        private Fetch(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * One fetched roster, per shard and flattened.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final List<List<EmployeeDto>> employeesByShard;
+        private final List<EmployeeDto> employees;
+
+        public Snapshot(long version, List<List<EmployeeDto>> employeesByShard) {
+            this.version = version;
+            this.employeesByShard = employeesByShard;
+            if (employeesByShard.size() == 1) {
+                this.employees = Collections.unmodifiableList(employeesByShard.get(0));
+            } else {
+                List<EmployeeDto> all = new ArrayList<>();
+                employeesByShard.forEach(all::addAll);
+                this.employees = Collections.unmodifiableList(all);
+            }
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public List<List<EmployeeDto>> employeesByShard() {
+            return employeesByShard;
+        }
+
+        public List<EmployeeDto> employees() {
+            return employees;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.reliaquest.api.service;
 
+import com.reliaquest.api.dto.CreateEmployeeJobDto;
 import com.reliaquest.api.dto.CreateEmployeeRequestDto;
 import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.dto.EmployeeFilterDto;
+import com.reliaquest.api.dto.SalaryDistributionDto;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Business logic for Employee related APIs
@@ -32,6 +36,21 @@ public interface IEmployeeService {
      */
     EmployeeDto createEmployee(CreateEmployeeRequestDto employeeRequestDto);
 
+    /**
+     * Queues the creation of a new employee without waiting for the employee service.
+     *
+     * @param employeeRequestDto employee creation input
+     * @return the queued job, to be polled with {@link #getCreateEmployeeJob(String)}
+     */
+    CreateEmployeeJobDto submitCreateEmployee(CreateEmployeeRequestDto employeeRequestDto);
+
+    /**
+     * Gets the state of an asynchronous employee creation.
+     *
+     * @param jobId job ID
+     */
+    CreateEmployeeJobDto getCreateEmployeeJob(String jobId);
+
     /**
      * Deletes an employee by ID.
      *
@@ -40,6 +59,13 @@ public interface IEmployeeService {
      */
     String deleteEmployeeById(String id);
 
+    /**
+     * Streams all employees as they are read from the employee service, without holding the roster in memory.
+     *
+     * @return employees in shard order; must be closed
+     */
+    Stream<EmployeeDto> exportEmployees();
+
     /**
      * Finds employees with matching names.
      *
@@ -47,6 +73,13 @@ public interface IEmployeeService {
      */
     List<EmployeeDto> searchEmployeesByName(String name);
 
+    /**
+     * Finds employees matching all given criteria.
+     *
+     * @param filter salary and age ranges and title to match
+     */
+    List<EmployeeDto> filterEmployees(EmployeeFilterDto filter);
+
     /**
      * Gets the highest salary among employees.
      */
@@ -56,4 +89,11 @@ public interface IEmployeeService {
      * Gets the names of the top ten highest-earning employees.
      */
     List<String> getTopTenHighestEarningEmployeeNames();
+
+    /**
+     * Gets salary percentiles and a histogram of the roster.
+     *
+     * @param buckets number of equal-width histogram buckets between the lowest and highest salary
+     */
+    SalaryDistributionDto getSalaryDistribution(int buckets);
 }
@@ -1,15 +1,22 @@
 package com.reliaquest.api.service.impl;
 
+import com.reliaquest.api.dto.CreateEmployeeJobDto;
 import com.reliaquest.api.dto.CreateEmployeeRequestDto;
 import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.dto.EmployeeFilterDto;
+import com.reliaquest.api.dto.SalaryDistributionDto;
+import com.reliaquest.api.encoding.PreEncodedList;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.external.EmployeeIntegrationService;
+import com.reliaquest.api.jobs.CreateEmployeeJobQueue;
+import com.reliaquest.api.roster.EmployeeByIdCache;
+import com.reliaquest.api.roster.RosterCache;
 import com.reliaquest.api.service.IEmployeeService;
-import java.util.Comparator;
+import com.reliaquest.api.stats.SalaryStatistics;
 import java.util.List;
 import java.util.OptionalInt;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,17 +29,37 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class EmployeeService implements IEmployeeService {
 
+    private static final int TOP_EARNERS_LIMIT = 10;
+    private static final int MAX_SALARY_HISTOGRAM_BUCKETS = 100;
+
     private final EmployeeIntegrationService integrationService;
 
+    private final SalaryStatistics salaryStatistics;
+
+    private final CreateEmployeeJobQueue createEmployeeJobs;
+
+    private final RosterCache rosterCache;
+
+    private final EmployeeByIdCache employeeByIdCache;
+
     @Override
     public List<EmployeeDto> getAllEmployees() {
-        return integrationService.getAllEmployees();
+        RosterCache.Snapshot snapshot = snapshot();
+        return PreEncodedList.of("getAllEmployees", snapshot.version(), snapshot.employees());
+    }
+
+    /**
+     * Bypasses the roster cache: an export is usually much larger than anything worth caching.
+     */
+    @Override
+    public Stream<EmployeeDto> exportEmployees() {
+        return integrationService.exportEmployees().orElseThrow();
     }
 
     @Override
     public EmployeeDto getEmployeeById(String id) {
         UUID uuid = getUUID(id);
-        return integrationService.getEmployeeById(uuid);
+        return employeeByIdCache.get(uuid, key -> integrationService.getEmployeeById(key).orElseThrow());
     }
 
     private UUID getUUID(String id) {
@@ -46,49 +73,118 @@ public class EmployeeService implements IEmployeeService {
 
     @Override
     public EmployeeDto createEmployee(CreateEmployeeRequestDto employeeRequestDto) {
-        EmployeeDto employeeDto = integrationService.createEmployee(employeeRequestDto);
+        EmployeeDto employeeDto = integrationService.createEmployee(employeeRequestDto).orElseThrow();
+        rosterCache.invalidate();
+        employeeByIdCache.put(employeeDto);
+        salaryStatistics.onCreated(employeeDto);
         return employeeDto;
     }
 
+    @Override
+    public CreateEmployeeJobDto submitCreateEmployee(CreateEmployeeRequestDto employeeRequestDto) {
+        return createEmployeeJobs.submit(employeeRequestDto);
+    }
+
+    @Override
+    public CreateEmployeeJobDto getCreateEmployeeJob(String jobId) {
+        try {
+            return createEmployeeJobs.get(UUID.fromString(jobId));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid job id : " + jobId + ", Requires job id in UUID format.");
+        }
+    }
+
+    /**
+     * The employee service deletes by name, so the name is read fresh from it rather than from the cache: a cached
+     * entry may predate a rename, or a delete and re-create under a name now shared, and would remove someone else.
+     */
     @Override
     public String deleteEmployeeById(String id) {
 
-        EmployeeDto employeeDto = getEmployeeById(id);
-        if (Boolean.TRUE.equals(integrationService.deleteEmployeeByName(employeeDto.getName()))) {
+        UUID uuid = getUUID(id);
+        employeeByIdCache.invalidate(uuid);
+        EmployeeDto employeeDto = integrationService.getEmployeeById(uuid).orElseThrow();
+        boolean deleted = integrationService
+                .deleteEmployee(employeeDto.getId(), employeeDto.getName())
+                .orElseThrow();
+        // Again, since a lookup may have cached the employee while it was being deleted
+        employeeByIdCache.invalidate(uuid);
+        if (deleted) {
+            rosterCache.invalidate();
+            salaryStatistics.onDeleted(employeeDto);
             return employeeDto.getName();
         } else {
             throw new EmployeeNotFoundException("Employee with id: " + id + " not found");
         }
     }
 
+    /**
+     * The employee service ranks its own top earners from a salary index, so only ten employees per shard are fetched.
+     */
     @Override
     public List<String> getTopTenHighestEarningEmployeeNames() {
-        List<EmployeeDto> employeeDtoList = integrationService.getAllEmployees();
-        return employeeDtoList.stream()
-                .sorted(Comparator.comparing(EmployeeDto::getSalary).reversed())
-                .limit(10)
+        return integrationService.getTopEarners(TOP_EARNERS_LIMIT).orElseThrow().stream()
                 .map(EmployeeDto::getName)
                 .toList();
     }
 
+    /**
+     * The search runs on the employee service against its name index, so the roster is not scanned here.
+     */
     @Override
     public List<EmployeeDto> searchEmployeesByName(String name) {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Search string(name) cannot be empty");
         }
-        List<EmployeeDto> employeeDtoList = integrationService.getAllEmployees();
-        return employeeDtoList.stream()
-                .filter(employee -> employee.getName().toLowerCase().contains(name.toLowerCase()))
-                .collect(Collectors.toList());
+        return integrationService.searchEmployeesByName(name).orElseThrow();
+    }
+
+    /**
+     * The filter runs on the employee service, which answers from its indexes; only the matches are fetched.
+     */
+    @Override
+    public List<EmployeeDto> filterEmployees(EmployeeFilterDto filter) {
+        if (isInverted(filter.getMinSalary(), filter.getMaxSalary())) {
+            throw new IllegalArgumentException("minSalary cannot be greater than maxSalary");
+        }
+        if (isInverted(filter.getMinAge(), filter.getMaxAge())) {
+            throw new IllegalArgumentException("minAge cannot be greater than maxAge");
+        }
+        return integrationService.filterEmployees(filter).orElseThrow();
+    }
+
+    private static boolean isInverted(Integer min, Integer max) {
+        return min != null && max != null && min > max;
     }
 
     @Override
     public Integer getHighestSalaryOfEmployees() {
-        List<EmployeeDto> employeeDtoList = integrationService.getAllEmployees();
-        OptionalInt maxSalary =
-                employeeDtoList.stream().mapToInt(EmployeeDto::getSalary).max();
+        OptionalInt maxSalary = integrationService.getHighestSalary().orElseThrow();
 
         if (maxSalary.isPresent()) return maxSalary.getAsInt();
         else throw new EmployeeNotFoundException("No employee found with max salary");
     }
+
+    @Override
+    public SalaryDistributionDto getSalaryDistribution(int buckets) {
+        if (buckets < 1 || buckets > MAX_SALARY_HISTOGRAM_BUCKETS) {
+            throw new IllegalArgumentException(
+                    "Number of buckets must be between 1 and " + MAX_SALARY_HISTOGRAM_BUCKETS);
+        }
+        if (salaryStatistics.isStale()) {
+            salaryStatistics.rebuild(rosterCache.get().orElseThrow().employees());
+        }
+        return salaryStatistics.distribution(buckets);
+    }
+
+    /*
+     * The cached roster; every fetch doubles as a refresh of the salary sketch once it is due.
+     */
+    private RosterCache.Snapshot snapshot() {
+        RosterCache.Snapshot snapshot = rosterCache.get().orElseThrow();
+        if (salaryStatistics.isStale()) {
+            salaryStatistics.rebuild(snapshot.employees());
+        }
+        return snapshot;
+    }
 }
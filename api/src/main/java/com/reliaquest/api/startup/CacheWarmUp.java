@@ -0,0 +1,82 @@
+package com.reliaquest.api.startup;
+
+import com.reliaquest.api.config.ApplicationConfiguration;
+import com.reliaquest.api.roster.EmployeeByIdCache;
+import com.reliaquest.api.service.IEmployeeService;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fetches the roster once at startup and builds what is derived from it, so the first requests after a deploy find
+ * warm caches instead of all missing at once. The roster snapshot is only reused for the roster cache's maximum age
+ * (a second by default), so the employees it holds are also seeded into the cache of lookups by id, which keeps them
+ * until they expire there. The salary sketch and the id to shard map outlive the snapshot as well. The fetch also
+ * opens the upstream connections and warms the code paths involved.
+ * <p>
+ * Spring Boot reports the application ready only after all application runners have returned, so the readiness
+ * probe ({@code /actuator/health/readiness}) stays down while this runs. The warm-up gets a fixed budget: if the
+ * employee service is throttling or down for longer, the instance starts cold rather than not at all.
+ *
+ * @author nikhilchavan
+ */
+@Slf4j
+@Component
+public class CacheWarmUp implements ApplicationRunner {
+
+    private final IEmployeeService employeeService;
+    private final EmployeeByIdCache employeeByIdCache;
+    private final boolean enabled;
+    private final Duration budget;
+
+    @Autowired
+    public CacheWarmUp(
+            IEmployeeService employeeService,
+            EmployeeByIdCache employeeByIdCache,
+            ApplicationConfiguration appConfig) {
+        this(employeeService, employeeByIdCache, appConfig.isWarmUpEnabled(), appConfig.getWarmUpBudget());
+    }
+
+    public CacheWarmUp(
+            IEmployeeService employeeService, EmployeeByIdCache employeeByIdCache, boolean enabled, Duration budget) {
+        this.employeeService = employeeService;
+        this.employeeByIdCache = employeeByIdCache;
+        this.enabled = enabled;
+        this.budget = budget;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        FutureTask<Void> warmUp = new FutureTask<>(this::warm, null);
+        Thread thread = new Thread(warmUp, "cache-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            warmUp.get(budget.toNanos(), TimeUnit.NANOSECONDS);
+            log.info("Warmed up caches in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (TimeoutException ex) {
+            warmUp.cancel(true);
+            log.warn("Cache warm-up did not finish within {}, starting with cold caches", budget);
+        } catch (ExecutionException ex) {
+            log.warn("Cache warm-up failed, starting with cold caches: {}", ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            warmUp.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void warm() {
+        employeeByIdCache.seed(employeeService.getAllEmployees());
+    }
+}
@@ -0,0 +1,227 @@
+package com.reliaquest.api.stats;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+
+/**
+ * Mergeable quantile sketch for salaries with a fixed relative error, in the style of DDSketch. Positive values are
+ * counted in logarithmic buckets {@code (gamma^(i-1), gamma^i]} with {@code gamma = (1 + a) / (1 - a)}, so any
+ * quantile is answered within relative accuracy {@code a} from a few hundred counters, however many salaries were
+ * added. Unlike t-digest or KLL, a value can be removed again by decrementing its bucket, which lets the sketch follow
+ * deletes.
+ * <p>
+ * Count, sum and mean are exact. Min and max are exact until the current extreme is removed, after which they fall
+ * back to the bucket bounds. Not thread-safe.
+ *
+ * @author nikhilchavan
+ */
+public final class SalarySketch {
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    public SalarySketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(int salary) {
+        if (salary <= 0) {
+            zeroCount++;
+        } else {
+            int index = bucketIndex(salary);
+            ensureBucket(index);
+            counts[index - offset]++;
+        }
+        count++;
+        sum += salary;
+        min = Math.min(min, salary);
+        max = Math.max(max, salary);
+    }
+
+    /**
+     * @return whether a salary falling into the same bucket was present and has been removed
+     */
+    public boolean remove(int salary) {
+        if (salary <= 0) {
+            if (zeroCount == 0) {
+                return false;
+            }
+            zeroCount--;
+        } else {
+            int index = bucketIndex(salary) - offset;
+            if (index < 0 || index >= counts.length || counts[index] == 0) {
+                return false;
+            }
+            counts[index]--;
+        }
+        count--;
+        sum -= salary;
+        if (count == 0) {
+            min = Integer.MAX_VALUE;
+            max = Integer.MIN_VALUE;
+        } else {
+            if (salary == min) {
+                min = Math.min(max, lowestValue());
+            }
+            if (salary == max) {
+                max = Math.max(min, highestValue());
+            }
+        }
+        return true;
+    }
+
+    public void merge(SalarySketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different relative accuracy");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] > 0) {
+                ensureBucket(other.offset + i);
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public OptionalInt min() {
+        return count == 0 ? OptionalInt.empty() : OptionalInt.of(min);
+    }
+
+    public OptionalInt max() {
+        return count == 0 ? OptionalInt.empty() : OptionalInt.of(max);
+    }
+
+    public double mean() {
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the salary at {@code quantile}, within the relative accuracy
+     */
+    public OptionalInt quantile(double quantile) {
+        if (count == 0) {
+            return OptionalInt.empty();
+        }
+        long rank = (long) (Math.max(0, Math.min(1, quantile)) * (count - 1));
+        if (rank < zeroCount) {
+            return OptionalInt.of(clamp(0));
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return OptionalInt.of(clamp(representative(offset + i)));
+            }
+        }
+        return OptionalInt.of(max);
+    }
+
+    /**
+     * Splits {@code [min, max]} into {@code bins} equal-width bins and counts the salaries in each, placing every
+     * bucket of the sketch by its representative value.
+     */
+    public long[] histogram(int bins) {
+        long[] histogram = new long[bins];
+        if (count == 0) {
+            return histogram;
+        }
+        if (zeroCount > 0) {
+            histogram[bin(clamp(0), bins)] += zeroCount;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                histogram[bin(clamp(representative(offset + i)), bins)] += counts[i];
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Lower bound of bin {@code bin} out of {@code bins}; bin {@code bins} yields the upper bound of the last bin.
+     */
+    public int binBound(int bin, int bins) {
+        return (int) (min + ((long) max - min) * bin / bins);
+    }
+
+    private int bin(int value, int bins) {
+        if (max == min) {
+            return 0;
+        }
+        return (int) Math.min(bins - 1, ((long) value - min) * bins / ((long) max - min));
+    }
+
+    private int bucketIndex(int salary) {
+        return (int) Math.ceil(Math.log(salary) / logGamma);
+    }
+
+    /*
+     * Value with the same relative distance to both bounds of bucket i.
+     */
+    private int representative(int index) {
+        return (int) Math.round(2 * Math.pow(gamma, index) / (gamma + 1));
+    }
+
+    private int clamp(int value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private int lowestValue() {
+        if (zeroCount > 0) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                return representative(offset + i);
+            }
+        }
+        return 0;
+    }
+
+    private int highestValue() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return representative(offset + i);
+            }
+        }
+        return 0;
+    }
+
+    private void ensureBucket(int index) {
+        if (counts.length == 0) {
+            counts = new long[1];
+            offset = index;
+        } else if (index < offset) {
+            long[] grown = new long[counts.length + offset - index];
+            System.arraycopy(counts, 0, grown, offset - index, counts.length);
+            counts = grown;
+            offset = index;
+        } else if (index >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, index - offset + 1);
+        }
+    }
+}
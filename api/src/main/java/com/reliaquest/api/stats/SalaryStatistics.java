@@ -0,0 +1,91 @@
+package com.reliaquest.api.stats;
+
+import com.reliaquest.api.config.ApplicationConfiguration;
+import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.dto.SalaryDistributionDto;
+import com.reliaquest.api.dto.SalaryHistogramBucketDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a {@link SalarySketch} of the roster up to date so the salary distribution can be served without fetching
+ * and sorting every employee. The sketch is rebuilt from a full roster fetch once it is older than the configured
+ * maximum age and is adjusted in place on every create and delete in between.
+ *
+ * @author nikhilchavan
+ */
+@Slf4j
+@Component
+public class SalaryStatistics {
+
+    private final double relativeAccuracy;
+    private final long maxAgeNanos;
+    private SalarySketch sketch;
+    private long builtAt;
+
+    public SalaryStatistics(ApplicationConfiguration appConfig) {
+        this.relativeAccuracy = appConfig.getSalaryStatsRelativeAccuracy();
+        this.maxAgeNanos = appConfig.getSalaryStatsMaxAge().toNanos();
+    }
+
+    public synchronized boolean isStale() {
+        return sketch == null || System.nanoTime() - builtAt > maxAgeNanos;
+    }
+
+    public synchronized void rebuild(List<EmployeeDto> employees) {
+        SalarySketch rebuilt = new SalarySketch(relativeAccuracy);
+        for (EmployeeDto employee : employees) {
+            if (employee.getSalary() != null) {
+                rebuilt.add(employee.getSalary());
+            }
+        }
+        sketch = rebuilt;
+        builtAt = System.nanoTime();
+        log.debug("Rebuilt salary sketch from {} employees", employees.size());
+    }
+
+    public synchronized void onCreated(EmployeeDto employee) {
+        if (sketch != null && employee.getSalary() != null) {
+            sketch.add(employee.getSalary());
+        }
+    }
+
+    public synchronized void onDeleted(EmployeeDto employee) {
+        if (sketch != null && employee.getSalary() != null) {
+            sketch.remove(employee.getSalary());
+        }
+    }
+
+    public synchronized SalaryDistributionDto distribution(int bins) {
+        SalarySketch current = sketch == null ? new SalarySketch(relativeAccuracy) : sketch;
+        SalaryDistributionDto distribution = new SalaryDistributionDto();
+        distribution.setCount(current.count());
+        distribution.setMin(boxed(current.min()));
+        distribution.setMax(boxed(current.max()));
+        distribution.setMean(current.count() == 0 ? null : current.mean());
+        distribution.setP50(boxed(current.quantile(0.5)));
+        distribution.setP90(boxed(current.quantile(0.9)));
+        distribution.setP99(boxed(current.quantile(0.99)));
+
+        List<SalaryHistogramBucketDto> histogram = new ArrayList<>(bins);
+        if (current.count() > 0) {
+            long[] counts = current.histogram(bins);
+            for (int bin = 0; bin < bins; bin++) {
+                SalaryHistogramBucketDto bucket = new SalaryHistogramBucketDto();
+                bucket.setLowerBound(current.binBound(bin, bins));
+                bucket.setUpperBound(current.binBound(bin + 1, bins));
+                bucket.setCount(counts[bin]);
+                histogram.add(bucket);
+            }
+        }
+        distribution.setHistogram(histogram);
+        return distribution;
+    }
+
+    private static Integer boxed(OptionalInt value) {
+        return value.isPresent() ? value.getAsInt() : null;
+    }
+}
@@ -3,26 +3,42 @@ package com.reliaquest.api.controller;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.CreateEmployeeJobDto;
 import com.reliaquest.api.dto.CreateEmployeeRequestDto;
 import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.dto.EmployeeFilterDto;
+import com.reliaquest.api.dto.SalaryDistributionDto;
+import com.reliaquest.api.encoding.EmployeeExporter;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.exception.EmployeeServiceIntegrationException;
 import com.reliaquest.api.exception.TooManyRequestsException;
 import com.reliaquest.api.service.IEmployeeService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * @author nikhilchavan
@@ -36,6 +52,9 @@ public class EmployeeControllerTest {
     @Mock
     private IEmployeeService employeeService;
 
+    @Spy
+    private EmployeeExporter employeeExporter = new EmployeeExporter(new ObjectMapper());
+
     private EmployeeDto employeeDto1;
     private EmployeeDto employeeDto2;
     private CreateEmployeeRequestDto createEmployeeRequestDto;
@@ -75,6 +94,44 @@ public class EmployeeControllerTest {
         verify(employeeService).getAllEmployees();
     }
 
+    @Test
+    public void testExportEmployeesAsGzippedCsv() throws IOException {
+        when(employeeService.exportEmployees()).thenReturn(Stream.of(employeeDto1, employeeDto2));
+
+        ResponseEntity<StreamingResponseBody> responseEntity =
+                employeeController.exportEmployees("csv", "gzip, deflate, br");
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("text/csv;charset=UTF-8", responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        assertEquals("gzip", responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        responseEntity.getBody().writeTo(body);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            String[] rows = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\r\n");
+            assertEquals(3, rows.length);
+            assertTrue(rows[1].startsWith("64550650-a3b9-4ca0-9dc2-80a940a68d50,Nikhil,50000"));
+        }
+    }
+
+    @Test
+    public void testExportEmployeesAsNdjsonByDefault() throws IOException {
+        when(employeeService.exportEmployees()).thenReturn(Stream.of(employeeDto1));
+
+        ResponseEntity<StreamingResponseBody> responseEntity = employeeController.exportEmployees("ndjson", null);
+        assertEquals(MediaType.APPLICATION_NDJSON, responseEntity.getHeaders().getContentType());
+        assertNull(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        responseEntity.getBody().writeTo(body);
+        assertTrue(body.toString(StandardCharsets.UTF_8).contains("\"employee_name\":\"Nikhil\""));
+    }
+
+    @Test
+    public void testExportEmployeesUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> employeeController.exportEmployees("xml", null));
+        verifyNoInteractions(employeeService);
+    }
+
     @Test
     public void testGetAllEmployeesEmptyList() {
 
@@ -294,4 +351,53 @@ public class EmployeeControllerTest {
         }
         verify(employeeService).deleteEmployeeById(id);
     }
+
+    @Test
+    public void testFilterEmployeesSuccess() {
+        EmployeeFilterDto filter = new EmployeeFilterDto();
+        filter.setMaxSalary(55000);
+        when(employeeService.filterEmployees(filter)).thenReturn(List.of(employeeDto1));
+        ResponseEntity<List<EmployeeDto>> responseEntity = employeeController.filterEmployees(filter);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(List.of(employeeDto1), responseEntity.getBody());
+        verify(employeeService).filterEmployees(filter);
+    }
+
+    @Test
+    public void testGetSalaryDistributionSuccess() {
+        SalaryDistributionDto distribution = new SalaryDistributionDto();
+        distribution.setCount(2);
+        when(employeeService.getSalaryDistribution(10)).thenReturn(distribution);
+        ResponseEntity<SalaryDistributionDto> response = employeeController.getSalaryDistribution(10);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getCount());
+        verify(employeeService).getSalaryDistribution(10);
+    }
+
+    @Test
+    public void testCreateEmployeeAsyncAccepted() {
+        CreateEmployeeJobDto job = new CreateEmployeeJobDto();
+        job.setJobId(UUID.fromString("40fae02d-49c2-4f8c-ac23-4878de1e6f63"));
+        job.setStatus(CreateEmployeeJobDto.Status.QUEUED);
+        when(employeeService.submitCreateEmployee(createEmployeeRequestDto)).thenReturn(job);
+        ResponseEntity<CreateEmployeeJobDto> response =
+                employeeController.createEmployeeAsync(createEmployeeRequestDto);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(
+                "/api/v1/employee/jobs/40fae02d-49c2-4f8c-ac23-4878de1e6f63",
+                response.getHeaders().getLocation().toString());
+        assertEquals(job, response.getBody());
+    }
+
+    @Test
+    public void testGetCreateEmployeeJobSuccess() {
+        String jobId = "40fae02d-49c2-4f8c-ac23-4878de1e6f63";
+        CreateEmployeeJobDto job = new CreateEmployeeJobDto();
+        job.setStatus(CreateEmployeeJobDto.Status.SUCCEEDED);
+        job.setEmployee(employeeDto1);
+        when(employeeService.getCreateEmployeeJob(jobId)).thenReturn(job);
+        ResponseEntity<CreateEmployeeJobDto> response = employeeController.getCreateEmployeeJob(jobId);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(employeeDto1, response.getBody().getEmployee());
+    }
 }
@@ -0,0 +1,100 @@
+package com.reliaquest.api.encoding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.EmployeeDto;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * @author nikhilchavan
+ */
+public class EmployeeExporterTest {
+
+    private final EmployeeExporter exporter = new EmployeeExporter(new ObjectMapper());
+
+    private EmployeeDto employeeDto1;
+    private EmployeeDto employeeDto2;
+
+    @BeforeEach
+    public void setUp() {
+        employeeDto1 = new EmployeeDto();
+        employeeDto1.setId(UUID.fromString("64550650-a3b9-4ca0-9dc2-80a940a68d50"));
+        employeeDto1.setName("Nikhil");
+        employeeDto1.setSalary(50000);
+
+        employeeDto2 = new EmployeeDto();
+        employeeDto2.setId(UUID.fromString("40fae02d-49c2-4f8c-ac23-4878de1e6f63"));
+        employeeDto2.setName("Chavan, \"Mayuri\"");
+        employeeDto2.setSalary(60000);
+        employeeDto2.setAge(30);
+        employeeDto2.setTitle("Engineer");
+    }
+
+    private String export(EmployeeExporter.Format format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.write(Stream.of(employeeDto1, employeeDto2), format, gzip, out);
+        if (!gzip) {
+            return out.toString(StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testWritesOneJsonObjectPerLine() throws IOException {
+        String[] lines = export(EmployeeExporter.Format.NDJSON, false).split("\n");
+
+        assertEquals(2, lines.length);
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(employeeDto1, objectMapper.readValue(lines[0], EmployeeDto.class));
+        assertEquals(employeeDto2, objectMapper.readValue(lines[1], EmployeeDto.class));
+    }
+
+    @Test
+    public void testWritesCsvWithHeaderAndQuoting() throws IOException {
+        assertEquals(
+                "id,name,salary,age,title,email\r\n"
+                        + "64550650-a3b9-4ca0-9dc2-80a940a68d50,Nikhil,50000,,,\r\n"
+                        + "40fae02d-49c2-4f8c-ac23-4878de1e6f63,\"Chavan, \"\"Mayuri\"\"\",60000,30,Engineer,\r\n",
+                export(EmployeeExporter.Format.CSV, false));
+    }
+
+    @Test
+    public void testGzipsOnTheFly() throws IOException {
+        assertEquals(export(EmployeeExporter.Format.CSV, false), export(EmployeeExporter.Format.CSV, true));
+    }
+
+    @Test
+    public void testClosesStreamWhenWriteFails() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<EmployeeDto> failing = Stream.of(employeeDto1)
+                .peek(employee -> {
+                    throw new IllegalStateException("Upstream went away");
+                })
+                .onClose(() -> closed.set(true));
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> exporter.write(failing, EmployeeExporter.Format.NDJSON, false, new ByteArrayOutputStream()));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testParsesFormatIgnoringCase() {
+        assertEquals(EmployeeExporter.Format.CSV, EmployeeExporter.Format.of("CSV"));
+        assertEquals(MediaType.APPLICATION_NDJSON, EmployeeExporter.Format.of("ndjson").mediaType());
+        assertThrows(IllegalArgumentException.class, () -> EmployeeExporter.Format.of("xml"));
+    }
+}
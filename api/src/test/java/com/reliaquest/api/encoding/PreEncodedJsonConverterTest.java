@@ -0,0 +1,78 @@
+package com.reliaquest.api.encoding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * @author nikhilchavan
+ */
+public class PreEncodedJsonConverterTest {
+
+    private final PreEncodedJsonConverter converter = new PreEncodedJsonConverter(new ObjectMapper(), true);
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testSupportsOnlyPreEncodedLists() {
+        assertTrue(converter.canWrite(PreEncodedList.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(PreEncodedList.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testWritesJson() throws IOException {
+        MockHttpOutputMessage output = write(PreEncodedList.of("names", 1, List.of("Nikhil", "Mayuri")));
+
+        assertEquals("[\"Nikhil\",\"Mayuri\"]", output.getBodyAsString(StandardCharsets.UTF_8));
+        assertNull(output.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, output.getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    @Test
+    public void testReusesEncodingOfSameVersion() throws IOException {
+        write(PreEncodedList.of("names", 1, List.of("Nikhil")));
+
+        MockHttpOutputMessage cached = write(PreEncodedList.of("names", 1, List.of("Changed")));
+        MockHttpOutputMessage newer = write(PreEncodedList.of("names", 2, List.of("Changed")));
+
+        assertEquals("[\"Nikhil\"]", cached.getBodyAsString(StandardCharsets.UTF_8));
+        assertEquals("[\"Changed\"]", newer.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWritesGzipWhenAccepted() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        MockHttpOutputMessage output = write(PreEncodedList.of("names", 1, List.of("Nikhil")));
+
+        assertEquals("gzip", output.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(output.getBodyAsBytes()))) {
+            assertEquals("[\"Nikhil\"]", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private MockHttpOutputMessage write(PreEncodedList<?> list) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(list, MediaType.APPLICATION_JSON, output);
+        return output;
+    }
+}
@@ -4,29 +4,44 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.config.ApplicationConfiguration;
 import com.reliaquest.api.dto.CreateEmployeeRequestDto;
 import com.reliaquest.api.dto.EmployeeDto;
-import com.reliaquest.api.exception.EmployeeNotFoundException;
-import com.reliaquest.api.exception.EmployeeServiceIntegrationException;
-import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.dto.EmployeeFilterDto;
 import com.reliaquest.api.external.dto.CreateEmployeeResponseDto;
 import com.reliaquest.api.external.dto.DeleteEmployeeResponseDto;
 import com.reliaquest.api.external.dto.EmployeeResponseDto;
 import com.reliaquest.api.external.dto.GetAllEmployeeResponseDto;
+import com.reliaquest.api.external.dto.HighestSalaryResponseDto;
+import com.reliaquest.api.logging.LogSampler;
+import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -53,7 +68,19 @@ public class EmployeeIntegrationServiceTest {
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
-    @InjectMocks
+    @Mock
+    private WebClient otherShardClient;
+
+    private final ApplicationConfiguration appConfig = applicationConfiguration();
+
+    private final UpstreamLatencyTracker latencyTracker = new UpstreamLatencyTracker(16, 4);
+
+    private final HedgeBudget hedgeBudget = new HedgeBudget(1, 10, Duration.ofSeconds(30));
+
+    private final KnownEmployeeIds knownIds = new KnownEmployeeIds(true, 0.01, Duration.ofMinutes(1));
+
+    private final List<Duration> sleeps = new ArrayList<>();
+
     private EmployeeIntegrationService employeeIntegrationService;
 
     private EmployeeDto employeeDto1;
@@ -63,8 +90,52 @@ public class EmployeeIntegrationServiceTest {
     private UUID validUUID;
     private String employeeName;
 
+    private static ApplicationConfiguration applicationConfiguration() {
+        ApplicationConfiguration config = new ApplicationConfiguration();
+        config.employeeClientMinTimeout = Duration.ofMillis(50);
+        config.employeeClientMaxTimeout = Duration.ofMillis(200);
+        config.employeeClientTimeoutMultiplier = 3;
+        config.employeeClientHedgeEnabled = true;
+        config.employeeClientHedgePercentile = 0.95;
+        config.employeeClientRetryMaxAttempts = 3;
+        config.employeeClientRetryDelay = Duration.ofSeconds(20);
+        return config;
+    }
+
+    private void recordLatencies(int millis) {
+        for (int i = 0; i < 4; i++) {
+            latencyTracker.record(Duration.ofMillis(millis));
+        }
+    }
+
+    private EmployeeIntegrationService integrationService(WebClient... shards) {
+        return integrationService(new EmployeeLookupBatcher(false, Duration.ZERO, 1), shards);
+    }
+
+    private EmployeeIntegrationService integrationService(EmployeeLookupBatcher lookupBatcher, WebClient... shards) {
+        return new EmployeeIntegrationService(
+                new EmployeeShards(List.of(shards)),
+                appConfig,
+                latencyTracker,
+                hedgeBudget,
+                new LogSampler(1, Map.of(), 10, Duration.ofMinutes(1), System::nanoTime),
+                knownIds,
+                lookupBatcher,
+                sleeps::add);
+    }
+
+    private static byte[] json(GetAllEmployeeResponseDto responseDto) {
+        try {
+            return new ObjectMapper().writeValueAsBytes(responseDto);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
     @BeforeEach
     public void setUp() {
+        employeeIntegrationService = integrationService(employeeServiceExternalClient);
+
         // Setup test data
         validUUIDString = "64550650-a3b9-4ca0-9dc2-80a940a68d50";
         validUUID = UUID.fromString(validUUIDString);
@@ -95,7 +166,7 @@ public class EmployeeIntegrationServiceTest {
         when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        List<EmployeeDto> result = employeeIntegrationService.getAllEmployees();
+        List<EmployeeDto> result = employeeIntegrationService.getAllEmployees().orElseThrow();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -113,10 +184,10 @@ public class EmployeeIntegrationServiceTest {
         when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        TooManyRequestsException exception =
-                assertThrows(TooManyRequestsException.class, () -> employeeIntegrationService.getAllEmployees());
-        assertEquals("Received too many requests. Please try again later.", exception.getMessage());
-        verify(employeeServiceExternalClient, times(1)).get();
+        UpstreamResult<List<EmployeeDto>> result = employeeIntegrationService.getAllEmployees();
+        assertEquals(UpstreamResult.throttled("Received too many requests. Please try again later."), result);
+        verify(employeeServiceExternalClient, times(3)).get();
+        assertEquals(List.of(Duration.ofSeconds(20), Duration.ofSeconds(20)), sleeps);
     }
 
     @Test
@@ -129,11 +200,12 @@ public class EmployeeIntegrationServiceTest {
         when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        EmployeeServiceIntegrationException exception = assertThrows(
-                EmployeeServiceIntegrationException.class, () -> employeeIntegrationService.getAllEmployees());
-        assertTrue(exception.getMessage().contains("Error occurred while fetching All employees data"));
-        assertTrue(exception.getMessage().contains("INTERNAL_SERVER_ERROR"));
+        UpstreamResult.Failed<?> result = assertInstanceOf(
+                UpstreamResult.Failed.class, employeeIntegrationService.getAllEmployees());
+        assertTrue(result.message().contains("Error occurred while fetching All employees data"));
+        assertTrue(result.message().contains("INTERNAL_SERVER_ERROR"));
         verify(employeeServiceExternalClient, times(1)).get();
+        assertTrue(sleeps.isEmpty());
     }
 
     @Test
@@ -146,7 +218,7 @@ public class EmployeeIntegrationServiceTest {
         when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        EmployeeDto result = employeeIntegrationService.getEmployeeById(validUUID);
+        EmployeeDto result = employeeIntegrationService.getEmployeeById(validUUID).orElseThrow();
         assertNotNull(result);
         assertEquals("Nikhil", result.getName());
         verify(employeeServiceExternalClient, times(1)).get();
@@ -161,10 +233,139 @@ public class EmployeeIntegrationServiceTest {
         when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        EmployeeNotFoundException exception = assertThrows(
-                EmployeeNotFoundException.class, () -> employeeIntegrationService.getEmployeeById(validUUID));
-        assertEquals("Employee with ID : " + validUUID + " not found.", exception.getMessage());
+        assertEquals(
+                UpstreamResult.notFound("Employee with ID : " + validUUID + " not found."),
+                employeeIntegrationService.getEmployeeById(validUUID));
+        verify(employeeServiceExternalClient, times(1)).get();
+    }
+
+    @Test
+    public void testGetEmployeeByIdRuledOutByKnownIds() {
+        GetAllEmployeeResponseDto allResponseDto = new GetAllEmployeeResponseDto();
+        allResponseDto.setData(List.of(employeeDto2));
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.exchangeToMono(any()))
+                .thenReturn(Mono.just(new ResponseEntity<>(allResponseDto, HttpStatus.OK)));
+
+        employeeIntegrationService.getAllEmployees().orElseThrow();
+        assertEquals(
+                UpstreamResult.notFound("Employee with ID : " + validUUID + " not found."),
+                employeeIntegrationService.getEmployeeById(validUUID));
+        verify(employeeServiceExternalClient, times(1)).get();
+        assertEquals(1, knownIds.avoidedLookups());
+    }
+
+    @Test
+    public void testConcurrentLookupsByIdShareOneUpstreamCall() throws InterruptedException {
+        UUID unknownId = UUID.fromString("0b3f8a1e-5c0d-4c8e-9f7a-2d6e1b4c3a59");
+        GetAllEmployeeResponseDto responseDto = new GetAllEmployeeResponseDto();
+        // A server without the id filter answers with its whole roster
+        responseDto.setData(List.of(employeeDto1, employeeDto2));
+        ArgumentCaptor<Function<UriBuilder, URI>> uriFunction = ArgumentCaptor.forClass(Function.class);
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(uriFunction.capture())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(Mono.just(new ResponseEntity<>(json(responseDto), HttpStatus.OK)));
+
+        EmployeeLookupBatcher lookupBatcher = new EmployeeLookupBatcher(true, Duration.ofMinutes(1), 2);
+        EmployeeIntegrationService batchingService = integrationService(lookupBatcher, employeeServiceExternalClient);
+        AtomicReference<UpstreamResult<EmployeeDto>> unknownResult = new AtomicReference<>();
+        Thread lookup = new Thread(() -> unknownResult.set(batchingService.getEmployeeById(unknownId)));
+        lookup.start();
+        while (lookupBatcher.waiting() == 0) {
+            Thread.onSpinWait();
+        }
+        UpstreamResult<EmployeeDto> result = batchingService.getEmployeeById(validUUID);
+        lookup.join();
+
+        assertEquals(UpstreamResult.success(employeeDto1), result);
+        assertEquals(UpstreamResult.notFound("Employee with ID : " + unknownId + " not found."), unknownResult.get());
+        verify(employeeServiceExternalClient, times(1)).get();
+        URI uri = uriFunction.getValue().apply(UriComponentsBuilder.fromUriString("http://localhost/api/v1/employee"));
+        assertEquals("id=" + unknownId + "&id=" + validUUID, uri.getQuery());
+        assertEquals(1, lookupBatcher.batches());
+    }
+
+    @Test
+    public void testBatchedLookupsByIdTimeOut() throws InterruptedException {
+        UUID otherId = UUID.fromString("0b3f8a1e-5c0d-4c8e-9f7a-2d6e1b4c3a59");
+        for (int i = 0; i < 3; i++) {
+            latencyTracker.record(Duration.ofMillis(5));
+        }
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.never());
+
+        EmployeeLookupBatcher lookupBatcher = new EmployeeLookupBatcher(true, Duration.ofMinutes(1), 2);
+        EmployeeIntegrationService batchingService = integrationService(lookupBatcher, employeeServiceExternalClient);
+        AtomicReference<UpstreamResult<EmployeeDto>> otherResult = new AtomicReference<>();
+        Thread lookup = new Thread(() -> otherResult.set(batchingService.getEmployeeById(otherId)));
+        lookup.start();
+        while (lookupBatcher.waiting() == 0) {
+            Thread.onSpinWait();
+        }
+        UpstreamResult<EmployeeDto> result = batchingService.getEmployeeById(validUUID);
+        lookup.join();
+
+        UpstreamResult<EmployeeDto> timedOut = UpstreamResult.failed("Timed out while fetching employee data by id");
+        assertEquals(timedOut, result);
+        assertEquals(timedOut, otherResult.get());
         verify(employeeServiceExternalClient, times(1)).get();
+        assertEquals(1, lookupBatcher.batches());
+        // The list request cancelled by the 200ms timeout is the fourth sample, recorded like a get-by-id one
+        assertTrue(latencyTracker.percentile(0.99).orElseThrow().compareTo(Duration.ofMillis(150)) >= 0);
+    }
+
+    @Test
+    public void testGetEmployeeByIdCreatedSinceRosterFetch() {
+        GetAllEmployeeResponseDto allResponseDto = new GetAllEmployeeResponseDto();
+        allResponseDto.setData(List.of(employeeDto2));
+        CreateEmployeeResponseDto createResponseDto = new CreateEmployeeResponseDto();
+        createResponseDto.setData(employeeDto1);
+        EmployeeResponseDto byIdResponseDto = new EmployeeResponseDto();
+        byIdResponseDto.setData(employeeDto1);
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.exchangeToMono(any()))
+                .thenReturn(Mono.just(new ResponseEntity<>(allResponseDto, HttpStatus.OK)));
+        when(employeeServiceExternalClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(Mono.just(new ResponseEntity<>(createResponseDto, HttpStatus.OK)))
+                .thenReturn(Mono.just(new ResponseEntity<>(byIdResponseDto, HttpStatus.OK)));
+
+        employeeIntegrationService.getAllEmployees().orElseThrow();
+        employeeIntegrationService.createEmployee(createEmployeeRequestDto).orElseThrow();
+
+        assertEquals("Nikhil", employeeIntegrationService.getEmployeeById(validUUID).orElseThrow().getName());
+        assertEquals(0, knownIds.avoidedLookups());
+        assertEquals(1, knownIds.passedLookups());
+    }
+
+    @Test
+    public void testTryCreateEmployeeAddsKnownId() {
+        GetAllEmployeeResponseDto allResponseDto = new GetAllEmployeeResponseDto();
+        allResponseDto.setData(List.of(employeeDto2));
+        CreateEmployeeResponseDto createResponseDto = new CreateEmployeeResponseDto();
+        createResponseDto.setData(employeeDto1);
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.exchangeToMono(any()))
+                .thenReturn(Mono.just(new ResponseEntity<>(allResponseDto, HttpStatus.OK)));
+        when(employeeServiceExternalClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(Mono.just(new ResponseEntity<>(createResponseDto, HttpStatus.OK)));
+
+        employeeIntegrationService.getAllEmployees().orElseThrow();
+        employeeIntegrationService.tryCreateEmployee(createEmployeeRequestDto).orElseThrow();
+
+        // Asynchronous creation goes through this call, so its ids are known at once too
+        assertFalse(knownIds.isDefinitelyUnknown(employeeDto1.getId()));
     }
 
     @Test
@@ -177,12 +378,263 @@ public class EmployeeIntegrationServiceTest {
         when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        TooManyRequestsException exception = assertThrows(
-                TooManyRequestsException.class, () -> employeeIntegrationService.getEmployeeById(validUUID));
-        assertEquals("Received too many requests. Please try again later.", exception.getMessage());
+        assertTrue(employeeIntegrationService.getEmployeeById(validUUID).isThrottled());
+        verify(employeeServiceExternalClient, times(3)).get();
+        assertEquals(2, sleeps.size());
+    }
+
+    @Test
+    public void testGetEmployeeByIdRetriesAfterThrottling() {
+        EmployeeResponseDto found = new EmployeeResponseDto();
+        found.setData(employeeDto1);
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(
+                        Mono.just(new ResponseEntity<>(new EmployeeResponseDto(), HttpStatus.TOO_MANY_REQUESTS)),
+                        Mono.just(new ResponseEntity<>(found, HttpStatus.OK)));
+
+        assertEquals(UpstreamResult.success(employeeDto1), employeeIntegrationService.getEmployeeById(validUUID));
+        verify(employeeServiceExternalClient, times(2)).get();
+        assertEquals(List.of(Duration.ofSeconds(20)), sleeps);
+    }
+
+    @Test
+    public void testGetEmployeeByIdTimesOut() {
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.never());
+
+        assertEquals(
+                UpstreamResult.failed("Timed out while fetching employee data with id : " + validUUID),
+                employeeIntegrationService.getEmployeeById(validUUID));
+        verify(employeeServiceExternalClient, times(1)).get();
+    }
+
+    @Test
+    public void testGetEmployeeByIdRecordsTimedOutRequestLatency() {
+        for (int i = 0; i < 3; i++) {
+            latencyTracker.record(Duration.ofMillis(5));
+        }
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.never());
+
+        assertInstanceOf(UpstreamResult.Failed.class, employeeIntegrationService.getEmployeeById(validUUID));
+        // Cancelled by the 200ms timeout, which is what the p99 of four samples now reflects
+        assertTrue(latencyTracker.percentile(0.99).orElseThrow().compareTo(Duration.ofMillis(150)) >= 0);
+    }
+
+    @Test
+    public void testGetEmployeeByIdHedgesSlowRequest() {
+        EmployeeResponseDto responseDto = new EmployeeResponseDto();
+        responseDto.setData(employeeDto1);
+        ResponseEntity<EmployeeResponseDto> responseEntity = new ResponseEntity<>(responseDto, HttpStatus.OK);
+        recordLatencies(5);
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.never(), Mono.just(responseEntity));
+
+        EmployeeDto result = employeeIntegrationService.getEmployeeById(validUUID).orElseThrow();
+        assertEquals("Nikhil", result.getName());
+        verify(employeeServiceExternalClient, times(2)).get();
+    }
+
+    @Test
+    public void testGetEmployeeByIdDoesNotHedgeWhileThrottled() {
+        recordLatencies(5);
+        hedgeBudget.onThrottled();
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.never());
+
+        assertInstanceOf(UpstreamResult.Failed.class, employeeIntegrationService.getEmployeeById(validUUID));
         verify(employeeServiceExternalClient, times(1)).get();
     }
 
+    @Test
+    public void testGetAllEmployeesMergesShards() {
+        GetAllEmployeeResponseDto firstShard = new GetAllEmployeeResponseDto();
+        firstShard.setData(List.of(employeeDto1));
+        GetAllEmployeeResponseDto secondShard = new GetAllEmployeeResponseDto();
+        secondShard.setData(List.of(employeeDto2));
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(otherShardClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.exchangeToMono(any()))
+                .thenReturn(
+                        Mono.just(new ResponseEntity<>(firstShard, HttpStatus.OK)),
+                        Mono.just(new ResponseEntity<>(secondShard, HttpStatus.OK)));
+
+        EmployeeIntegrationService shardedService = integrationService(employeeServiceExternalClient, otherShardClient);
+        assertEquals(UpstreamResult.success(List.of(employeeDto1, employeeDto2)), shardedService.getAllEmployees());
+    }
+
+    @Test
+    public void testGetEmployeeByIdScattersThenRemembersShard() {
+        EmployeeResponseDto found = new EmployeeResponseDto();
+        found.setData(employeeDto1);
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(otherShardClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(UUID.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(
+                        Mono.just(new ResponseEntity<>(new EmployeeResponseDto(), HttpStatus.NOT_FOUND)),
+                        Mono.just(new ResponseEntity<>(found, HttpStatus.OK)),
+                        Mono.just(new ResponseEntity<>(found, HttpStatus.OK)));
+
+        EmployeeIntegrationService shardedService = integrationService(employeeServiceExternalClient, otherShardClient);
+        assertEquals("Nikhil", shardedService.getEmployeeById(validUUID).orElseThrow().getName());
+        assertEquals("Nikhil", shardedService.getEmployeeById(validUUID).orElseThrow().getName());
+        verify(employeeServiceExternalClient, times(1)).get();
+        verify(otherShardClient, times(2)).get();
+    }
+
+    @Test
+    public void testFilterEmployeesMergesShards() {
+        GetAllEmployeeResponseDto firstShard = new GetAllEmployeeResponseDto();
+        firstShard.setData(List.of(employeeDto1));
+        GetAllEmployeeResponseDto secondShard = new GetAllEmployeeResponseDto();
+        secondShard.setData(List.of(employeeDto2));
+        EmployeeFilterDto filter = new EmployeeFilterDto();
+        filter.setMinSalary(50000);
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(otherShardClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(
+                        Mono.just(new ResponseEntity<>(firstShard, HttpStatus.OK)),
+                        Mono.just(new ResponseEntity<>(secondShard, HttpStatus.OK)));
+
+        EmployeeIntegrationService shardedService = integrationService(employeeServiceExternalClient, otherShardClient);
+        assertEquals(
+                UpstreamResult.success(List.of(employeeDto1, employeeDto2)), shardedService.filterEmployees(filter));
+    }
+
+    @Test
+    public void testFilterEmployeesBadRequest() {
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(Mono.just(new ResponseEntity<>(new GetAllEmployeeResponseDto(), HttpStatus.BAD_REQUEST)));
+
+        UpstreamResult.Failed<?> result = assertInstanceOf(
+                UpstreamResult.Failed.class, employeeIntegrationService.filterEmployees(new EmployeeFilterDto()));
+        assertTrue(result.message().contains("BAD_REQUEST"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSearchEmployeesByNameAsksForMatchesOnly() {
+        GetAllEmployeeResponseDto responseDto = new GetAllEmployeeResponseDto();
+        responseDto.setData(List.of(employeeDto1));
+        ArgumentCaptor<Function<UriBuilder, URI>> uriFunction = ArgumentCaptor.forClass(Function.class);
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(uriFunction.capture())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(Mono.just(new ResponseEntity<>(responseDto, HttpStatus.OK)));
+
+        assertEquals(
+                UpstreamResult.success(List.of(employeeDto1)),
+                employeeIntegrationService.searchEmployeesByName("nik"));
+        URI uri = uriFunction.getValue().apply(UriComponentsBuilder.fromUriString("http://localhost/api/v1/employee"));
+        assertEquals("/api/v1/employee/search", uri.getPath());
+        assertEquals("name=nik", uri.getQuery());
+    }
+
+    @Test
+    public void testGetHighestSalaryAcrossShards() {
+        HighestSalaryResponseDto firstShard = new HighestSalaryResponseDto();
+        firstShard.setData(60000);
+        HighestSalaryResponseDto emptyShard = new HighestSalaryResponseDto();
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(otherShardClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(
+                        Mono.just(new ResponseEntity<>(firstShard, HttpStatus.OK)),
+                        Mono.just(new ResponseEntity<>(emptyShard, HttpStatus.OK)));
+
+        EmployeeIntegrationService shardedService = integrationService(employeeServiceExternalClient, otherShardClient);
+        assertEquals(UpstreamResult.success(OptionalInt.of(60000)), shardedService.getHighestSalary());
+    }
+
+    @Test
+    public void testGetTopEarnersMergesShards() {
+        EmployeeDto employeeDto3 = new EmployeeDto();
+        employeeDto3.setName("Aarav");
+        employeeDto3.setSalary(60000);
+        GetAllEmployeeResponseDto firstShard = new GetAllEmployeeResponseDto();
+        firstShard.setData(List.of(employeeDto2));
+        GetAllEmployeeResponseDto secondShard = new GetAllEmployeeResponseDto();
+        secondShard.setData(List.of(employeeDto1, employeeDto3));
+
+        when(employeeServiceExternalClient.get()).thenReturn(requestHeadersUriSpec);
+        when(otherShardClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenReturn(
+                        Mono.just(new ResponseEntity<>(json(firstShard), HttpStatus.OK)),
+                        Mono.just(new ResponseEntity<>(json(secondShard), HttpStatus.OK)));
+
+        EmployeeIntegrationService shardedService = integrationService(employeeServiceExternalClient, otherShardClient);
+        List<EmployeeDto> topEarners = shardedService.getTopEarners(2).orElseThrow();
+        assertEquals(List.of("Nikhil", "Mayuri"), topEarners.stream().map(EmployeeDto::getName).toList());
+        assertEquals(70000, topEarners.get(0).getSalary());
+        assertNull(topEarners.get(0).getId());
+    }
+
+    private void stubExport(WebClient client) {
+        when(client.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri("/export")).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.accept(MediaType.APPLICATION_NDJSON)).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+    }
+
+    @Test
+    public void testExportEmployeesStreamsShardsInOrder() {
+        stubExport(employeeServiceExternalClient);
+        stubExport(otherShardClient);
+        when(responseSpec.bodyToFlux(EmployeeDto.class)).thenReturn(Flux.just(employeeDto1), Flux.just(employeeDto2));
+
+        EmployeeIntegrationService shardedService = integrationService(employeeServiceExternalClient, otherShardClient);
+        try (Stream<EmployeeDto> employees = shardedService.exportEmployees().orElseThrow()) {
+            assertEquals(List.of(employeeDto1, employeeDto2), employees.toList());
+        }
+    }
+
+    @Test
+    public void testExportEmployeesRetriesThrottledStart() {
+        stubExport(employeeServiceExternalClient);
+        when(responseSpec.bodyToFlux(EmployeeDto.class))
+                .thenReturn(
+                        Flux.error(WebClientResponseException.create(429, "Too Many Requests", null, null, null)),
+                        Flux.just(employeeDto1));
+
+        try (Stream<EmployeeDto> employees = employeeIntegrationService.exportEmployees().orElseThrow()) {
+            assertEquals(List.of(employeeDto1), employees.toList());
+        }
+        assertEquals(List.of(Duration.ofSeconds(20)), sleeps);
+    }
+
+    @Test
+    public void testExportEmployeesFailsOnUpstreamError() {
+        stubExport(employeeServiceExternalClient);
+        when(responseSpec.bodyToFlux(EmployeeDto.class))
+                .thenReturn(Flux.error(WebClientResponseException.create(500, "Server Error", null, null, null)));
+
+        assertInstanceOf(UpstreamResult.Failed.class, employeeIntegrationService.exportEmployees());
+        assertTrue(sleeps.isEmpty());
+    }
+
     @Test
     public void testCreateEmployeeSuccess() {
         CreateEmployeeResponseDto responseDto = new CreateEmployeeResponseDto();
@@ -193,7 +645,7 @@ public class EmployeeIntegrationServiceTest {
         when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        EmployeeDto result = employeeIntegrationService.createEmployee(createEmployeeRequestDto);
+        EmployeeDto result = employeeIntegrationService.createEmployee(createEmployeeRequestDto).orElseThrow();
 
         assertNotNull(result);
         assertEquals("Nikhil", result.getName());
@@ -210,11 +662,25 @@ public class EmployeeIntegrationServiceTest {
         when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        TooManyRequestsException exception = assertThrows(
-                TooManyRequestsException.class,
-                () -> employeeIntegrationService.createEmployee(createEmployeeRequestDto));
-        assertEquals("Received too many requests. Please try again later.", exception.getMessage());
+        assertEquals(
+                UpstreamResult.throttled("Received too many requests. Please try again later."),
+                employeeIntegrationService.createEmployee(createEmployeeRequestDto));
+        verify(employeeServiceExternalClient, times(3)).post();
+        assertEquals(2, sleeps.size());
+    }
+
+    @Test
+    public void testTryCreateEmployeeDoesNotRetry() {
+        ResponseEntity<CreateEmployeeResponseDto> responseEntity =
+                new ResponseEntity<>(new CreateEmployeeResponseDto(), HttpStatus.TOO_MANY_REQUESTS);
+
+        when(employeeServiceExternalClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
+
+        assertTrue(employeeIntegrationService.tryCreateEmployee(createEmployeeRequestDto).isThrottled());
         verify(employeeServiceExternalClient, times(1)).post();
+        assertTrue(sleeps.isEmpty());
     }
 
     @Test
@@ -227,10 +693,9 @@ public class EmployeeIntegrationServiceTest {
         when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        EmployeeServiceIntegrationException exception = assertThrows(
-                EmployeeServiceIntegrationException.class,
-                () -> employeeIntegrationService.createEmployee(createEmployeeRequestDto));
-        assertTrue(exception.getMessage().contains("BAD_REQUEST"));
+        UpstreamResult.Failed<?> result = assertInstanceOf(
+                UpstreamResult.Failed.class, employeeIntegrationService.createEmployee(createEmployeeRequestDto));
+        assertTrue(result.message().contains("BAD_REQUEST"));
         verify(employeeServiceExternalClient, times(1)).post();
     }
 
@@ -244,7 +709,7 @@ public class EmployeeIntegrationServiceTest {
         when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        boolean result = employeeIntegrationService.deleteEmployeeByName(employeeName);
+        boolean result = employeeIntegrationService.deleteEmployeeByName(employeeName).orElseThrow();
 
         assertTrue(result);
         verify(employeeServiceExternalClient, times(1)).method(HttpMethod.DELETE);
@@ -260,7 +725,7 @@ public class EmployeeIntegrationServiceTest {
         when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        boolean result = employeeIntegrationService.deleteEmployeeByName(employeeName);
+        boolean result = employeeIntegrationService.deleteEmployeeByName(employeeName).orElseThrow();
 
         assertTrue(!result);
         verify(employeeServiceExternalClient, times(1)).method(HttpMethod.DELETE);
@@ -277,10 +742,10 @@ public class EmployeeIntegrationServiceTest {
         when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        TooManyRequestsException exception = assertThrows(
-                TooManyRequestsException.class, () -> employeeIntegrationService.deleteEmployeeByName(employeeName));
-        assertEquals("Received too many requests. Please try again after later.", exception.getMessage());
-        verify(employeeServiceExternalClient, times(1)).method(HttpMethod.DELETE);
+        assertEquals(
+                UpstreamResult.throttled("Received too many requests. Please try again later."),
+                employeeIntegrationService.deleteEmployeeByName(employeeName));
+        verify(employeeServiceExternalClient, times(3)).method(HttpMethod.DELETE);
     }
 
     @Test
@@ -294,10 +759,9 @@ public class EmployeeIntegrationServiceTest {
         when(requestBodyUriSpec.body(any(Mono.class), any(Class.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenReturn(Mono.just(responseEntity));
 
-        EmployeeServiceIntegrationException exception = assertThrows(
-                EmployeeServiceIntegrationException.class,
-                () -> employeeIntegrationService.deleteEmployeeByName(employeeName));
-        assertTrue(exception.getMessage().contains("BAD_REQUEST"));
+        UpstreamResult.Failed<?> result = assertInstanceOf(
+                UpstreamResult.Failed.class, employeeIntegrationService.deleteEmployeeByName(employeeName));
+        assertTrue(result.message().contains("BAD_REQUEST"));
         verify(employeeServiceExternalClient, times(1)).method(HttpMethod.DELETE);
     }
 }
@@ -0,0 +1,127 @@
+package com.reliaquest.api.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.dto.EmployeeDto;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class EmployeeLookupBatcherTest {
+
+    private static final UUID ID_1 = UUID.fromString("64550650-a3b9-4ca0-9dc2-80a940a68d50");
+    private static final UUID ID_2 = UUID.fromString("40fae02d-49c2-4f8c-ac23-4878de1e6f63");
+
+    private final List<List<UUID>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    private Map<UUID, UpstreamResult<EmployeeDto>> load(List<UUID> ids) {
+        batches.add(ids);
+        Map<UUID, UpstreamResult<EmployeeDto>> results = new HashMap<>();
+        for (UUID id : ids) {
+            EmployeeDto employee = new EmployeeDto();
+            employee.setId(id);
+            results.put(id, UpstreamResult.success(employee));
+        }
+        return results;
+    }
+
+    private static Thread lookUp(
+            EmployeeLookupBatcher batcher, UUID id, AtomicReference<UpstreamResult<EmployeeDto>> result) {
+        Thread thread = new Thread(() -> result.set(batcher.load(id, ids -> {
+            throw new AssertionError("Only the first lookup of a batch loads it");
+        })));
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(EmployeeLookupBatcher batcher, int lookups) {
+        while (batcher.waiting() < lookups) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    public void testFullBatchIsLoadedAtOnce() throws InterruptedException {
+        EmployeeLookupBatcher batcher = new EmployeeLookupBatcher(true, Duration.ofMinutes(1), 2);
+        AtomicReference<UpstreamResult<EmployeeDto>> first = new AtomicReference<>();
+        Thread firstLookup = new Thread(() -> first.set(batcher.load(ID_1, this::load)));
+        firstLookup.start();
+        awaitWaiting(batcher, 1);
+        AtomicReference<UpstreamResult<EmployeeDto>> second = new AtomicReference<>();
+        lookUp(batcher, ID_2, second).join();
+        firstLookup.join();
+
+        assertEquals(List.of(List.of(ID_1, ID_2)), batches);
+        assertEquals(ID_1, first.get().orElseThrow().getId());
+        assertEquals(ID_2, second.get().orElseThrow().getId());
+        assertEquals(1, batcher.batches());
+        assertEquals(2, batcher.batchedIds());
+    }
+
+    @Test
+    public void testRepeatedIdSharesResult() throws InterruptedException {
+        EmployeeLookupBatcher batcher = new EmployeeLookupBatcher(true, Duration.ofMinutes(1), 2);
+        AtomicReference<UpstreamResult<EmployeeDto>> first = new AtomicReference<>();
+        Thread firstLookup = new Thread(() -> first.set(batcher.load(ID_1, this::load)));
+        firstLookup.start();
+        awaitWaiting(batcher, 1);
+        AtomicReference<UpstreamResult<EmployeeDto>> repeated = new AtomicReference<>();
+        Thread repeatedLookup = lookUp(batcher, ID_1, repeated);
+        awaitWaiting(batcher, 2);
+        lookUp(batcher, ID_2, new AtomicReference<>()).join();
+        repeatedLookup.join();
+        firstLookup.join();
+
+        assertEquals(List.of(List.of(ID_1, ID_2)), batches);
+        assertSame(first.get(), repeated.get());
+    }
+
+    @Test
+    public void testLoneLookupIsLoadedAfterWindow() {
+        EmployeeLookupBatcher batcher = new EmployeeLookupBatcher(true, Duration.ofMillis(1), 64);
+
+        assertEquals(ID_1, batcher.load(ID_1, this::load).orElseThrow().getId());
+        assertEquals(List.of(List.of(ID_1)), batches);
+        assertEquals(0, batcher.waiting());
+    }
+
+    @Test
+    public void testLoadFailureReachesEveryLookup() throws InterruptedException {
+        EmployeeLookupBatcher batcher = new EmployeeLookupBatcher(true, Duration.ofMinutes(1), 2);
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        Thread firstLookup = new Thread(() -> {
+            try {
+                batcher.load(ID_1, ids -> {
+                    throw new IllegalStateException("Upstream went away");
+                });
+            } catch (IllegalStateException ex) {
+                firstFailure.set(ex);
+            }
+        });
+        firstLookup.start();
+        awaitWaiting(batcher, 1);
+
+        assertThrows(IllegalStateException.class, () -> batcher.load(ID_2, this::load));
+        firstLookup.join();
+        assertNotNull(firstFailure.get());
+    }
+
+    @Test
+    public void testDisabledLoadsEachLookupAlone() {
+        EmployeeLookupBatcher batcher = new EmployeeLookupBatcher(false, Duration.ofMinutes(1), 64);
+
+        batcher.load(ID_1, this::load);
+        batcher.load(ID_2, this::load);
+        assertEquals(List.of(List.of(ID_1), List.of(ID_2)), batches);
+        assertEquals(0, batcher.batches());
+    }
+}
@@ -0,0 +1,53 @@
+package com.reliaquest.api.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class HedgeBudgetTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testHedgesLimitedToRatioOfRequests() {
+        HedgeBudget budget = new HedgeBudget(0.1, 10, Duration.ofSeconds(30), now::get);
+        int hedges = 0;
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+            if (budget.tryAcquire()) {
+                hedges++;
+            }
+        }
+        assertTrue(hedges >= 9 && hedges <= 10, "hedges: " + hedges);
+    }
+
+    @Test
+    public void testTokensAreCapped() {
+        HedgeBudget budget = new HedgeBudget(1, 2, Duration.ofSeconds(30), now::get);
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    public void testThrottlingDisablesHedgingForCooldown() {
+        HedgeBudget budget = new HedgeBudget(1, 10, Duration.ofSeconds(30), now::get);
+        budget.onRequest();
+        budget.onThrottled();
+        budget.onRequest();
+        assertFalse(budget.tryAcquire());
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertFalse(budget.tryAcquire());
+        budget.onRequest();
+        assertTrue(budget.tryAcquire());
+    }
+}
@@ -0,0 +1,69 @@
+package com.reliaquest.api.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class IdBloomFilterTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testAddedIdsAreAlwaysFound() {
+        IdBloomFilter filter = IdBloomFilter.create(1000, 0.01);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            ids.add(id);
+            filter.add(id);
+        }
+        ids.forEach(id -> assertTrue(filter.mightContain(id), id.toString()));
+        assertEquals(1000, filter.size());
+    }
+
+    @Test
+    public void testFalsePositiveRateNearConfigured() {
+        IdBloomFilter filter = IdBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(new UUID(random.nextLong(), random.nextLong()))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives > 500 && falsePositives < 1500, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testSequentialIdsSpreadOverBits() {
+        IdBloomFilter filter = IdBloomFilter.create(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add(new UUID(0, i));
+        }
+        int falsePositives = 0;
+        for (int i = 1000; i < 11_000; i++) {
+            if (filter.mightContain(new UUID(0, i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testSizing() {
+        IdBloomFilter filter = IdBloomFilter.create(1000, 0.01);
+        assertEquals(9600, filter.bits());
+        assertEquals(7, filter.hashes());
+        assertThrows(IllegalArgumentException.class, () -> IdBloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> IdBloomFilter.create(1000, 1));
+    }
+}
@@ -0,0 +1,109 @@
+package com.reliaquest.api.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.dto.EmployeeDto;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class KnownEmployeeIdsTest {
+
+    private static final UUID FETCHED = UUID.fromString("64550650-a3b9-4ca0-9dc2-80a940a68d50");
+    private static final UUID CREATED = UUID.fromString("40fae02d-49c2-4f8c-ac23-4878de1e6f63");
+    private static final UUID UNKNOWN = UUID.fromString("5255f1a5-f9f7-4be5-829a-134bde088d17");
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final KnownEmployeeIds knownIds = new KnownEmployeeIds(true, 0.01, Duration.ofSeconds(60), now::get);
+
+    private static List<List<EmployeeDto>> roster(UUID... ids) {
+        return List.of(List.of(ids).stream()
+                .map(id -> {
+                    EmployeeDto employee = new EmployeeDto();
+                    employee.setId(id);
+                    return employee;
+                })
+                .toList());
+    }
+
+    private void rebuild(UUID... ids) {
+        try (KnownEmployeeIds.Rebuild rebuild = knownIds.startRebuild()) {
+            rebuild.complete(roster(ids));
+        }
+    }
+
+    @Test
+    public void testNothingRuledOutBeforeFirstRebuild() {
+        assertFalse(knownIds.isDefinitelyUnknown(UNKNOWN));
+        assertEquals(0, knownIds.avoidedLookups());
+        assertEquals(0, knownIds.passedLookups());
+    }
+
+    @Test
+    public void testUnknownIdsRuledOut() {
+        rebuild(FETCHED);
+        assertTrue(knownIds.isDefinitelyUnknown(UNKNOWN));
+        assertFalse(knownIds.isDefinitelyUnknown(FETCHED));
+        assertEquals(1, knownIds.avoidedLookups());
+        assertEquals(1, knownIds.passedLookups());
+    }
+
+    @Test
+    public void testCreatedIdsAreKnown() {
+        rebuild(FETCHED);
+        knownIds.add(CREATED);
+        assertFalse(knownIds.isDefinitelyUnknown(CREATED));
+        assertEquals(2, knownIds.size());
+    }
+
+    @Test
+    public void testIdsCreatedDuringFetchSurviveRebuild() {
+        rebuild(FETCHED);
+        try (KnownEmployeeIds.Rebuild rebuild = knownIds.startRebuild()) {
+            knownIds.add(CREATED);
+            rebuild.complete(roster(FETCHED));
+        }
+        assertFalse(knownIds.isDefinitelyUnknown(CREATED));
+    }
+
+    @Test
+    public void testRebuildStartedBeforeInstalledOneIsDropped() {
+        KnownEmployeeIds.Rebuild older = knownIds.startRebuild();
+        rebuild(FETCHED, CREATED);
+        older.complete(roster(FETCHED));
+        older.close();
+        assertFalse(knownIds.isDefinitelyUnknown(CREATED));
+    }
+
+    @Test
+    public void testStaleFilterRulesOutNothing() {
+        rebuild(FETCHED);
+        now.addAndGet(Duration.ofSeconds(60).toNanos());
+        assertFalse(knownIds.isDefinitelyUnknown(UNKNOWN));
+        assertEquals(0, knownIds.avoidedLookups());
+    }
+
+    @Test
+    public void testFalsePositivesCountedForPassedLookups() {
+        rebuild(FETCHED);
+        knownIds.onNotFound(FETCHED);
+        knownIds.onNotFound(UNKNOWN);
+        assertEquals(1, knownIds.falsePositives());
+    }
+
+    @Test
+    public void testDisabledRulesOutNothing() {
+        KnownEmployeeIds disabled = new KnownEmployeeIds(false, 0.01, Duration.ofSeconds(60), now::get);
+        try (KnownEmployeeIds.Rebuild rebuild = disabled.startRebuild()) {
+            rebuild.complete(roster(FETCHED));
+        }
+        assertFalse(disabled.isDefinitelyUnknown(UNKNOWN));
+        assertEquals(0, disabled.size());
+    }
+}
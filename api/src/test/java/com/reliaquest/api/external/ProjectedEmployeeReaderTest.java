@@ -0,0 +1,83 @@
+package com.reliaquest.api.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.reliaquest.api.dto.EmployeeDto;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class ProjectedEmployeeReaderTest {
+
+    private static final UUID ID_1 = UUID.fromString("64550650-a3b9-4ca0-9dc2-80a940a68d50");
+    private static final UUID ID_2 = UUID.fromString("40fae02d-49c2-4f8c-ac23-4878de1e6f63");
+
+    private static final byte[] BODY = ("{\"data\":["
+                    + "{\"id\":\"" + ID_1 + "\",\"employee_name\":\"Nikhil\",\"employee_salary\":70000,"
+                    + "\"employee_age\":30,\"employee_title\":\"Engineer\",\"employee_email\":\"nikhil@company.com\"},"
+                    + "{\"employee_name\":\"Mayuri\",\"employee_salary\":60000,\"id\":\"" + ID_2 + "\","
+                    + "\"employee_title\":null,\"extra\":{\"nested\":[1,2]}}"
+                    + "],\"status\":\"Successfully processed request.\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testReadsOnlyRequestedFields() throws IOException {
+        List<EmployeeDto> employees = ProjectedEmployeeReader.read(
+                BODY, EnumSet.of(ProjectedEmployeeReader.Field.NAME, ProjectedEmployeeReader.Field.SALARY));
+
+        assertEquals(2, employees.size());
+        assertEquals("Nikhil", employees.get(0).getName());
+        assertEquals(70000, employees.get(0).getSalary());
+        assertNull(employees.get(0).getId());
+        assertNull(employees.get(0).getTitle());
+        assertNull(employees.get(0).getEmail());
+        assertEquals("Mayuri", employees.get(1).getName());
+    }
+
+    @Test
+    public void testReadsAllFields() throws IOException {
+        EmployeeDto employee =
+                ProjectedEmployeeReader.read(BODY, ProjectedEmployeeReader.ALL_FIELDS).get(0);
+
+        assertEquals(ID_1, employee.getId());
+        assertEquals(30, employee.getAge());
+        assertEquals("Engineer", employee.getTitle());
+        assertEquals("nikhil@company.com", employee.getEmail());
+    }
+
+    @Test
+    public void testKeepsOnlyWantedIds() throws IOException {
+        List<EmployeeDto> employees =
+                ProjectedEmployeeReader.read(BODY, ProjectedEmployeeReader.ALL_FIELDS, Set.of(ID_2)::contains);
+
+        assertEquals(1, employees.size());
+        assertEquals(ID_2, employees.get(0).getId());
+        assertEquals("Mayuri", employees.get(0).getName());
+        assertNull(employees.get(0).getTitle());
+    }
+
+    @Test
+    public void testMissingOrNullDataReadsAsEmpty() throws IOException {
+        assertTrue(ProjectedEmployeeReader.read(
+                        "{\"data\":null}".getBytes(StandardCharsets.UTF_8), ProjectedEmployeeReader.ALL_FIELDS)
+                .isEmpty());
+        assertTrue(ProjectedEmployeeReader.read(new byte[0], ProjectedEmployeeReader.ALL_FIELDS)
+                .isEmpty());
+    }
+
+    @Test
+    public void testRejectsNonObjectBody() {
+        assertThrows(
+                JsonParseException.class,
+                () -> ProjectedEmployeeReader.read(
+                        "[]".getBytes(StandardCharsets.UTF_8), ProjectedEmployeeReader.ALL_FIELDS));
+    }
+}
@@ -0,0 +1,52 @@
+package com.reliaquest.api.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class UpstreamLatencyTrackerTest {
+
+    @Test
+    public void testPercentileEmptyUntilMinSamples() {
+        UpstreamLatencyTracker tracker = new UpstreamLatencyTracker(8, 3);
+        tracker.record(Duration.ofMillis(10));
+        tracker.record(Duration.ofMillis(20));
+        assertTrue(tracker.percentile(0.5).isEmpty());
+        tracker.record(Duration.ofMillis(30));
+        assertEquals(Duration.ofMillis(20), tracker.percentile(0.5).orElseThrow());
+    }
+
+    @Test
+    public void testPercentiles() {
+        UpstreamLatencyTracker tracker = new UpstreamLatencyTracker(100, 1);
+        for (int millis = 100; millis >= 1; millis--) {
+            tracker.record(Duration.ofMillis(millis));
+        }
+        assertEquals(Duration.ofMillis(95), tracker.percentile(0.95).orElseThrow());
+        assertEquals(Duration.ofMillis(99), tracker.percentile(0.99).orElseThrow());
+        assertEquals(Duration.ofMillis(100), tracker.percentile(1).orElseThrow());
+        assertEquals(Duration.ofMillis(1), tracker.percentile(0).orElseThrow());
+    }
+
+    @Test
+    public void testWindowForgetsOldSamples() {
+        UpstreamLatencyTracker tracker = new UpstreamLatencyTracker(4, 1);
+        for (int i = 0; i < 4; i++) {
+            tracker.record(Duration.ofSeconds(5));
+        }
+        assertEquals(Duration.ofSeconds(5), tracker.percentile(0.99).orElseThrow());
+        for (int i = 0; i < 4; i++) {
+            tracker.record(Duration.ofMillis(10));
+        }
+        assertEquals(Duration.ofMillis(10), tracker.percentile(0.99).orElseThrow());
+    }
+
+    @Test
+    public void testRejectsInvalidWindow() {
+        assertThrows(IllegalArgumentException.class, () -> new UpstreamLatencyTracker(4, 5));
+    }
+}
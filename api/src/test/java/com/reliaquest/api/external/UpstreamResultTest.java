@@ -0,0 +1,71 @@
+package com.reliaquest.api.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.EmployeeServiceIntegrationException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class UpstreamResultTest {
+
+    @Test
+    public void testMapTransformsSuccess() {
+        assertEquals(UpstreamResult.success(6), UpstreamResult.success("Nikhil").map(String::length));
+    }
+
+    @Test
+    public void testMapPassesFailuresThrough() {
+        UpstreamResult<String> throttled = UpstreamResult.throttled("Received too many requests.");
+        UpstreamResult<Integer> mapped = throttled.map(String::length);
+
+        assertTrue(mapped.isThrottled());
+        assertEquals("Received too many requests.", ((UpstreamResult.Failure<Integer>) mapped).message());
+    }
+
+    @Test
+    public void testFlatMapMayFail() {
+        assertEquals(
+                UpstreamResult.success(6),
+                UpstreamResult.success("Nikhil").flatMap(name -> UpstreamResult.success(name.length())));
+        assertEquals(
+                UpstreamResult.notFound("Not found."),
+                UpstreamResult.success("Nikhil").flatMap(name -> UpstreamResult.notFound("Not found.")));
+    }
+
+    @Test
+    public void testFlatMapPassesFailuresThrough() {
+        UpstreamResult<String> failed = UpstreamResult.failed("Upstream failed.");
+
+        assertEquals(UpstreamResult.failed("Upstream failed."), failed.flatMap(name -> UpstreamResult.success(1)));
+    }
+
+    @Test
+    public void testOrElseThrowReturnsValue() {
+        assertEquals("Nikhil", UpstreamResult.success("Nikhil").orElseThrow());
+    }
+
+    @Test
+    public void testOrElseThrowMapsFailuresToExceptions() {
+        EmployeeNotFoundException notFound = assertThrows(
+                EmployeeNotFoundException.class, () -> UpstreamResult.notFound("Employee not found").orElseThrow());
+        assertEquals("Employee not found", notFound.getMessage());
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> UpstreamResult.throttled("Received too many requests.").orElseThrow());
+        assertThrows(
+                EmployeeServiceIntegrationException.class,
+                () -> UpstreamResult.failed("Status code returned: 500").orElseThrow());
+    }
+
+    @Test
+    public void testThrownExceptionsHaveNoStackTrace() {
+        TooManyRequestsException exception = assertThrows(
+                TooManyRequestsException.class,
+                () -> UpstreamResult.throttled("Received too many requests.").orElseThrow());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+}
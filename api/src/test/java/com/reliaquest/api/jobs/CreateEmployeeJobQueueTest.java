@@ -0,0 +1,233 @@
+package com.reliaquest.api.jobs;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.dto.CreateEmployeeJobDto;
+import com.reliaquest.api.dto.CreateEmployeeRequestDto;
+import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.exception.JobNotFoundException;
+import com.reliaquest.api.exception.TooManyRequestsException;
+import com.reliaquest.api.external.EmployeeIntegrationService;
+import com.reliaquest.api.external.UpstreamResult;
+import com.reliaquest.api.roster.EmployeeByIdCache;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.stats.SalaryStatistics;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * @author nikhilchavan
+ */
+@ExtendWith(MockitoExtension.class)
+public class CreateEmployeeJobQueueTest {
+
+    @Mock
+    private EmployeeIntegrationService integrationService;
+
+    @Mock
+    private SalaryStatistics salaryStatistics;
+
+    @Mock
+    private RosterCache rosterCache;
+
+    @Mock
+    private EmployeeByIdCache employeeByIdCache;
+
+    private CreateEmployeeJobQueue jobQueue;
+    private CreateEmployeeRequestDto request;
+    private EmployeeDto employee;
+
+    @BeforeEach
+    public void setUp() {
+        request = new CreateEmployeeRequestDto();
+        request.setName("New Employee");
+        request.setSalary(45000);
+
+        employee = new EmployeeDto();
+        employee.setId(UUID.fromString("64550650-a3b9-4ca0-9dc2-80a940a68d50"));
+        employee.setName("New Employee");
+        employee.setSalary(45000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (jobQueue != null) {
+            jobQueue.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmittedJobSucceeds() {
+        when(integrationService.tryCreateEmployee(request)).thenReturn(UpstreamResult.success(employee));
+        jobQueue = jobQueue(10, 1, 3);
+
+        CreateEmployeeJobDto submitted = jobQueue.submit(request);
+        CreateEmployeeJobDto job = awaitCompletion(submitted.getJobId());
+
+        assertEquals(CreateEmployeeJobDto.Status.SUCCEEDED, job.getStatus());
+        assertEquals(employee, job.getEmployee());
+        assertEquals(1, job.getAttempts());
+        assertNotNull(job.getCompletedAt());
+        verify(salaryStatistics).onCreated(employee);
+        verify(rosterCache).invalidate();
+        verify(employeeByIdCache).put(employee);
+    }
+
+    @Test
+    public void testThrottledJobIsRetriedAfterBackoff() {
+        when(integrationService.tryCreateEmployee(request))
+                .thenReturn(UpstreamResult.throttled("Received too many requests."), UpstreamResult.success(employee));
+        jobQueue = jobQueue(10, 1, 3);
+
+        CreateEmployeeJobDto job = awaitCompletion(jobQueue.submit(request).getJobId());
+
+        assertEquals(CreateEmployeeJobDto.Status.SUCCEEDED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+    }
+
+    @Test
+    public void testJobFailsAfterMaxAttempts() {
+        when(integrationService.tryCreateEmployee(request))
+                .thenReturn(UpstreamResult.throttled("Received too many requests."));
+        jobQueue = jobQueue(10, 1, 2);
+
+        CreateEmployeeJobDto job = awaitCompletion(jobQueue.submit(request).getJobId());
+
+        assertEquals(CreateEmployeeJobDto.Status.FAILED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        verify(salaryStatistics, never()).onCreated(any());
+        verify(employeeByIdCache, never()).put(any());
+    }
+
+    @Test
+    public void testJobFailsWithoutRetryOnError() {
+        when(integrationService.tryCreateEmployee(request))
+                .thenReturn(UpstreamResult.failed("Status code returned: 500"));
+        jobQueue = jobQueue(10, 1, 3);
+
+        CreateEmployeeJobDto job = awaitCompletion(jobQueue.submit(request).getJobId());
+
+        assertEquals(CreateEmployeeJobDto.Status.FAILED, job.getStatus());
+        assertEquals("Status code returned: 500", job.getError());
+        assertEquals(1, job.getAttempts());
+    }
+
+    @Test
+    public void testSubmitRejectedWhenQueueIsFull() {
+        jobQueue = jobQueue(1, 0, 3);
+
+        CreateEmployeeJobDto queued = jobQueue.submit(request);
+        assertEquals(CreateEmployeeJobDto.Status.QUEUED, queued.getStatus());
+        assertThrows(TooManyRequestsException.class, () -> jobQueue.submit(request));
+        verifyNoInteractions(integrationService);
+    }
+
+    @Test
+    public void testGetUnknownJob() {
+        jobQueue = jobQueue(1, 0, 3);
+        assertThrows(JobNotFoundException.class, () -> jobQueue.get(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testOldestFinishedJobsAreDroppedBeyondCap() {
+        when(integrationService.tryCreateEmployee(request)).thenReturn(UpstreamResult.success(employee));
+        jobQueue = jobQueue(10, 1, 3, Duration.ofMinutes(1), 2);
+
+        UUID first = awaitCompletion(jobQueue.submit(request).getJobId()).getJobId();
+        UUID second = awaitCompletion(jobQueue.submit(request).getJobId()).getJobId();
+        UUID third = awaitCompletion(jobQueue.submit(request).getJobId()).getJobId();
+
+        awaitExpiry(first);
+        assertEquals(CreateEmployeeJobDto.Status.SUCCEEDED, jobQueue.get(second).getStatus());
+        assertEquals(CreateEmployeeJobDto.Status.SUCCEEDED, jobQueue.get(third).getStatus());
+    }
+
+    @Test
+    public void testFinishedJobsExpireWithoutFurtherSubmissions() {
+        when(integrationService.tryCreateEmployee(request)).thenReturn(UpstreamResult.success(employee));
+        jobQueue = jobQueue(10, 1, 3, Duration.ofMillis(50), 100);
+
+        UUID jobId = awaitCompletion(jobQueue.submit(request).getJobId()).getJobId();
+
+        // Swept by the idle worker, with nothing else submitted
+        awaitExpiry(jobId);
+    }
+
+    @Test
+    public void testWorkersStartOnlyWhenStarted() {
+        jobQueue = new CreateEmployeeJobQueue(
+                integrationService,
+                salaryStatistics,
+                rosterCache,
+                employeeByIdCache,
+                10,
+                1,
+                3,
+                Duration.ofMillis(1),
+                Duration.ofMillis(10),
+                Duration.ofMinutes(1),
+                100);
+
+        UUID jobId = jobQueue.submit(request).getJobId();
+        verifyNoInteractions(integrationService);
+        when(integrationService.tryCreateEmployee(request)).thenReturn(UpstreamResult.success(employee));
+        jobQueue.start();
+
+        assertEquals(CreateEmployeeJobDto.Status.SUCCEEDED, awaitCompletion(jobId).getStatus());
+    }
+
+    private CreateEmployeeJobQueue jobQueue(int capacity, int workers, int maxAttempts) {
+        return jobQueue(capacity, workers, maxAttempts, Duration.ofMinutes(1), 100);
+    }
+
+    private CreateEmployeeJobQueue jobQueue(
+            int capacity, int workers, int maxAttempts, Duration retention, int maxFinishedJobs) {
+        CreateEmployeeJobQueue created = new CreateEmployeeJobQueue(
+                integrationService,
+                salaryStatistics,
+                rosterCache,
+                employeeByIdCache,
+                capacity,
+                workers,
+                maxAttempts,
+                Duration.ofMillis(1),
+                Duration.ofMillis(10),
+                retention,
+                maxFinishedJobs);
+        created.start();
+        return created;
+    }
+
+    private void awaitExpiry(UUID jobId) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                jobQueue.get(jobId);
+            } catch (JobNotFoundException ex) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        fail("Job " + jobId + " was not dropped");
+    }
+
+    private CreateEmployeeJobDto awaitCompletion(UUID jobId) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            CreateEmployeeJobDto job = jobQueue.get(jobId);
+            if (job.getCompletedAt() != null) {
+                return job;
+            }
+            Thread.onSpinWait();
+        }
+        return fail("Job " + jobId + " did not complete");
+    }
+}
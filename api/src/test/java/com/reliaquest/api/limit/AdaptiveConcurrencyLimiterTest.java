@@ -0,0 +1,100 @@
+package com.reliaquest.api.limit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.limit.AdaptiveConcurrencyLimiter.Priority;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(100).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 2, 100, 0.5, 2.0, Duration.ofMillis(50));
+    }
+
+    @Test
+    public void testRejectsOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(Priority.HIGH) >= 0);
+        }
+        assertEquals(-1, limiter.tryAcquire(Priority.HIGH));
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLowPriorityIsShedFirst() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(Priority.LOW) >= 0);
+        }
+        assertEquals(-1, limiter.tryAcquire(Priority.LOW));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL) >= 0);
+        assertTrue(limiter.tryAcquire(Priority.HIGH) >= 0);
+    }
+
+    @Test
+    public void testFastResponsesUnderLoadRaiseLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        for (int round = 0; round < 20; round++) {
+            long[] permits = new long[4];
+            for (int i = 0; i < 4; i++) {
+                permits[i] = limiter.tryAcquire(Priority.HIGH);
+            }
+            for (long permit : permits) {
+                limiter.release(permit, "getEmployeeById", FAST, false);
+            }
+        }
+        assertTrue(limiter.getLimit() > 4);
+    }
+
+    @Test
+    public void testIdleLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        for (int i = 0; i < 100; i++) {
+            limiter.release(limiter.tryAcquire(Priority.HIGH), "getEmployeeById", FAST, false);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void testSlowResponseCutsLimitOncePerRound() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        limiter.release(limiter.tryAcquire(Priority.HIGH), "getEmployeeById", FAST, false);
+
+        long first = limiter.tryAcquire(Priority.HIGH);
+        long second = limiter.tryAcquire(Priority.HIGH);
+        limiter.release(first, "getEmployeeById", SLOW, false);
+        assertEquals(10, limiter.getLimit());
+        limiter.release(second, "getEmployeeById", SLOW, false);
+        assertEquals(10, limiter.getLimit());
+
+        limiter.release(limiter.tryAcquire(Priority.HIGH), "getEmployeeById", SLOW, false);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    public void testOverloadCutsLimitDownToMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8);
+        for (int i = 0; i < 10; i++) {
+            limiter.release(limiter.tryAcquire(Priority.HIGH), "getAllEmployees", FAST, true);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testBaselineIsPerEndpoint() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        limiter.release(limiter.tryAcquire(Priority.HIGH), "getEmployeeById", FAST, false);
+        limiter.release(limiter.tryAcquire(Priority.LOW), "getAllEmployees", SLOW, false);
+        limiter.release(limiter.tryAcquire(Priority.LOW), "getAllEmployees", SLOW, false);
+        assertEquals(20, limiter.getLimit());
+    }
+}
@@ -0,0 +1,53 @@
+package com.reliaquest.api.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class LogSamplerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private LogSampler logSampler(int sampleEvery, Map<String, Integer> sampleEveryByKey) {
+        return new LogSampler(sampleEvery, sampleEveryByKey, 2, Duration.ofMinutes(1), now::get);
+    }
+
+    @Test
+    public void testSamplesFirstAndEveryNthPerKey() {
+        LogSampler sampler = logSampler(3, Map.of());
+        assertTrue(sampler.sample("getAllEmployees"));
+        assertTrue(sampler.sample("getEmployeeById"));
+        assertFalse(sampler.sample("getAllEmployees"));
+        assertFalse(sampler.sample("getAllEmployees"));
+        assertTrue(sampler.sample("getAllEmployees"));
+    }
+
+    @Test
+    public void testSampleRateOverriddenPerKey() {
+        LogSampler sampler = logSampler(100, Map.of("createEmployee", 1));
+        assertTrue(sampler.sample("createEmployee"));
+        assertTrue(sampler.sample("createEmployee"));
+        assertTrue(sampler.sample("getAllEmployees"));
+        assertFalse(sampler.sample("getAllEmployees"));
+    }
+
+    @Test
+    public void testErrorsRateLimitedAndSuppressedCountReported() {
+        LogSampler sampler = logSampler(1, Map.of());
+        assertEquals(0, sampler.tryLogError("upstream"));
+        assertEquals(0, sampler.tryLogError("upstream"));
+        assertEquals(-1, sampler.tryLogError("upstream"));
+        assertEquals(-1, sampler.tryLogError("upstream"));
+        assertEquals(0, sampler.tryLogError("other"));
+
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertEquals(2, sampler.tryLogError("upstream"));
+        assertEquals(0, sampler.tryLogError("upstream"));
+    }
+}
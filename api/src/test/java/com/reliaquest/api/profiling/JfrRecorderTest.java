@@ -0,0 +1,75 @@
+package com.reliaquest.api.profiling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class JfrRecorderTest {
+
+    private final JfrRecorder recorder = new JfrRecorder(Duration.ofSeconds(5));
+
+    @Test
+    public void testRecordingContainsUpstreamCallEvents() throws Exception {
+        CompletableFuture<byte[]> recording = CompletableFuture.supplyAsync(() -> {
+            try {
+                return recorder.record(Duration.ofMillis(300), "default");
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (!recording.isDone()) {
+            UpstreamCallEvent event = new UpstreamCallEvent();
+            event.begin();
+            event.method = "GET";
+            event.path = "/api/v1/employee";
+            event.status = 200;
+            event.commit();
+            Thread.sleep(10);
+        }
+
+        Path file = Files.createTempFile("jfr-recorder-test-", ".jfr");
+        try {
+            Files.write(file, recording.get());
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent upstreamCall = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.reliaquest.api.UpstreamCall"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals("/api/v1/employee", upstreamCall.getString("path"));
+            assertEquals(200, upstreamCall.getInt("status"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testInvalidRequestsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ZERO, "profile"));
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ofSeconds(6), "profile"));
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ofSeconds(1), "custom"));
+    }
+
+    @Test
+    public void testOneRecordingAtATime() throws Exception {
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return recorder.record(Duration.ofSeconds(1), "default");
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(200);
+        assertThrows(IllegalStateException.class, () -> recorder.record(Duration.ofMillis(100), "default"));
+        assertTrue(first.get().length > 0);
+    }
+}
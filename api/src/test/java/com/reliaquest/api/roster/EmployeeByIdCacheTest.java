@@ -0,0 +1,152 @@
+package com.reliaquest.api.roster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class EmployeeByIdCacheTest {
+
+    private static final UUID ID = UUID.fromString("64550650-a3b9-4ca0-9dc2-80a940a68d50");
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final EmployeeByIdCache cache = new EmployeeByIdCache(true, 100, Duration.ofMinutes(5), now::get);
+
+    private EmployeeDto employeeDto;
+
+    @BeforeEach
+    public void setUp() {
+        employeeDto = new EmployeeDto();
+        employeeDto.setId(ID);
+        employeeDto.setName("Nikhil");
+    }
+
+    private EmployeeDto fetch(UUID id) {
+        fetches.incrementAndGet();
+        return employeeDto;
+    }
+
+    @Test
+    public void testHitServedWithoutFetching() {
+        assertSame(employeeDto, cache.get(ID, this::fetch));
+        assertSame(employeeDto, cache.get(ID, this::fetch));
+        assertEquals(1, fetches.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void testEntriesExpireAfterWrite() {
+        cache.get(ID, this::fetch);
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+        cache.get(ID, this::fetch);
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void testInvalidateForcesFetch() {
+        cache.get(ID, this::fetch);
+        cache.invalidate(ID);
+        cache.get(ID, this::fetch);
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void testFailedFetchIsNotCached() {
+        assertThrows(EmployeeNotFoundException.class, () -> cache.get(ID, id -> {
+            throw new EmployeeNotFoundException("Employee with ID : " + id + " not found.");
+        }));
+        assertSame(employeeDto, cache.get(ID, this::fetch));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testInvalidatedWhileFetchingIsNotCached() {
+        cache.get(ID, id -> {
+            cache.invalidate(id);
+            return fetch(id);
+        });
+        cache.get(ID, this::fetch);
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneFetch() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<EmployeeDto> waiterResult = new AtomicReference<>();
+        Thread fetcher = new Thread(() -> cache.get(ID, id -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return fetch(id);
+        }));
+        fetcher.start();
+        while (cache.stats().missCount() == 0) {
+            Thread.onSpinWait();
+        }
+        Thread waiter = new Thread(() -> waiterResult.set(cache.get(ID, this::fetch)));
+        waiter.start();
+        while (cache.stats().hitCount() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        fetcher.join();
+        waiter.join();
+        assertSame(employeeDto, waiterResult.get());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testCreatedEmployeeIsCached() {
+        cache.put(employeeDto);
+        assertSame(employeeDto, cache.get(ID, this::fetch));
+        assertEquals(0, fetches.get());
+    }
+
+    @Test
+    public void testSeedKeepsCachedEntriesAndStopsAtMaximumSize() {
+        EmployeeByIdCache small = new EmployeeByIdCache(true, 2, Duration.ofMinutes(5), now::get);
+        small.put(employeeDto);
+        EmployeeDto older = new EmployeeDto();
+        older.setId(ID);
+        older.setName("Renamed since");
+        EmployeeDto second = new EmployeeDto();
+        second.setId(UUID.randomUUID());
+        EmployeeDto beyondCap = new EmployeeDto();
+        beyondCap.setId(UUID.randomUUID());
+
+        small.seed(List.of(older, second, beyondCap));
+
+        assertSame(employeeDto, small.get(ID, this::fetch));
+        assertSame(second, small.get(second.getId(), this::fetch));
+        assertEquals(0, fetches.get());
+        assertSame(employeeDto, small.get(beyondCap.getId(), this::fetch));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testDisabledAlwaysFetches() {
+        EmployeeByIdCache disabled = new EmployeeByIdCache(false, 100, Duration.ofMinutes(5), now::get);
+        disabled.put(employeeDto);
+        disabled.get(ID, this::fetch);
+        disabled.get(ID, this::fetch);
+        assertEquals(2, fetches.get());
+    }
+}
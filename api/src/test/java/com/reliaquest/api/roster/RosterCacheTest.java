@@ -0,0 +1,143 @@
+package com.reliaquest.api.roster;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.external.EmployeeIntegrationService;
+import com.reliaquest.api.external.UpstreamResult;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * @author nikhilchavan
+ */
+@ExtendWith(MockitoExtension.class)
+public class RosterCacheTest {
+
+    @Mock
+    private EmployeeIntegrationService integrationService;
+
+    private EmployeeDto employeeDto1;
+    private EmployeeDto employeeDto2;
+
+    @BeforeEach
+    public void setUp() {
+        employeeDto1 = new EmployeeDto();
+        employeeDto1.setName("Nikhil");
+        employeeDto1.setSalary(70000);
+
+        employeeDto2 = new EmployeeDto();
+        employeeDto2.setName("Mayuri");
+        employeeDto2.setSalary(60000);
+    }
+
+    @Test
+    public void testSnapshotIsReusedUntilInvalidated() {
+        when(integrationService.getAllEmployeesByShard())
+                .thenReturn(UpstreamResult.success(List.of(List.of(employeeDto1))));
+        RosterCache rosterCache = new RosterCache(integrationService, Duration.ofMinutes(1));
+
+        RosterCache.Snapshot first = rosterCache.get().orElseThrow();
+        assertSame(first, rosterCache.get().orElseThrow());
+
+        rosterCache.invalidate();
+        RosterCache.Snapshot second = rosterCache.get().orElseThrow();
+        assertNotSame(first, second);
+        assertTrue(second.version() > first.version());
+        verify(integrationService, times(2)).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testZeroMaxAgeFetchesEveryTime() {
+        when(integrationService.getAllEmployeesByShard())
+                .thenReturn(UpstreamResult.success(List.of(List.of(employeeDto1))));
+        RosterCache rosterCache = new RosterCache(integrationService, Duration.ZERO);
+
+        rosterCache.get();
+        rosterCache.get();
+        verify(integrationService, times(2)).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testFailedFetchIsNotCached() {
+        when(integrationService.getAllEmployeesByShard())
+                .thenReturn(
+                        UpstreamResult.throttled("Received too many requests."),
+                        UpstreamResult.success(List.of(List.of(employeeDto1))));
+        RosterCache rosterCache = new RosterCache(integrationService, Duration.ofMinutes(1));
+
+        assertTrue(rosterCache.get().isThrottled());
+        assertEquals(List.of(employeeDto1), rosterCache.get().orElseThrow().employees());
+        verify(integrationService, times(2)).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneFetch() throws InterruptedException {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(integrationService.getAllEmployeesByShard()).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await();
+            return UpstreamResult.success(List.of(List.of(employeeDto1)));
+        });
+        RosterCache rosterCache = new RosterCache(integrationService, Duration.ofMinutes(1));
+
+        AtomicReference<RosterCache.Snapshot> first = new AtomicReference<>();
+        Thread leader = new Thread(() -> first.set(rosterCache.get().orElseThrow()));
+        leader.start();
+        fetching.await();
+        AtomicReference<RosterCache.Snapshot> second = new AtomicReference<>();
+        Thread follower = new Thread(() -> second.set(rosterCache.get().orElseThrow()));
+        follower.start();
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertSame(first.get(), second.get());
+        verify(integrationService, times(1)).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testInvalidateDoesNotWaitForFetchNorLetItBeCached() throws InterruptedException {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(integrationService.getAllEmployeesByShard())
+                .thenAnswer(invocation -> {
+                    fetching.countDown();
+                    release.await();
+                    return UpstreamResult.success(List.of(List.of(employeeDto1)));
+                })
+                .thenReturn(UpstreamResult.success(List.of(List.of(employeeDto1, employeeDto2))));
+        RosterCache rosterCache = new RosterCache(integrationService, Duration.ofMinutes(1));
+
+        AtomicReference<RosterCache.Snapshot> stale = new AtomicReference<>();
+        Thread fetch = new Thread(() -> stale.set(rosterCache.get().orElseThrow()));
+        fetch.start();
+        fetching.await();
+        assertTimeoutPreemptively(Duration.ofSeconds(1), rosterCache::invalidate);
+        release.countDown();
+        fetch.join();
+
+        // The fetch that began before the write answers its own caller, but is not served afterwards
+        assertEquals(List.of(employeeDto1), stale.get().employees());
+        assertEquals(List.of(employeeDto1, employeeDto2), rosterCache.get().orElseThrow().employees());
+        verify(integrationService, times(2)).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testSnapshotFlattensShards() {
+        RosterCache.Snapshot snapshot =
+                new RosterCache.Snapshot(1, List.of(List.of(employeeDto1), List.of(employeeDto2)));
+
+        assertEquals(List.of(employeeDto1, employeeDto2), snapshot.employees());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.employees().clear());
+    }
+}
@@ -3,18 +3,29 @@ package com.reliaquest.api.service.impl;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.reliaquest.api.dto.CreateEmployeeJobDto;
 import com.reliaquest.api.dto.CreateEmployeeRequestDto;
 import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.dto.EmployeeFilterDto;
+import com.reliaquest.api.dto.SalaryDistributionDto;
+import com.reliaquest.api.encoding.PreEncodedList;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.exception.EmployeeServiceIntegrationException;
 import com.reliaquest.api.external.EmployeeIntegrationService;
+import com.reliaquest.api.external.UpstreamResult;
+import com.reliaquest.api.jobs.CreateEmployeeJobQueue;
+import com.reliaquest.api.roster.EmployeeByIdCache;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.stats.SalaryStatistics;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.OptionalInt;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -27,7 +38,12 @@ public class EmployeeServiceTest {
     @Mock
     private EmployeeIntegrationService integrationService;
 
-    @InjectMocks
+    @Mock
+    private SalaryStatistics salaryStatistics;
+
+    @Mock
+    private CreateEmployeeJobQueue createEmployeeJobs;
+
     private EmployeeService employeeService;
 
     private EmployeeDto employeeDto1;
@@ -39,6 +55,8 @@ public class EmployeeServiceTest {
 
     @BeforeEach
     public void setUp() {
+        employeeService = employeeService(Duration.ZERO);
+
         // Setup test data
         validUUIDString = "64550650-a3b9-4ca0-9dc2-80a940a68d50";
         validUUID = UUID.fromString(validUUIDString);
@@ -60,31 +78,74 @@ public class EmployeeServiceTest {
         createEmployeeRequestDto.setSalary(45000);
     }
 
+    private EmployeeService employeeService(Duration rosterMaxAge) {
+        return new EmployeeService(
+                integrationService,
+                salaryStatistics,
+                createEmployeeJobs,
+                new RosterCache(integrationService, rosterMaxAge),
+                new EmployeeByIdCache(true, 100, Duration.ofMinutes(5), System::nanoTime));
+    }
+
     @Test
     public void testGetAllEmployeesSuccess() {
-        when(integrationService.getAllEmployees()).thenReturn(employeeDtoList);
+        when(integrationService.getAllEmployeesByShard()).thenReturn(UpstreamResult.success(List.of(employeeDtoList)));
         List<EmployeeDto> result = employeeService.getAllEmployees();
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(integrationService, times(1)).getAllEmployees();
+        verify(integrationService, times(1)).getAllEmployeesByShard();
     }
 
     @Test
     public void testGetAllEmployeesIntegrationServiceThrowsException() {
-        when(integrationService.getAllEmployees()).thenThrow(new RuntimeException("Integration service error"));
+        when(integrationService.getAllEmployeesByShard())
+                .thenThrow(new RuntimeException("Integration service error"));
         assertThrows(RuntimeException.class, () -> employeeService.getAllEmployees());
-        verify(integrationService, times(1)).getAllEmployees();
+        verify(integrationService, times(1)).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testGetAllEmployeesReusesCachedRoster() {
+        EmployeeService cachingService = employeeService(Duration.ofMinutes(1));
+        when(integrationService.getAllEmployeesByShard()).thenReturn(UpstreamResult.success(List.of(employeeDtoList)));
+        List<EmployeeDto> first = cachingService.getAllEmployees();
+        List<EmployeeDto> second = cachingService.getAllEmployees();
+        assertEquals(2, second.size());
+        assertEquals(
+                ((PreEncodedList<EmployeeDto>) first).version(), ((PreEncodedList<EmployeeDto>) second).version());
+        verify(integrationService, times(1)).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testCreateEmployeeInvalidatesCachedRoster() {
+        EmployeeService cachingService = employeeService(Duration.ofMinutes(1));
+        when(integrationService.getAllEmployeesByShard()).thenReturn(UpstreamResult.success(List.of(employeeDtoList)));
+        when(integrationService.createEmployee(createEmployeeRequestDto))
+                .thenReturn(UpstreamResult.success(employeeDto1));
+        long before = ((PreEncodedList<EmployeeDto>) cachingService.getAllEmployees()).version();
+        cachingService.createEmployee(createEmployeeRequestDto);
+        long after = ((PreEncodedList<EmployeeDto>) cachingService.getAllEmployees()).version();
+        assertNotEquals(before, after);
+        verify(integrationService, times(2)).getAllEmployeesByShard();
     }
 
     @Test
     public void testGetEmployeeByIdSuccess() {
-        when(integrationService.getEmployeeById(validUUID)).thenReturn(employeeDto1);
+        when(integrationService.getEmployeeById(validUUID)).thenReturn(UpstreamResult.success(employeeDto1));
         EmployeeDto result = employeeService.getEmployeeById(validUUIDString);
         assertNotNull(result);
         assertEquals("Nikhil", result.getName());
         verify(integrationService, times(1)).getEmployeeById(validUUID);
     }
 
+    @Test
+    public void testGetEmployeeByIdServedFromCache() {
+        when(integrationService.getEmployeeById(validUUID)).thenReturn(UpstreamResult.success(employeeDto1));
+        assertEquals("Nikhil", employeeService.getEmployeeById(validUUIDString).getName());
+        assertEquals("Nikhil", employeeService.getEmployeeById(validUUIDString).getName());
+        verify(integrationService, times(1)).getEmployeeById(validUUID);
+    }
+
     @Test
     public void testGetEmployeeByIdInvalidUUIDFormat() {
         String invalidUUID = "abcd";
@@ -107,7 +168,7 @@ public class EmployeeServiceTest {
     @Test
     public void testCreateEmployeeSuccess() {
         when(integrationService.createEmployee(any(CreateEmployeeRequestDto.class)))
-                .thenReturn(employeeDto1);
+                .thenReturn(UpstreamResult.success(employeeDto1));
         EmployeeDto result = employeeService.createEmployee(createEmployeeRequestDto);
         assertNotNull(result);
         assertEquals("Nikhil", result.getName());
@@ -122,91 +183,221 @@ public class EmployeeServiceTest {
         verify(integrationService, times(1)).createEmployee(createEmployeeRequestDto);
     }
 
+    @Test
+    public void testSubmitCreateEmployeeQueuesJob() {
+        CreateEmployeeJobDto job = new CreateEmployeeJobDto();
+        job.setJobId(validUUID);
+        job.setStatus(CreateEmployeeJobDto.Status.QUEUED);
+        when(createEmployeeJobs.submit(createEmployeeRequestDto)).thenReturn(job);
+        assertEquals(job, employeeService.submitCreateEmployee(createEmployeeRequestDto));
+        verifyNoInteractions(integrationService);
+    }
+
+    @Test
+    public void testGetCreateEmployeeJob() {
+        CreateEmployeeJobDto job = new CreateEmployeeJobDto();
+        job.setJobId(validUUID);
+        when(createEmployeeJobs.get(validUUID)).thenReturn(job);
+        assertEquals(job, employeeService.getCreateEmployeeJob(validUUIDString));
+    }
+
+    @Test
+    public void testGetCreateEmployeeJobInvalidId() {
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getCreateEmployeeJob("invalid-id"));
+        verifyNoInteractions(createEmployeeJobs);
+    }
+
     @Test
     public void testDeleteEmployeeByIdSuccess() {
-        when(integrationService.getEmployeeById(validUUID)).thenReturn(employeeDto1);
-        when(integrationService.deleteEmployeeByName("Nikhil")).thenReturn(true);
+        when(integrationService.getEmployeeById(validUUID)).thenReturn(UpstreamResult.success(employeeDto1));
+        when(integrationService.deleteEmployee(validUUID, "Nikhil")).thenReturn(UpstreamResult.success(true));
         String result = employeeService.deleteEmployeeById(validUUIDString);
         assertNotNull(result);
         assertEquals("Nikhil", result);
         verify(integrationService, times(1)).getEmployeeById(validUUID);
-        verify(integrationService, times(1)).deleteEmployeeByName("Nikhil");
+        verify(integrationService, times(1)).deleteEmployee(validUUID, "Nikhil");
+    }
+
+    @Test
+    public void testDeleteEmployeeByIdInvalidatesCachedEmployee() {
+        when(integrationService.getEmployeeById(validUUID)).thenReturn(UpstreamResult.success(employeeDto1));
+        when(integrationService.deleteEmployee(validUUID, "Nikhil")).thenReturn(UpstreamResult.success(true));
+        employeeService.getEmployeeById(validUUIDString);
+        employeeService.deleteEmployeeById(validUUIDString);
+        employeeService.getEmployeeById(validUUIDString);
+        // Cached by the first lookup, fetched again by the delete and once more after it
+        verify(integrationService, times(3)).getEmployeeById(validUUID);
+    }
+
+    @Test
+    public void testDeleteEmployeeByIdIgnoresStaleCachedName() {
+        EmployeeDto renamed = new EmployeeDto();
+        renamed.setId(validUUID);
+        renamed.setName("Nikhil Chavan");
+        when(integrationService.getEmployeeById(validUUID))
+                .thenReturn(UpstreamResult.success(employeeDto1), UpstreamResult.success(renamed));
+        when(integrationService.deleteEmployee(validUUID, "Nikhil Chavan")).thenReturn(UpstreamResult.success(true));
+        employeeService.getEmployeeById(validUUIDString);
+
+        assertEquals("Nikhil Chavan", employeeService.deleteEmployeeById(validUUIDString));
+        verify(integrationService, never()).deleteEmployee(validUUID, "Nikhil");
     }
 
     @Test
     public void testDeleteEmployeeByIdDeleteReturnsFalse() {
-        when(integrationService.getEmployeeById(validUUID)).thenReturn(employeeDto1);
-        when(integrationService.deleteEmployeeByName("Nikhil")).thenReturn(false);
+        when(integrationService.getEmployeeById(validUUID)).thenReturn(UpstreamResult.success(employeeDto1));
+        when(integrationService.deleteEmployee(validUUID, "Nikhil")).thenReturn(UpstreamResult.success(false));
         EmployeeNotFoundException exception = assertThrows(
                 EmployeeNotFoundException.class, () -> employeeService.deleteEmployeeById(validUUIDString));
         assertEquals("Employee with id: " + validUUIDString + " not found", exception.getMessage());
         verify(integrationService, times(1)).getEmployeeById(validUUID);
-        verify(integrationService, times(1)).deleteEmployeeByName("Nikhil");
+        verify(integrationService, times(1)).deleteEmployee(validUUID, "Nikhil");
     }
 
     @Test
     public void testDeleteEmployeeByIdGetEmployeeByIdThrowsException() {
         when(integrationService.getEmployeeById(validUUID))
-                .thenThrow(new EmployeeNotFoundException("Employee not found"));
+                .thenReturn(UpstreamResult.notFound("Employee not found"));
         assertThrows(EmployeeNotFoundException.class, () -> employeeService.deleteEmployeeById(validUUIDString));
         verify(integrationService, times(1)).getEmployeeById(validUUID);
-        verify(integrationService, never()).deleteEmployeeByName(anyString());
+        verify(integrationService, never()).deleteEmployee(any(UUID.class), anyString());
     }
 
     @Test
     public void testGetTopTenHighestEarningEmployeeNamesSuccess() {
-        List<EmployeeDto> employees = Arrays.asList(employeeDto1, employeeDto2);
-        when(integrationService.getAllEmployees()).thenReturn(employees);
+        when(integrationService.getTopEarners(10))
+                .thenReturn(UpstreamResult.success(List.of(employeeDto1, employeeDto2)));
         List<String> result = employeeService.getTopTenHighestEarningEmployeeNames();
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Nikhil", result.get(0));
-        assertEquals("Mayuri", result.get(1));
-        verify(integrationService, times(1)).getAllEmployees();
+        assertEquals(List.of("Nikhil", "Mayuri"), result);
+        verify(integrationService, never()).getAllEmployeesByShard();
     }
 
     @Test
     public void testGetTopTenHighestEarningEmployeeNamesIntegrationServiceThrowsException() {
-        when(integrationService.getAllEmployees())
-                .thenThrow(new EmployeeServiceIntegrationException("Integration service failed"));
+        when(integrationService.getTopEarners(10)).thenReturn(UpstreamResult.failed("Integration service failed"));
         assertThrows(
                 EmployeeServiceIntegrationException.class,
                 () -> employeeService.getTopTenHighestEarningEmployeeNames());
-        verify(integrationService, times(1)).getAllEmployees();
+        verify(integrationService, times(1)).getTopEarners(10);
     }
 
     @Test
     public void testSearchEmployeesByNameSuccess() {
-        when(integrationService.getAllEmployees()).thenReturn(employeeDtoList);
+        when(integrationService.searchEmployeesByName("Nikhil"))
+                .thenReturn(UpstreamResult.success(List.of(employeeDto1)));
         List<EmployeeDto> result = employeeService.searchEmployeesByName("Nikhil");
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Nikhil", result.get(0).getName());
-        verify(integrationService, times(1)).getAllEmployees();
+        verify(integrationService, never()).getAllEmployeesByShard();
     }
 
     @Test
     public void testSearchEmployeesByNameIntegrationServiceThrowsException() {
-        when(integrationService.getAllEmployees())
-                .thenThrow(new EmployeeServiceIntegrationException("Integration service failed"));
+        when(integrationService.searchEmployeesByName("Nikhil"))
+                .thenReturn(UpstreamResult.failed("Integration service failed"));
         assertThrows(EmployeeServiceIntegrationException.class, () -> employeeService.searchEmployeesByName("Nikhil"));
-        verify(integrationService, times(1)).getAllEmployees();
+        verify(integrationService, times(1)).searchEmployeesByName("Nikhil");
+    }
+
+    @Test
+    public void testSearchEmployeesByNameBlank() {
+        assertThrows(IllegalArgumentException.class, () -> employeeService.searchEmployeesByName(" "));
+        verifyNoInteractions(integrationService);
+    }
+
+    @Test
+    public void testExportEmployeesStreamsFromIntegrationService() {
+        when(integrationService.exportEmployees())
+                .thenReturn(UpstreamResult.success(Stream.of(employeeDto1, employeeDto2)));
+        try (Stream<EmployeeDto> employees = employeeService.exportEmployees()) {
+            assertEquals(List.of(employeeDto1, employeeDto2), employees.toList());
+        }
+        verify(integrationService, never()).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testExportEmployeesIntegrationServiceThrowsException() {
+        when(integrationService.exportEmployees()).thenReturn(UpstreamResult.failed("Integration service failed"));
+        assertThrows(EmployeeServiceIntegrationException.class, () -> employeeService.exportEmployees());
     }
 
     @Test
     public void testGetHighestSalaryOfEmployees_Success() {
-        when(integrationService.getAllEmployees()).thenReturn(employeeDtoList);
+        when(integrationService.getHighestSalary()).thenReturn(UpstreamResult.success(OptionalInt.of(70000)));
         Integer result = employeeService.getHighestSalaryOfEmployees();
         assertNotNull(result);
         assertEquals(Integer.valueOf(70000), result);
-        verify(integrationService, times(1)).getAllEmployees();
+        verify(integrationService, never()).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testGetHighestSalaryOfEmployeesWithoutSalaries() {
+        when(integrationService.getHighestSalary()).thenReturn(UpstreamResult.success(OptionalInt.empty()));
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getHighestSalaryOfEmployees());
     }
 
     @Test
     public void testGetHighestSalaryOfEmployeesIntegrationServiceThrowsException() {
-        when(integrationService.getAllEmployees())
-                .thenThrow(new EmployeeServiceIntegrationException("Integration service failed"));
+        when(integrationService.getHighestSalary()).thenReturn(UpstreamResult.failed("Integration service failed"));
         assertThrows(EmployeeServiceIntegrationException.class, () -> employeeService.getHighestSalaryOfEmployees());
-        verify(integrationService, times(1)).getAllEmployees();
+        verify(integrationService, times(1)).getHighestSalary();
+    }
+
+    @Test
+    public void testFilterEmployeesIsPushedDown() {
+        EmployeeFilterDto filter = new EmployeeFilterDto();
+        filter.setMinSalary(65000);
+        filter.setTitle("Engineer");
+        when(integrationService.filterEmployees(filter)).thenReturn(UpstreamResult.success(List.of(employeeDto1)));
+        assertEquals(List.of(employeeDto1), employeeService.filterEmployees(filter));
+        verify(integrationService, never()).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testFilterEmployeesInvertedRange() {
+        EmployeeFilterDto filter = new EmployeeFilterDto();
+        filter.setMinAge(40);
+        filter.setMaxAge(30);
+        assertThrows(IllegalArgumentException.class, () -> employeeService.filterEmployees(filter));
+        verifyNoInteractions(integrationService);
+    }
+
+    @Test
+    public void testGetSalaryDistributionRebuildsStaleStatistics() {
+        SalaryDistributionDto distribution = new SalaryDistributionDto();
+        when(salaryStatistics.isStale()).thenReturn(true);
+        when(integrationService.getAllEmployeesByShard()).thenReturn(UpstreamResult.success(List.of(employeeDtoList)));
+        when(salaryStatistics.distribution(10)).thenReturn(distribution);
+        assertSame(distribution, employeeService.getSalaryDistribution(10));
+        verify(salaryStatistics, times(1)).rebuild(employeeDtoList);
+    }
+
+    @Test
+    public void testGetSalaryDistributionSkipsFetchWhenFresh() {
+        when(salaryStatistics.isStale()).thenReturn(false);
+        when(salaryStatistics.distribution(5)).thenReturn(new SalaryDistributionDto());
+        assertNotNull(employeeService.getSalaryDistribution(5));
+        verify(integrationService, never()).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testGetSalaryDistributionInvalidBuckets() {
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getSalaryDistribution(0));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getSalaryDistribution(101));
+    }
+
+    @Test
+    public void testCreateAndDeleteUpdateSalaryStatistics() {
+        when(integrationService.createEmployee(any(CreateEmployeeRequestDto.class)))
+                .thenReturn(UpstreamResult.success(employeeDto1));
+        when(integrationService.getEmployeeById(validUUID)).thenReturn(UpstreamResult.success(employeeDto1));
+        when(integrationService.deleteEmployee(validUUID, "Nikhil")).thenReturn(UpstreamResult.success(true));
+        employeeService.createEmployee(createEmployeeRequestDto);
+        employeeService.deleteEmployeeById(validUUIDString);
+        verify(salaryStatistics, times(1)).onCreated(employeeDto1);
+        verify(salaryStatistics, times(1)).onDeleted(employeeDto1);
+        // Cached by the create, yet looked up again: the delete never trusts a cached name
+        verify(integrationService, times(1)).getEmployeeById(validUUID);
     }
 }
@@ -0,0 +1,115 @@
+package com.reliaquest.api.startup;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.dto.EmployeeDto;
+import com.reliaquest.api.exception.EmployeeServiceIntegrationException;
+import com.reliaquest.api.external.EmployeeIntegrationService;
+import com.reliaquest.api.external.UpstreamResult;
+import com.reliaquest.api.jobs.CreateEmployeeJobQueue;
+import com.reliaquest.api.roster.EmployeeByIdCache;
+import com.reliaquest.api.roster.RosterCache;
+import com.reliaquest.api.service.IEmployeeService;
+import com.reliaquest.api.service.impl.EmployeeService;
+import com.reliaquest.api.stats.SalaryStatistics;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * @author nikhilchavan
+ */
+@ExtendWith(MockitoExtension.class)
+public class CacheWarmUpTest {
+
+    @Mock
+    private IEmployeeService employeeService;
+
+    @Mock
+    private EmployeeIntegrationService integrationService;
+
+    @Mock
+    private SalaryStatistics salaryStatistics;
+
+    @Mock
+    private CreateEmployeeJobQueue createEmployeeJobs;
+
+    private final EmployeeByIdCache employeeByIdCache =
+            new EmployeeByIdCache(true, 100, Duration.ofMinutes(5), System::nanoTime);
+
+    private CacheWarmUp warmUp(boolean enabled, Duration budget) {
+        return new CacheWarmUp(employeeService, employeeByIdCache, enabled, budget);
+    }
+
+    @Test
+    public void testWarmUpFetchesRoster() {
+        when(employeeService.getAllEmployees()).thenReturn(List.of());
+
+        warmUp(true, Duration.ofSeconds(5)).run(null);
+
+        verify(employeeService).getAllEmployees();
+    }
+
+    @Test
+    public void testFirstLookupByIdAfterWarmUpMakesNoUpstreamCall() {
+        EmployeeDto employee = new EmployeeDto();
+        employee.setId(UUID.fromString("64550650-a3b9-4ca0-9dc2-80a940a68d50"));
+        employee.setName("Nikhil");
+        when(integrationService.getAllEmployeesByShard())
+                .thenReturn(UpstreamResult.success(List.of(List.of(employee))));
+        // A zero maximum age stands in for the default one second having passed since the warm-up
+        EmployeeService realService = new EmployeeService(
+                integrationService,
+                salaryStatistics,
+                createEmployeeJobs,
+                new RosterCache(integrationService, Duration.ZERO),
+                employeeByIdCache);
+
+        new CacheWarmUp(realService, employeeByIdCache, true, Duration.ofSeconds(5)).run(null);
+
+        assertSame(employee, realService.getEmployeeById(employee.getId().toString()));
+        verify(integrationService, never()).getEmployeeById(any());
+        verify(integrationService, times(1)).getAllEmployeesByShard();
+    }
+
+    @Test
+    public void testDisabledWarmUpDoesNothing() {
+        warmUp(false, Duration.ofSeconds(5)).run(null);
+
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    public void testFailedWarmUpDoesNotFailStartup() {
+        when(employeeService.getAllEmployees())
+                .thenThrow(new EmployeeServiceIntegrationException("Status code returned: 500"));
+
+        assertDoesNotThrow(() -> warmUp(true, Duration.ofSeconds(5)).run(null));
+    }
+
+    @Test
+    public void testWarmUpIsAbandonedAfterBudget() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(employeeService.getAllEmployees()).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+
+        long start = System.nanoTime();
+        warmUp(true, Duration.ofMillis(50)).run(null);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,97 @@
+package com.reliaquest.api.stats;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class SalarySketchTest {
+
+    private static final double ACCURACY = 0.01;
+
+    private static void assertWithinAccuracy(int expected, int actual) {
+        assertTrue(
+                Math.abs(actual - expected) <= Math.ceil(expected * ACCURACY) + 1,
+                "expected ~" + expected + " but was " + actual);
+    }
+
+    @Test
+    public void testEmptySketch() {
+        SalarySketch sketch = new SalarySketch(ACCURACY);
+        assertEquals(0, sketch.count());
+        assertTrue(sketch.min().isEmpty());
+        assertTrue(sketch.quantile(0.5).isEmpty());
+        assertEquals(0, Arrays.stream(sketch.histogram(4)).sum());
+    }
+
+    @Test
+    public void testQuantilesWithinRelativeAccuracy() {
+        SalarySketch sketch = new SalarySketch(ACCURACY);
+        int[] salaries = new Random(42).ints(100_000, 30000, 500000).toArray();
+        for (int salary : salaries) {
+            sketch.add(salary);
+        }
+        int[] sorted = salaries.clone();
+        Arrays.sort(sorted);
+
+        assertEquals(salaries.length, sketch.count());
+        assertEquals(sorted[0], sketch.min().getAsInt());
+        assertEquals(sorted[sorted.length - 1], sketch.max().getAsInt());
+        assertEquals(Arrays.stream(salaries).average().getAsDouble(), sketch.mean(), 1e-6);
+        for (double quantile : new double[] {0.5, 0.9, 0.99}) {
+            int expected = sorted[(int) (quantile * (sorted.length - 1))];
+            assertWithinAccuracy(expected, sketch.quantile(quantile).getAsInt());
+        }
+    }
+
+    @Test
+    public void testRemoveUndoesAdd() {
+        SalarySketch sketch = new SalarySketch(ACCURACY);
+        sketch.add(50000);
+        sketch.add(60000);
+        sketch.add(400000);
+        assertTrue(sketch.remove(400000));
+        assertFalse(sketch.remove(1000000));
+
+        assertEquals(2, sketch.count());
+        assertEquals(55000, sketch.mean(), 1e-9);
+        assertWithinAccuracy(60000, sketch.max().getAsInt());
+        assertWithinAccuracy(60000, sketch.quantile(1).getAsInt());
+    }
+
+    @Test
+    public void testMergeMatchesSingleSketch() {
+        SalarySketch left = new SalarySketch(ACCURACY);
+        SalarySketch right = new SalarySketch(ACCURACY);
+        SalarySketch all = new SalarySketch(ACCURACY);
+        for (int salary = 30000; salary < 300000; salary += 1000) {
+            (salary % 2000 == 0 ? left : right).add(salary);
+            all.add(salary);
+        }
+        left.merge(right);
+        assertEquals(all.count(), left.count());
+        assertEquals(all.min(), left.min());
+        assertEquals(all.max(), left.max());
+        assertEquals(all.quantile(0.9), left.quantile(0.9));
+        assertArrayEquals(all.histogram(5), left.histogram(5));
+    }
+
+    @Test
+    public void testHistogramCountsEverySalary() {
+        SalarySketch sketch = new SalarySketch(ACCURACY);
+        for (int salary = 100000; salary <= 200000; salary += 100) {
+            sketch.add(salary);
+        }
+        long[] histogram = sketch.histogram(4);
+        assertEquals(sketch.count(), Arrays.stream(histogram).sum());
+        assertEquals(100000, sketch.binBound(0, 4));
+        assertEquals(200000, sketch.binBound(4, 4));
+        for (long bin : histogram) {
+            assertTrue(Math.abs(bin - sketch.count() / 4) < sketch.count() / 20, Arrays.toString(histogram));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+#!/usr/bin/env bash
+#
+# Compares startup time and resident memory of a module across launch modes and writes the results to
+# docs/startup-<module>.md, so measuring one module leaves the other's results alone.
+#
+#   scripts/measure-startup.sh [module] [runs]
+#
+# Everything is built with -Paot, so one jar serves both the plain and the AOT run; the default build skips AOT
+# processing. Modes: plain boot jar, boot jar with AOT initialization, CDS archive (+ AOT) and, when it has been built
+# with ./gradlew -Pnative :<module>:nativeCompile, the native image. Startup time is the "Started ... in N seconds"
+# figure Spring Boot logs; RSS is read from /proc once the application has started. Linux only.
+set -euo pipefail
+
+module="${1:-server}"
+runs="${2:-5}"
+root="$(cd "$(dirname "$0")/.." && pwd)"
+out="$root/docs/startup-$module.md"
+log="$(mktemp)"
+trap 'rm -f "$log"' EXIT
+
+cd "$root"
+mkdir -p docs
+./gradlew -q -Paot ":$module:bootJar"
+./gradlew -q -Paot ":$module:cdsArchive"
+
+jar="$(ls "$module"/build/libs/"$module"-*.jar | grep -v -e '-plain' -e '-cds' | head -n 1)"
+cds_cp="$(./gradlew -q -Paot ":$module:printCdsClasspath")"
+native="$module/build/native/nativeCompile/$module"
+main_class="$(unzip -p "$jar" META-INF/MANIFEST.MF | sed -n 's/^Start-Class: *//p' | tr -d '\r')"
+
+# Starts the command, waits for the startup line and prints "<seconds> <rss MiB>".
+measure() {
+    "$@" >"$log" 2>&1 &
+    local pid=$!
+    local seconds=""
+    for _ in $(seq 1 600); do
+        seconds="$(sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' "$log" | head -n 1)"
+        [[ -n "$seconds" ]] && break
+        kill -0 "$pid" 2>/dev/null || break
+        sleep 0.1
+    done
+    local rss_kib
+    rss_kib="$(awk '/^VmRSS:/ {print $2}' "/proc/$pid/status" 2>/dev/null || echo 0)"
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    if [[ -z "$seconds" ]]; then
+        echo "startup failed, see output below" >&2
+        cat "$log" >&2
+        exit 1
+    fi
+    echo "$seconds $((rss_kib / 1024))"
+}
+
+# Runs a mode $runs times and prints a markdown table row with median startup time and RSS.
+row() {
+    local name="$1"
+    shift
+    local results=()
+    for _ in $(seq 1 "$runs"); do
+        results+=("$(measure "$@")")
+    done
+    local median=$(((runs + 1) / 2))
+    local seconds rss
+    seconds="$(printf '%s\n' "${results[@]}" | awk '{print $1}' | sort -n | sed -n "${median}p")"
+    rss="$(printf '%s\n' "${results[@]}" | awk '{print $2}' | sort -n | sed -n "${median}p")"
+    echo "| $name | $seconds | $rss |"
+}
+
+rows=()
+rows+=("$(row "boot jar" java -jar "$jar")")
+rows+=("$(row "boot jar + AOT" java -Dspring.aot.enabled=true -jar "$jar")")
+rows+=("$(row "CDS + AOT" java -XX:SharedArchiveFile="$module/build/cds/application.jsa" \
+    -Dspring.aot.enabled=true -cp "$cds_cp" "$main_class")")
+if [[ -x "$native" ]]; then
+    rows+=("$(row "native image" "$native")")
+fi
+
+{
+    echo "# Startup comparison: $module"
+    echo
+    echo "Generated by \`scripts/measure-startup.sh $module $runs\`; median of $runs runs."
+    echo
+    echo "- Date: $(date -u +%Y-%m-%d)"
+    echo "- JVM: $(java -version 2>&1 | head -n 1)"
+    echo "- Host: $(uname -srm), $(nproc) CPUs"
+    echo
+    echo "| Mode ($module) | Startup (s) | RSS after startup (MiB) |"
+    echo "|---|---|---|"
+    printf '%s\n' "${rows[@]}"
+} >"$out"
+
+cat "$out"
@@ -0,0 +1,83 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.store.MockEmployeeRoster;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import net.datafaker.Faker;
+
+/**
+ * Generates a roster that is fully determined by a seed, in parallel across cores.
+ * <p>
+ * The roster is split into fixed-size chunks and every chunk reseeds the generating thread's own {@link Faker} from
+ * {@code (seed, chunk index)}, so the output does not depend on how chunks are scheduled onto threads. Employees are
+ * appended straight into roster columns, without the reflective {@code JavaObjectTransformer}.
+ */
+@RequiredArgsConstructor
+public class MockEmployeeRosterGenerator {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final Locale locale;
+    private final long seed;
+
+    public MockEmployeeRoster generate(int employees) {
+        final var fakers = ThreadLocal.withInitial(() -> new SeededFaker(locale));
+        final var chunks = IntStream.range(0, (employees + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .parallel()
+                .mapToObj(chunk -> fakers.get()
+                        .generate(chunkSeed(chunk), Math.min(CHUNK_SIZE, employees - chunk * CHUNK_SIZE)))
+                .toList();
+        final var roster = new MockEmployeeRoster(employees);
+        chunks.forEach(roster::addAll);
+        roster.trimToSize();
+        return roster;
+    }
+
+    /*
+     * SplitMix64 finalizer, so neighbouring chunks get unrelated seeds.
+     */
+    private long chunkSeed(int chunk) {
+        long z = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class SeededFaker {
+
+        private final Random random = new Random();
+        private final Faker faker;
+
+        private SeededFaker(Locale locale) {
+            this.faker = new Faker(locale, random);
+        }
+
+        private MockEmployeeRoster generate(long chunkSeed, int count) {
+            random.setSeed(chunkSeed);
+            final var chunk = new MockEmployeeRoster(count);
+            for (int i = 0; i < count; i++) {
+                chunk.add(
+                        randomUuid(),
+                        faker.name().fullName(),
+                        faker.number().numberBetween(30000, 500000),
+                        faker.number().numberBetween(16, 70),
+                        faker.job().title(),
+                        ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                                faker.twitter().userName().toLowerCase()));
+            }
+            return chunk;
+        }
+
+        /*
+         * Version 4 UUID drawn from the seeded generator instead of SecureRandom.
+         */
+        private UUID randomUuid() {
+            long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+            long least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+            return new UUID(most, least);
+        }
+    }
+}
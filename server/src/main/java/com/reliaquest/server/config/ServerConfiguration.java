@@ -1,12 +1,21 @@
 package com.reliaquest.server.config;
 
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.profiling.EmployeeRequestEventFilter;
+import com.reliaquest.server.profiling.ManagementTokenFilter;
+import com.reliaquest.server.store.MockEmployeeRoster;
+import com.reliaquest.server.store.MockEmployeeRosterFile;
+import com.reliaquest.server.store.MockEmployeeWriteAheadLog;
+import com.reliaquest.server.web.FaultInjectionFilter;
+import com.reliaquest.server.web.FaultInjectionProperties;
 import com.reliaquest.server.web.RandomRequestLimitInterceptor;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Locale;
+import java.util.Random;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
@@ -14,13 +23,18 @@ import net.datafaker.transformations.Field;
 import net.datafaker.transformations.JavaObjectTransformer;
 import net.datafaker.transformations.Schema;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(FaultInjectionProperties.class)
 public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
@@ -31,10 +45,97 @@ public class ServerConfiguration implements WebMvcConfigurer {
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * This roster is modifiable by design for CRUD operations.
+     * When mock.employees.file is set, the roster is loaded from that file if it exists and generated then written to
+     * it otherwise, so large rosters survive restarts and boot without being regenerated.
+     * When mock.employees.seed is set, generation is parallel and reproducible from that seed.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
+    public MockEmployeeRoster mockEmployees(
+            Faker faker,
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.file:}") String rosterFile,
+            @Value("${mock.employees.seed:#{null}}") Long seed) {
+        if (rosterFile.isBlank()) {
+            return generateMockEmployees(faker, maxEmployees, seed);
+        }
+        final var path = Path.of(rosterFile);
+        try {
+            if (Files.exists(path)) {
+                final var start = System.nanoTime();
+                final var roster = MockEmployeeRosterFile.read(path);
+                log.info(
+                        "Loaded {} employees from {} in {} ms",
+                        roster.size(),
+                        path,
+                        (System.nanoTime() - start) / 1_000_000);
+                return roster;
+            }
+            final var roster = generateMockEmployees(faker, maxEmployees, seed);
+            MockEmployeeRosterFile.write(roster, path);
+            log.info("Wrote {} generated employees to {}", roster.size(), path);
+            return roster;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to load or write roster file " + path, ex);
+        }
+    }
+
+    /*
+     * Replays mutations logged since the last snapshot onto the roster, then logs new ones next to the snapshot file.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "mock.employees.wal.enabled", havingValue = "true")
+    public MockEmployeeWriteAheadLog mockEmployeeWriteAheadLog(
+            MockEmployeeRoster mockEmployees,
+            @Value("${mock.employees.file:}") String rosterFile,
+            @Value("${mock.employees.wal.max-batch:1024}") int maxBatch)
+            throws IOException {
+        if (rosterFile.isBlank()) {
+            throw new IllegalStateException("mock.employees.wal.enabled requires mock.employees.file to be set");
+        }
+        return MockEmployeeWriteAheadLog.recover(Path.of(rosterFile), mockEmployees, maxBatch);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mock.faults.enabled", havingValue = "true")
+    public FilterRegistrationBean<FaultInjectionFilter> faultInjectionFilter(FaultInjectionProperties properties) {
+        final var random = properties.getSeed() == null ? new Random() : new Random(properties.getSeed());
+        log.info("Fault injection enabled with {} profile(s)", properties.getProfiles().size());
+        return new FilterRegistrationBean<>(new FaultInjectionFilter(properties.getProfiles(), random));
+    }
+
+    @Bean
+    public FilterRegistrationBean<EmployeeRequestEventFilter> employeeRequestEventFilter() {
+        final var registration = new FilterRegistrationBean<>(new EmployeeRequestEventFilter());
+        registration.addUrlPatterns("/api/v1/employee", "/api/v1/employee/*");
+        // Outside the fault injection filter, so injected latency and errors show up in the events
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /*
+     * The JFR endpoint is exposed like any actuator endpoint but answers only requests bearing management.jfr.token.
+     */
+    @Bean
+    public FilterRegistrationBean<ManagementTokenFilter> jfrEndpointTokenFilter(
+            @Value("${management.jfr.token:}") String token,
+            @Value("${management.endpoints.web.base-path:/actuator}") String basePath) {
+        final var registration = new FilterRegistrationBean<>(new ManagementTokenFilter(token));
+        registration.addUrlPatterns(basePath + "/jfr", basePath + "/jfr/*");
+        return registration;
+    }
+
+    private static MockEmployeeRoster generateMockEmployees(Faker faker, int maxEmployees, Long seed) {
+        if (seed != null) {
+            final var start = System.nanoTime();
+            final var roster = new MockEmployeeRosterGenerator(Locale.getDefault(), seed).generate(maxEmployees);
+            log.info(
+                    "Generated {} employees from seed {} in {} ms",
+                    roster.size(),
+                    seed,
+                    (System.nanoTime() - start) / 1_000_000);
+            return roster;
+        }
         final var transformer = new JavaObjectTransformer();
         final var schema = Schema.of(
                 Field.field("id", UUID::randomUUID),
@@ -46,10 +147,13 @@ public class ServerConfiguration implements WebMvcConfigurer {
                         "email",
                         () -> EMAIL_TEMPLATE.formatted(
                                 faker.twitter().userName().toLowerCase())));
-        return IntStream.rangeClosed(1, maxEmployees)
+        final var roster = new MockEmployeeRoster(maxEmployees);
+        IntStream.rangeClosed(1, maxEmployees)
                 .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
                 .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+                .forEach(roster::add);
+        roster.trimToSize();
+        return roster;
     }
 
     @Override
@@ -1,8 +1,11 @@
 package com.reliaquest.server.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeFilter;
 import com.reliaquest.server.model.Response;
 import com.reliaquest.server.service.MockEmployeeService;
 import jakarta.validation.Valid;
@@ -10,6 +13,7 @@ import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,18 +21,82 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/employee")
 @RequiredArgsConstructor
 public class MockEmployeeController {
 
+    private static final int EXPORT_PAGE_SIZE = 1024;
+
     private final MockEmployeeService mockEmployeeService;
 
+    private final ObjectMapper objectMapper;
+
+    /**
+     * All employees, or with one or more {@code id} parameters only those with the given ids, e.g.
+     * {@code ?id=...&id=...}; unknown ids are left out.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public Response<List<MockEmployee>> getEmployees(@RequestParam(name = "id", required = false) List<UUID> ids) {
+        return Response.handledWith(
+                ids == null ? mockEmployeeService.getMockEmployees() : mockEmployeeService.findAllById(ids));
+    }
+
+    /**
+     * Employees matching all given criteria, e.g. {@code /filter?minSalary=50000&maxAge=40&title=Engineer}. Salary and
+     * age bounds are inclusive; the title must match exactly.
+     */
+    @GetMapping("/filter")
+    public Response<List<MockEmployee>> filterEmployees(MockEmployeeFilter filter) {
+        return Response.handledWith(mockEmployeeService.filter(filter));
+    }
+
+    /**
+     * Employees whose name contains {@code name}, ignoring case.
+     */
+    @GetMapping("/search")
+    public Response<List<MockEmployee>> searchEmployees(@RequestParam("name") String name) {
+        return Response.handledWith(mockEmployeeService.searchByName(name));
+    }
+
+    /**
+     * Highest salary, or no data if no employee has a salary.
+     */
+    @GetMapping("/highest-salary")
+    public Response<Integer> getHighestSalary() {
+        return mockEmployeeService.highestSalary().map(Response::handledWith).orElseGet(Response::handled);
+    }
+
+    /**
+     * The {@code limit} highest paid employees, highest first; equal salaries keep insertion order.
+     */
+    @GetMapping("/top-earners")
+    public Response<List<MockEmployee>> getTopEarners(@RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return Response.handledWith(mockEmployeeService.topEarners(limit));
+    }
+
+    /**
+     * Every employee as newline-delimited JSON, one per line, unwrapped. The roster is read a page at a time and each
+     * page flushed before the next is read, so memory stays flat and a slow client paces the export.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportEmployees() {
+        return out -> {
+            try (final var lines = objectMapper
+                    .writerFor(MockEmployee.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                mockEmployeeService.export(EXPORT_PAGE_SIZE, page -> {
+                    lines.writeAll(page);
+                    lines.flush();
+                });
+            }
+        };
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,17 @@
+package com.reliaquest.server.model;
+
+import lombok.Data;
+
+/**
+ * Criteria of a filter query, bound from request parameters. Bounds are inclusive; {@code null} criteria match
+ * everyone.
+ */
+@Data
+public class MockEmployeeFilter {
+
+    private Integer minSalary;
+    private Integer maxSalary;
+    private Integer minAge;
+    private Integer maxAge;
+    private String title;
+}
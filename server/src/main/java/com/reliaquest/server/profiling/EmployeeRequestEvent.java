@@ -0,0 +1,29 @@
+package com.reliaquest.server.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one request to the employee endpoints, from arrival until the response is written, including any
+ * injected faults and requests turned away by the request limiter.
+ */
+@Name("com.reliaquest.server.EmployeeRequest")
+@Label("Employee Request")
+@Category({"Mock Employee API", "Requests"})
+@Description("A request to the mock employee endpoints")
+@StackTrace(false)
+public class EmployeeRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+}
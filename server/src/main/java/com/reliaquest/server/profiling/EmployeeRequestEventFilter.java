@@ -0,0 +1,36 @@
+package com.reliaquest.server.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records every request it sees as an {@link EmployeeRequestEvent}, at no cost unless a JFR recording is running.
+ */
+public class EmployeeRequestEventFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final var event = new EmployeeRequestEvent();
+        if (!event.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.path = request.getRequestURI();
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
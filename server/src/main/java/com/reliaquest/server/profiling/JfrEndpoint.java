@@ -0,0 +1,54 @@
+package com.reliaquest.server.profiling;
+
+import java.io.IOException;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * {@code POST /actuator/jfr} with an optional JSON body such as {@code {"duration": "30s", "settings": "profile"}}
+ * records this process with JFR for the duration and answers with the recording, to be opened in JDK Mission Control
+ * or {@code jfr print}. Requests need the management token; see {@link ManagementTokenFilter}. Actuator endpoints are
+ * not subject to the request limiter.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    private static final Duration DEFAULT_DURATION = Duration.ofSeconds(30);
+
+    private final JfrRecorder recorder;
+
+    @WriteOperation(produces = MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE)
+    public WebEndpointResponse<Resource> record(@Nullable Duration duration, @Nullable String settings) {
+        try {
+            final var recording = recorder.record(
+                    duration == null ? DEFAULT_DURATION : duration, settings == null ? "profile" : settings);
+            return new WebEndpointResponse<>(
+                    new ByteArrayResource(recording),
+                    WebEndpointResponse.STATUS_OK,
+                    MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Rejected JFR recording request: {}", ex.getMessage());
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException ex) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        } catch (IOException ex) {
+            log.error("JFR recording failed", ex);
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.reliaquest.server.profiling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Takes time-boxed JFR recordings of this process on demand, one at a time, and returns each as the contents of a
+ * {@code .jfr} file. With the JDK's {@code profile} settings a recording samples CPU every 10 to 20 ms, samples
+ * allocations, and records monitor and park waits longer than 10 ms, at an overhead of around 2%; the
+ * {@code default} settings cost about 1% but sample less. {@link EmployeeRequestEvent}s are recorded with either.
+ * <p>
+ * The api module has the same recorder for its own events; change the two together.
+ */
+@Slf4j
+@Component
+public class JfrRecorder {
+
+    public static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Duration maxDuration;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public JfrRecorder(@Value("${management.jfr.max-duration:5m}") @NonNull Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Records for {@code duration}, blocking the calling thread meanwhile.
+     *
+     * @param settings one of {@link #SETTINGS}
+     * @throws IllegalArgumentException if the duration is not positive and at most the maximum, or the settings are
+     *     unknown
+     * @throws IllegalStateException if another recording is in progress
+     */
+    public byte[] record(@NonNull Duration duration, @NonNull String settings)
+            throws IOException, InterruptedException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Recording duration must be positive and at most " + maxDuration);
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("Recording settings must be one of " + SETTINGS);
+        }
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("A recording is already in progress");
+        }
+        try (final var recording = new Recording(Configuration.getConfiguration(settings))) {
+            recording.setName("mock-employee-api-on-demand");
+            recording.enable(EmployeeRequestEvent.class);
+            log.info("Recording JFR for {} with {} settings", duration, settings);
+            recording.start();
+            try {
+                Thread.sleep(duration.toMillis());
+            } finally {
+                recording.stop();
+            }
+            final var file = Files.createTempFile("mock-employee-api-", ".jfr");
+            try {
+                recording.dump(file);
+                return Files.readAllBytes(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (ParseException ex) {
+            throw new IOException("The JDK's " + settings + " JFR settings could not be read", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
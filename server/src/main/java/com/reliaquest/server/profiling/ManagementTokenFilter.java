@@ -0,0 +1,49 @@
+package com.reliaquest.server.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admits requests that carry the configured management token as {@code Authorization: Bearer <token>}. Without a
+ * configured token every request is refused, so exposing a guarded endpoint never opens it up by accident.
+ * <p>
+ * The api module guards its endpoint with the same filter; change the two together.
+ */
+public class ManagementTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final byte[] token;
+
+    public ManagementTokenFilter(@NonNull String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (token.length == 0) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        final var authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null
+                || !authorization.startsWith(BEARER)
+                || !MessageDigest.isEqual(
+                        token, authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8))) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,42 @@
+package com.reliaquest.server.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Snapshots the roster to {@code mock.employees.file} periodically and on shutdown, so employees created or deleted
+ * while the server ran are still there on the next boot. With the write-ahead log enabled, each snapshot also bounds
+ * how much of the log recovery has to replay.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("mock.employees.file")
+@RequiredArgsConstructor
+public class MockEmployeeRosterPersister {
+
+    private final MockEmployeeService mockEmployeeService;
+
+    @Value("${mock.employees.file}")
+    private Path rosterFile;
+
+    @PreDestroy
+    @Scheduled(
+            initialDelayString = "${mock.employees.snapshot-interval:PT5M}",
+            fixedDelayString = "${mock.employees.snapshot-interval:PT5M}")
+    public void persist() {
+        try {
+            final var start = System.nanoTime();
+            mockEmployeeService.snapshot(rosterFile);
+            log.info("Persisted roster to {} in {} ms", rosterFile, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to persist roster to {}", rosterFile, ex);
+        }
+    }
+}
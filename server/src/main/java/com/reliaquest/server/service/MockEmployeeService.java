@@ -4,11 +4,20 @@ import com.reliaquest.server.config.ServerConfiguration;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeFilter;
+import com.reliaquest.server.store.MockEmployeeRoster;
+import com.reliaquest.server.store.MockEmployeeRosterFile;
+import com.reliaquest.server.store.MockEmployeeWriteAheadLog;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,14 +31,97 @@ public class MockEmployeeService {
 
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeRoster mockEmployees;
+
+    private final Optional<MockEmployeeWriteAheadLog> writeAheadLog;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /*
+     * Mutations are logged before they are applied, so a failed log write leaves the roster untouched. They hold this
+     * shared from logging until applied, and snapshots hold it exclusively, so no snapshot can miss a mutation whose
+     * log segment it lets go. Being shared, it does not stop concurrent mutations from committing as one group.
+     */
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    /*
+     * Exports walk the roster by row across many lock acquisitions, so compaction, which moves rows, waits for them.
+     */
+    private final AtomicInteger activeExports = new AtomicInteger();
+
+    public List<MockEmployee> getMockEmployees() {
+        lock.readLock().lock();
+        try {
+            return mockEmployees.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        lock.readLock().lock();
+        try {
+            final var row = mockEmployees.indexOf(uuid);
+            return row < 0 ? Optional.empty() : Optional.of(mockEmployees.get(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Employees with the given ids, in the order asked for, each once; ids of no employee are skipped.
+     */
+    public List<MockEmployee> findAllById(@NonNull List<UUID> uuids) {
+        final var employees = new ArrayList<MockEmployee>(uuids.size());
+        lock.readLock().lock();
+        try {
+            for (UUID uuid : new LinkedHashSet<>(uuids)) {
+                final var row = mockEmployees.indexOf(uuid);
+                if (row >= 0) {
+                    employees.add(mockEmployees.get(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return employees;
+    }
+
+    public List<MockEmployee> filter(@NonNull MockEmployeeFilter filter) {
+        lock.readLock().lock();
+        try {
+            return materialize(mockEmployees.filter(filter));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<MockEmployee> searchByName(@NonNull String fragment) {
+        lock.readLock().lock();
+        try {
+            return materialize(mockEmployees.searchByName(fragment));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Integer> highestSalary() {
+        lock.readLock().lock();
+        try {
+            final var salary = mockEmployees.maxSalary();
+            return salary == MockEmployeeRoster.NULL_INT ? Optional.empty() : Optional.of(salary);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<MockEmployee> topEarners(int limit) {
+        lock.readLock().lock();
+        try {
+            return materialize(mockEmployees.topEarners(limit));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
@@ -37,22 +129,121 @@ public class MockEmployeeService {
                 ServerConfiguration.EMAIL_TEMPLATE.formatted(
                         faker.twitter().userName().toLowerCase()),
                 input);
-        mockEmployees.add(mockEmployee);
+        commitLock.readLock().lock();
+        try {
+            writeAheadLog.ifPresent(wal -> wal.appendCreate(mockEmployee).join());
+            lock.writeLock().lock();
+            try {
+                mockEmployees.add(mockEmployee);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            commitLock.readLock().unlock();
+        }
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
+    /**
+     * Deletes the first employee with the given name. If a concurrent delete removes that employee while this one is
+     * being logged, nothing more is deleted and {@code false} is returned.
+     */
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
-            return true;
+        final MockEmployee mockEmployee;
+        commitLock.readLock().lock();
+        try {
+            lock.readLock().lock();
+            try {
+                final var row = mockEmployees.indexOfNameIgnoreCase(input.getName());
+                if (row < 0) {
+                    return false;
+                }
+                mockEmployee = mockEmployees.get(row);
+            } finally {
+                lock.readLock().unlock();
+            }
+            writeAheadLog.ifPresent(wal -> wal.appendDelete(mockEmployee.getId()).join());
+            lock.writeLock().lock();
+            try {
+                if (!mockEmployees.remove(mockEmployees.indexOf(mockEmployee.getId()))) {
+                    return false;
+                }
+                if (activeExports.get() == 0) {
+                    mockEmployees.compactIfFragmented();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            commitLock.readLock().unlock();
+        }
+        log.debug("Removed employee: {}", mockEmployee);
+        return true;
+    }
+
+    /**
+     * Passes every employee to {@code sink}, {@code pageSize} at a time in insertion order. The read lock is held only
+     * while a page is copied, never while the sink consumes it, so a slow consumer does not hold up mutations. An
+     * employee that exists for the whole export is passed exactly once; one created or deleted meanwhile may or may not
+     * be.
+     */
+    public void export(int pageSize, @NonNull ExportSink sink) throws IOException {
+        activeExports.incrementAndGet();
+        try {
+            int row = 0;
+            while (true) {
+                final var page = new ArrayList<MockEmployee>(pageSize);
+                lock.readLock().lock();
+                try {
+                    final var rowCount = mockEmployees.rowCount();
+                    for (; row < rowCount && page.size() < pageSize; row++) {
+                        if (mockEmployees.isLive(row)) {
+                            page.add(mockEmployees.get(row));
+                        }
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                if (page.isEmpty()) {
+                    return;
+                }
+                sink.accept(page);
+            }
+        } finally {
+            activeExports.decrementAndGet();
         }
+    }
+
+    private List<MockEmployee> materialize(int[] rows) {
+        final var employees = new ArrayList<MockEmployee>(rows.length);
+        for (int row : rows) {
+            employees.add(mockEmployees.get(row));
+        }
+        return employees;
+    }
+
+    /**
+     * Writes a consistent copy of the roster to {@code file}; mutations wait until the write completes. With a
+     * write-ahead log, the log is rotated first and the segments the snapshot covers are dropped afterwards.
+     */
+    public void snapshot(@NonNull Path file) throws IOException {
+        commitLock.writeLock().lock();
+        try {
+            final var closedGeneration =
+                    writeAheadLog.map(wal -> wal.rotate().join()).orElse(null);
+            MockEmployeeRosterFile.write(mockEmployees, file);
+            if (closedGeneration != null) {
+                writeAheadLog.get().deleteSegmentsThrough(closedGeneration);
+            }
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ExportSink {
 
-        return false;
+        void accept(List<MockEmployee> page) throws IOException;
     }
 }
@@ -0,0 +1,104 @@
+package com.reliaquest.server.store;
+
+import java.util.Arrays;
+
+/**
+ * Hash index from employee id to row: an open-addressed table of row numbers with linear probing. Ids are not copied;
+ * probes compare against the roster's id columns, so the table costs one {@code int} per slot. Removal shifts the
+ * rest of the probe run back instead of leaving tombstones, so lookups never slow down as employees come and go.
+ */
+final class IdHashIndex {
+
+    private static final int EMPTY = -1;
+
+    private int[] slots;
+    private int size;
+
+    IdHashIndex(int expectedSize) {
+        this.slots = emptySlots(tableSize(expectedSize));
+    }
+
+    void add(MockEmployeeRoster roster, int row) {
+        if ((size + 1) * 2 > slots.length) {
+            rehash(roster, slots.length * 2);
+        }
+        insert(roster, row);
+        size++;
+    }
+
+    void remove(MockEmployeeRoster roster, int row) {
+        final int mask = slots.length - 1;
+        int hole = hash(roster.idMostSigBits(row), roster.idLeastSigBits(row)) & mask;
+        while (slots[hole] != row) {
+            if (slots[hole] == EMPTY) {
+                return;
+            }
+            hole = (hole + 1) & mask;
+        }
+        for (int next = (hole + 1) & mask; slots[next] != EMPTY; next = (next + 1) & mask) {
+            final int home = hash(roster.idMostSigBits(slots[next]), roster.idLeastSigBits(slots[next])) & mask;
+            // An entry may fill the hole only if its home slot does not lie after the hole in the probe run
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        slots[hole] = EMPTY;
+        size--;
+    }
+
+    /**
+     * @return row with the given id, or {@code -1}
+     */
+    int find(MockEmployeeRoster roster, long mostSigBits, long leastSigBits) {
+        final int mask = slots.length - 1;
+        for (int slot = hash(mostSigBits, leastSigBits) & mask; ; slot = (slot + 1) & mask) {
+            final int row = slots[slot];
+            if (row == EMPTY) {
+                return -1;
+            }
+            if (roster.idLeastSigBits(row) == leastSigBits && roster.idMostSigBits(row) == mostSigBits) {
+                return row;
+            }
+        }
+    }
+
+    private void insert(MockEmployeeRoster roster, int row) {
+        final int mask = slots.length - 1;
+        int slot = hash(roster.idMostSigBits(row), roster.idLeastSigBits(row)) & mask;
+        while (slots[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = row;
+    }
+
+    private void rehash(MockEmployeeRoster roster, int tableSize) {
+        final var old = slots;
+        slots = emptySlots(tableSize);
+        for (int row : old) {
+            if (row != EMPTY) {
+                insert(roster, row);
+            }
+        }
+    }
+
+    /*
+     * Random UUIDs are already well spread, but ids from other sources need not be; the multiply mixes all bits in.
+     */
+    private static int hash(long mostSigBits, long leastSigBits) {
+        return (int) (((mostSigBits ^ leastSigBits) * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    /*
+     * A power of two at least twice the expected size, so the table starts at most half full.
+     */
+    private static int tableSize(int expectedSize) {
+        return Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) * 2;
+    }
+
+    private static int[] emptySlots(int tableSize) {
+        final var slots = new int[tableSize];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+}
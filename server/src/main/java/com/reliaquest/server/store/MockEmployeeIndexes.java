@@ -0,0 +1,88 @@
+package com.reliaquest.server.store;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Secondary indexes over the rows of a {@link MockEmployeeRoster}: a hash index for lookups by id, sorted salary and
+ * age indexes for range filters, one row bitmap per title code for title filters and a trigram index for name search.
+ * {@code null} salaries and ages are not indexed. Removed rows leave the id and range indexes and title bitmaps right
+ * away, which keeps the top of the salary index exact, but keep their name index entries until the indexes are
+ * rebuilt, so name lookups check that a row is still live.
+ */
+final class MockEmployeeIndexes {
+
+    final IdHashIndex ids;
+    final SortedIntIndex salaries;
+    final SortedIntIndex ages;
+    final NameTrigramIndex names = new NameTrigramIndex();
+    private final List<BitSet> rowsByTitleCode = new ArrayList<>();
+
+    private MockEmployeeIndexes(int capacity) {
+        this.ids = new IdHashIndex(capacity);
+        this.salaries = new SortedIntIndex(capacity);
+        this.ages = new SortedIntIndex(capacity);
+    }
+
+    static MockEmployeeIndexes build(MockEmployeeRoster roster) {
+        final var indexes = new MockEmployeeIndexes(roster.size());
+        roster.forEachLive(row -> {
+            indexes.ids.add(roster, row);
+            if (roster.salary(row) != MockEmployeeRoster.NULL_INT) {
+                indexes.salaries.addUnsorted(roster.salary(row), row);
+            }
+            if (roster.age(row) != MockEmployeeRoster.NULL_INT) {
+                indexes.ages.addUnsorted(roster.age(row), row);
+            }
+            indexes.addTitle(roster.titleCode(row), row);
+            indexes.names.add(roster.names(), row);
+        });
+        indexes.salaries.sort();
+        indexes.ages.sort();
+        return indexes;
+    }
+
+    void add(MockEmployeeRoster roster, int row) {
+        ids.add(roster, row);
+        if (roster.salary(row) != MockEmployeeRoster.NULL_INT) {
+            salaries.add(roster.salary(row), row);
+        }
+        if (roster.age(row) != MockEmployeeRoster.NULL_INT) {
+            ages.add(roster.age(row), row);
+        }
+        addTitle(roster.titleCode(row), row);
+        names.add(roster.names(), row);
+    }
+
+    void remove(MockEmployeeRoster roster, int row) {
+        ids.remove(roster, row);
+        if (roster.salary(row) != MockEmployeeRoster.NULL_INT) {
+            salaries.remove(roster.salary(row), row);
+        }
+        if (roster.age(row) != MockEmployeeRoster.NULL_INT) {
+            ages.remove(roster.age(row), row);
+        }
+        final int titleCode = roster.titleCode(row);
+        if (titleCode >= 0 && titleCode < rowsByTitleCode.size()) {
+            rowsByTitleCode.get(titleCode).clear(row);
+        }
+    }
+
+    /**
+     * @return live rows with the given title; must not be modified
+     */
+    BitSet rowsWithTitle(int titleCode) {
+        return titleCode < rowsByTitleCode.size() ? rowsByTitleCode.get(titleCode) : new BitSet();
+    }
+
+    private void addTitle(int titleCode, int row) {
+        if (titleCode < 0) {
+            return;
+        }
+        while (rowsByTitleCode.size() <= titleCode) {
+            rowsByTitleCode.add(new BitSet());
+        }
+        rowsByTitleCode.get(titleCode).set(row);
+    }
+}
@@ -0,0 +1,506 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+import lombok.NonNull;
+
+/**
+ * Columnar, memory-compact store of mock employees. Instead of one boxed {@link MockEmployee} object graph per row,
+ * every attribute lives in a primitive column: ids as packed {@code long} pairs, salaries and ages as {@code int}s,
+ * titles as codes into a deduplicated dictionary and names/emails in shared character buffers.
+ * <p>
+ * Rows are append-only and keep a stable index until {@link #compactIfFragmented()} runs; removals only mark a
+ * tombstone. Insertion order is preserved, like the {@link List} this store replaces.
+ * <p>
+ * Not thread-safe; callers guard access (see {@code MockEmployeeService}). The exceptions are the indexed queries
+ * ({@link #indexOf}, {@link #filter}, {@link #searchByName}, {@link #maxSalary} and {@link #topEarners}), which build
+ * the indexes on first use and may run concurrently with other readers.
+ */
+public final class MockEmployeeRoster {
+
+    /**
+     * Sentinel used for {@code null} salaries and ages.
+     */
+    public static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final int NULL_TITLE = -1;
+    private static final int AVERAGE_NAME_LENGTH = 16;
+    private static final int AVERAGE_EMAIL_LENGTH = 24;
+
+    private long[] idMostSigBits;
+    private long[] idLeastSigBits;
+    private int[] salaries;
+    private int[] ages;
+    private int[] titleCodes;
+    private StringColumn names;
+    private StringColumn emails;
+    private final List<String> titles = new ArrayList<>();
+    private final Map<String, Integer> titleCodesByTitle = new HashMap<>();
+    private BitSet removed = new BitSet();
+    private int rowCount;
+    private int removedCount;
+    private volatile MockEmployeeIndexes indexes;
+
+    public MockEmployeeRoster() {
+        this(64);
+    }
+
+    public MockEmployeeRoster(int expectedSize) {
+        int capacity = Math.max(1, expectedSize);
+        this.idMostSigBits = new long[capacity];
+        this.idLeastSigBits = new long[capacity];
+        this.salaries = new int[capacity];
+        this.ages = new int[capacity];
+        this.titleCodes = new int[capacity];
+        this.names = new StringColumn(capacity, AVERAGE_NAME_LENGTH);
+        this.emails = new StringColumn(capacity, AVERAGE_EMAIL_LENGTH);
+    }
+
+    /*
+     * Used by MockEmployeeRosterFile to adopt columns read from disk.
+     */
+    MockEmployeeRoster(
+            long[] idMostSigBits,
+            long[] idLeastSigBits,
+            int[] salaries,
+            int[] ages,
+            int[] titleCodes,
+            List<String> titles,
+            StringColumn names,
+            StringColumn emails) {
+        this.idMostSigBits = idMostSigBits;
+        this.idLeastSigBits = idLeastSigBits;
+        this.salaries = salaries;
+        this.ages = ages;
+        this.titleCodes = titleCodes;
+        this.names = names;
+        this.emails = emails;
+        this.rowCount = salaries.length;
+        for (String title : titles) {
+            titleCodesByTitle.put(title, this.titles.size());
+            this.titles.add(title);
+        }
+    }
+
+    /**
+     * @return number of live (not removed) employees
+     */
+    public int size() {
+        return rowCount - removedCount;
+    }
+
+    /**
+     * @return number of allocated rows, including removed ones; valid row indexes are {@code [0, rowCount)}
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public boolean isLive(int row) {
+        return row >= 0 && row < rowCount && !removed.get(row);
+    }
+
+    public int add(@NonNull MockEmployee employee) {
+        return add(
+                employee.getId(),
+                employee.getName(),
+                employee.getSalary(),
+                employee.getAge(),
+                employee.getTitle(),
+                employee.getEmail());
+    }
+
+    public int add(@NonNull UUID id, String name, Integer salary, Integer age, String title, String email) {
+        ensureCapacity(rowCount + 1);
+        int row = rowCount++;
+        idMostSigBits[row] = id.getMostSignificantBits();
+        idLeastSigBits[row] = id.getLeastSignificantBits();
+        salaries[row] = salary == null ? NULL_INT : salary;
+        ages[row] = age == null ? NULL_INT : age;
+        titleCodes[row] = encodeTitle(title);
+        names.add(name);
+        emails.add(email);
+        if (indexes != null) {
+            indexes.add(this, row);
+        }
+        return row;
+    }
+
+    /**
+     * Appends all live rows of {@code other}, copying column data without materializing employees.
+     */
+    public void addAll(@NonNull MockEmployeeRoster other) {
+        ensureCapacity(rowCount + other.size());
+        other.forEachLive(source -> {
+            int row = rowCount++;
+            idMostSigBits[row] = other.idMostSigBits[source];
+            idLeastSigBits[row] = other.idLeastSigBits[source];
+            salaries[row] = other.salaries[source];
+            ages[row] = other.ages[source];
+            titleCodes[row] = encodeTitle(other.title(source));
+            names.addFrom(other.names, source);
+            emails.addFrom(other.emails, source);
+        });
+        indexes = null;
+    }
+
+    /**
+     * Marks the row as removed. Its index stays reserved until the next compaction.
+     *
+     * @return {@code true} if the row was live
+     */
+    public boolean remove(int row) {
+        if (!isLive(row)) {
+            return false;
+        }
+        removed.set(row);
+        removedCount++;
+        if (indexes != null) {
+            indexes.remove(this, row);
+        }
+        return true;
+    }
+
+    /**
+     * @return row of the live employee with the given id, or {@code -1}; a hash lookup rather than a scan
+     */
+    public int indexOf(@NonNull UUID id) {
+        return indexes().ids.find(this, id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    /**
+     * @return row of the first live employee whose name equals {@code name} ignoring case, or {@code -1}
+     */
+    public int indexOfNameIgnoreCase(@NonNull String name) {
+        for (int row = 0; row < rowCount; row++) {
+            if (!removed.get(row) && names.equalsIgnoreCase(row, name)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rows of the live employees whose name contains {@code fragment} ignoring case, in insertion order. Fragments of
+     * three or more characters only compare the names the trigram index leaves as candidates; shorter ones compare
+     * every name.
+     */
+    public int[] searchByName(@NonNull String fragment) {
+        final var needle = new char[fragment.length()];
+        for (int i = 0; i < needle.length; i++) {
+            needle[i] = Character.toLowerCase(fragment.charAt(i));
+        }
+        final var candidates = needle.length < 3 ? liveRows() : indexes().names.candidates(needle);
+        int count = 0;
+        for (int row : candidates) {
+            if (!removed.get(row) && names.containsIgnoreCase(row, needle)) {
+                candidates[count++] = row;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * @return highest salary among the live employees, or {@link #NULL_INT} if none has a salary
+     */
+    public int maxSalary() {
+        final var bySalary = indexes().salaries;
+        return bySalary.size() == 0 ? NULL_INT : bySalary.value(bySalary.size() - 1);
+    }
+
+    /**
+     * Rows of the {@code limit} highest paid live employees, highest first and equal salaries in insertion order.
+     * They are read off the top of the salary index, which {@link #add} and {@link #remove} keep current, so the
+     * cost is O(limit) rather than a pass over the roster.
+     */
+    public int[] topEarners(int limit) {
+        final var bySalary = indexes().salaries;
+        final var rows = new int[Math.min(Math.max(0, limit), bySalary.size())];
+        int count = 0;
+        int end = bySalary.size();
+        while (count < rows.length) {
+            final int start = bySalary.from(bySalary.value(end - 1));
+            for (int position = start; position < end && count < rows.length; position++) {
+                rows[count++] = bySalary.row(position);
+            }
+            end = start;
+        }
+        return rows;
+    }
+
+    /**
+     * Rows of the live employees matching every criterion of {@code filter}, in insertion order. Candidates come from
+     * whichever index narrows them down the most and the remaining criteria are checked per candidate, so a lookup
+     * costs O(log n + k) for k candidates instead of a scan of every row.
+     */
+    public int[] filter(@NonNull MockEmployeeFilter filter) {
+        final var index = indexes();
+        final var bySalary = filter.getMinSalary() != null || filter.getMaxSalary() != null;
+        final var byAge = filter.getMinAge() != null || filter.getMaxAge() != null;
+        final int minSalary = lowerBound(filter.getMinSalary());
+        final int maxSalary = upperBound(filter.getMaxSalary());
+        final int minAge = lowerBound(filter.getMinAge());
+        final int maxAge = upperBound(filter.getMaxAge());
+        final int titleCode;
+        if (filter.getTitle() == null) {
+            titleCode = NULL_TITLE;
+        } else if (titleCodesByTitle.containsKey(filter.getTitle())) {
+            titleCode = titleCodesByTitle.get(filter.getTitle());
+        } else {
+            return new int[0];
+        }
+        if (!bySalary && !byAge && titleCode == NULL_TITLE) {
+            return liveRows();
+        }
+
+        final int salaryFrom = index.salaries.from(minSalary);
+        final int salaryTo = index.salaries.to(maxSalary);
+        final int ageFrom = index.ages.from(minAge);
+        final int ageTo = index.ages.to(maxAge);
+        final var titleRows = titleCode == NULL_TITLE ? null : index.rowsWithTitle(titleCode);
+        final int salaryCandidates = bySalary ? Math.max(0, salaryTo - salaryFrom) : Integer.MAX_VALUE;
+        final int ageCandidates = byAge ? Math.max(0, ageTo - ageFrom) : Integer.MAX_VALUE;
+        final int titleCandidates = titleRows == null ? Integer.MAX_VALUE : titleRows.cardinality();
+
+        int[] matches = new int[Math.min(Math.min(salaryCandidates, ageCandidates), titleCandidates)];
+        int count = 0;
+        if (titleCandidates <= salaryCandidates && titleCandidates <= ageCandidates) {
+            for (int row = titleRows.nextSetBit(0); row >= 0; row = titleRows.nextSetBit(row + 1)) {
+                if (matches(row, bySalary, minSalary, maxSalary, byAge, minAge, maxAge, NULL_TITLE)) {
+                    matches[count++] = row;
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+        final var byRange = salaryCandidates <= ageCandidates ? index.salaries : index.ages;
+        final int from = salaryCandidates <= ageCandidates ? salaryFrom : ageFrom;
+        final int to = from + matches.length;
+        for (int position = from; position < to; position++) {
+            int row = byRange.row(position);
+            if (matches(row, bySalary, minSalary, maxSalary, byAge, minAge, maxAge, titleCode)) {
+                matches[count++] = row;
+            }
+        }
+        matches = Arrays.copyOf(matches, count);
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    public void forEachLive(IntConsumer action) {
+        for (int row = removed.nextClearBit(0); row < rowCount; row = removed.nextClearBit(row + 1)) {
+            action.accept(row);
+        }
+    }
+
+    int[] liveRows() {
+        int[] rows = new int[size()];
+        int index = 0;
+        for (int row = removed.nextClearBit(0); row < rowCount; row = removed.nextClearBit(row + 1)) {
+            rows[index++] = row;
+        }
+        return rows;
+    }
+
+    long idMostSigBits(int row) {
+        return idMostSigBits[row];
+    }
+
+    long idLeastSigBits(int row) {
+        return idLeastSigBits[row];
+    }
+
+    int titleCode(int row) {
+        return titleCodes[row];
+    }
+
+    List<String> titles() {
+        return titles;
+    }
+
+    StringColumn names() {
+        return names;
+    }
+
+    StringColumn emails() {
+        return emails;
+    }
+
+    public UUID id(int row) {
+        return new UUID(idMostSigBits[row], idLeastSigBits[row]);
+    }
+
+    public String name(int row) {
+        return names.get(row);
+    }
+
+    public int salary(int row) {
+        return salaries[row];
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public String title(int row) {
+        int code = titleCodes[row];
+        return code == NULL_TITLE ? null : titles.get(code);
+    }
+
+    public String email(int row) {
+        return emails.get(row);
+    }
+
+    public MockEmployee get(int row) {
+        return MockEmployee.builder()
+                .id(id(row))
+                .name(name(row))
+                .salary(boxed(salaries[row]))
+                .age(boxed(ages[row]))
+                .title(title(row))
+                .email(email(row))
+                .build();
+    }
+
+    /**
+     * Materializes all live employees, in insertion order.
+     */
+    public List<MockEmployee> toList() {
+        List<MockEmployee> employees = new ArrayList<>(size());
+        forEachLive(row -> employees.add(get(row)));
+        return employees;
+    }
+
+    /**
+     * Drops removed rows once they make up more than half of the allocated rows. Row indexes of live employees change
+     * when this happens.
+     *
+     * @return {@code true} if the roster was compacted
+     */
+    public boolean compactIfFragmented() {
+        if (removedCount == 0 || removedCount * 2 < rowCount) {
+            return false;
+        }
+        compact();
+        return true;
+    }
+
+    /**
+     * Releases spare capacity left over from growth, e.g. after the initial bulk load.
+     */
+    public void trimToSize() {
+        int capacity = Math.max(1, rowCount);
+        idMostSigBits = Arrays.copyOf(idMostSigBits, capacity);
+        idLeastSigBits = Arrays.copyOf(idLeastSigBits, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        titleCodes = Arrays.copyOf(titleCodes, capacity);
+        names.trimToSize();
+        emails.trimToSize();
+    }
+
+    private void compact() {
+        int live = size();
+        long[] most = new long[Math.max(1, live)];
+        long[] least = new long[most.length];
+        int[] newSalaries = new int[most.length];
+        int[] newAges = new int[most.length];
+        int[] newTitleCodes = new int[most.length];
+        StringColumn newNames = new StringColumn(most.length, AVERAGE_NAME_LENGTH);
+        StringColumn newEmails = new StringColumn(most.length, AVERAGE_EMAIL_LENGTH);
+        int target = 0;
+        for (int row = removed.nextClearBit(0); row < rowCount; row = removed.nextClearBit(row + 1)) {
+            most[target] = idMostSigBits[row];
+            least[target] = idLeastSigBits[row];
+            newSalaries[target] = salaries[row];
+            newAges[target] = ages[row];
+            newTitleCodes[target] = titleCodes[row];
+            newNames.addFrom(names, row);
+            newEmails.addFrom(emails, row);
+            target++;
+        }
+        idMostSigBits = most;
+        idLeastSigBits = least;
+        salaries = newSalaries;
+        ages = newAges;
+        titleCodes = newTitleCodes;
+        names = newNames;
+        emails = newEmails;
+        removed = new BitSet();
+        rowCount = target;
+        removedCount = 0;
+        indexes = null;
+    }
+
+    private MockEmployeeIndexes indexes() {
+        MockEmployeeIndexes current = indexes;
+        if (current == null) {
+            synchronized (this) {
+                current = indexes;
+                if (current == null) {
+                    current = MockEmployeeIndexes.build(this);
+                    indexes = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean matches(
+            int row,
+            boolean bySalary,
+            int minSalary,
+            int maxSalary,
+            boolean byAge,
+            int minAge,
+            int maxAge,
+            int titleCode) {
+        return !removed.get(row)
+                && (!bySalary || (salaries[row] >= minSalary && salaries[row] <= maxSalary))
+                && (!byAge || (ages[row] >= minAge && ages[row] <= maxAge))
+                && (titleCode == NULL_TITLE || titleCodes[row] == titleCode);
+    }
+
+    /*
+     * Range bounds never include the null sentinel.
+     */
+    private static int lowerBound(Integer min) {
+        return min == null ? NULL_INT + 1 : Math.max(min, NULL_INT + 1);
+    }
+
+    private static int upperBound(Integer max) {
+        return max == null ? Integer.MAX_VALUE : max;
+    }
+
+    private int encodeTitle(String title) {
+        if (title == null) {
+            return NULL_TITLE;
+        }
+        return titleCodesByTitle.computeIfAbsent(title, key -> {
+            titles.add(key);
+            return titles.size() - 1;
+        });
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows > salaries.length) {
+            int capacity = Math.max(rows, salaries.length * 2);
+            idMostSigBits = Arrays.copyOf(idMostSigBits, capacity);
+            idLeastSigBits = Arrays.copyOf(idLeastSigBits, capacity);
+            salaries = Arrays.copyOf(salaries, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            titleCodes = Arrays.copyOf(titleCodes, capacity);
+        }
+    }
+
+    private static Integer boxed(int value) {
+        return value == NULL_INT ? null : value;
+    }
+}
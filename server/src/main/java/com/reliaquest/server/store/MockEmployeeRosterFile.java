@@ -0,0 +1,152 @@
+package com.reliaquest.server.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.NonNull;
+
+/**
+ * Binary, memory-mapped file format for a {@link MockEmployeeRoster}. Columns are laid out back to back exactly as
+ * they are held in memory, so loading is a handful of bulk copies out of the page cache rather than per-record
+ * parsing or reflection.
+ * <p>
+ * Layout (little endian): magic, version, row count, title dictionary, then the id, salary, age and title code columns
+ * followed by the name and email string columns. Only live rows are written. A single mapping is limited to 2 GiB,
+ * roughly 25 million employees.
+ */
+public final class MockEmployeeRosterFile {
+
+    private static final int MAGIC = 0x52515253; // "RQRS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    private MockEmployeeRosterFile() {}
+
+    /**
+     * Writes the roster to a temporary sibling of {@code file} and atomically moves it into place, so a crash while
+     * writing never leaves a truncated roster behind.
+     */
+    public static void write(@NonNull MockEmployeeRoster roster, @NonNull Path file) throws IOException {
+        final var rows = roster.liveRows();
+        final var titles = roster.titles();
+        long size = HEADER_BYTES
+                + titlesSize(titles)
+                + (long) rows.length * (2 * Long.BYTES + 3 * Integer.BYTES)
+                + roster.names().serializedSize(rows)
+                + roster.emails().serializedSize(rows);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(
+                    "Roster of %d employees is too large for a single mapped file".formatted(rows.length));
+        }
+
+        final var parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final var temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (var channel = FileChannel.open(
+                temp, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(rows.length);
+            writeTitles(buffer, titles);
+            for (int row : rows) {
+                buffer.putLong(roster.idMostSigBits(row));
+            }
+            for (int row : rows) {
+                buffer.putLong(roster.idLeastSigBits(row));
+            }
+            for (int row : rows) {
+                buffer.putInt(roster.salary(row));
+            }
+            for (int row : rows) {
+                buffer.putInt(roster.age(row));
+            }
+            for (int row : rows) {
+                buffer.putInt(roster.titleCode(row));
+            }
+            roster.names().write(buffer, rows);
+            roster.emails().write(buffer, rows);
+            buffer.force();
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static MockEmployeeRoster read(@NonNull Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a roster file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported roster file version %d: %s".formatted(version, file));
+            }
+            int rowCount = buffer.getInt();
+            final var titles = readTitles(buffer);
+            final var idMostSigBits = readLongs(buffer, rowCount);
+            final var idLeastSigBits = readLongs(buffer, rowCount);
+            final var salaries = readInts(buffer, rowCount);
+            final var ages = readInts(buffer, rowCount);
+            final var titleCodes = readInts(buffer, rowCount);
+            final var names = StringColumn.read(buffer, rowCount);
+            final var emails = StringColumn.read(buffer, rowCount);
+            return new MockEmployeeRoster(
+                    idMostSigBits, idLeastSigBits, salaries, ages, titleCodes, titles, names, emails);
+        }
+    }
+
+    private static long titlesSize(List<String> titles) {
+        long size = Integer.BYTES;
+        for (String title : titles) {
+            size += Integer.BYTES + (long) Character.BYTES * title.length();
+        }
+        return size;
+    }
+
+    private static void writeTitles(ByteBuffer buffer, List<String> titles) {
+        buffer.putInt(titles.size());
+        for (String title : titles) {
+            buffer.putInt(title.length());
+            for (int i = 0; i < title.length(); i++) {
+                buffer.putChar(title.charAt(i));
+            }
+        }
+    }
+
+    private static List<String> readTitles(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> titles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            char[] chars = new char[buffer.getInt()];
+            buffer.asCharBuffer().get(chars);
+            buffer.position(buffer.position() + Character.BYTES * chars.length);
+            titles.add(new String(chars));
+        }
+        return titles;
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + Long.BYTES * count);
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + Integer.BYTES * count);
+        return values;
+    }
+}
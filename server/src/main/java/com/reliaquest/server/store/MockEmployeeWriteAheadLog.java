@@ -0,0 +1,384 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only, group-committed log of roster mutations, stored in numbered segments next to the roster snapshot
+ * ({@code <snapshot>.wal.<generation>}).
+ * <p>
+ * Callers enqueue encoded records and get a future that completes once the record is on disk. A single writer thread
+ * drains everything queued since its last flush, writes it with one call and forces it with one {@code fsync}, so
+ * throughput grows with concurrency instead of being capped at one sync per mutation.
+ * <p>
+ * {@link #rotate()} closes the current segment; once a snapshot covering it has been written,
+ * {@link #deleteSegmentsThrough(long)} drops it. Recovery therefore replays at most the segments written since the
+ * last snapshot. Replay is idempotent per employee id, so a crash between writing a snapshot and deleting the segments
+ * it covers is harmless.
+ */
+@Slf4j
+public final class MockEmployeeWriteAheadLog implements AutoCloseable {
+
+    private static final byte CREATE = 1;
+    private static final byte DELETE = 2;
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final Path snapshotFile;
+    private final int maxBatch;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    // Held to enqueue and to stop, so nothing is queued after the writer may have seen the queue empty and exited
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private FileChannel segment;
+    private long generation;
+
+    private MockEmployeeWriteAheadLog(Path snapshotFile, long generation, int maxBatch) throws IOException {
+        this.snapshotFile = snapshotFile;
+        this.maxBatch = maxBatch;
+        this.generation = generation;
+        this.segment = openSegment(generation);
+        this.writer = new Thread(this::drain, "mock-employee-wal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Replays every segment left next to {@code snapshotFile} onto {@code roster} (which was loaded from that
+     * snapshot), then opens a fresh segment for new mutations.
+     */
+    public static MockEmployeeWriteAheadLog recover(
+            @NonNull Path snapshotFile, @NonNull MockEmployeeRoster roster, int maxBatch) throws IOException {
+        final var segments = segments(snapshotFile);
+        final var replay = new Replay();
+        for (long generation : segments) {
+            replay.read(segmentPath(snapshotFile, generation));
+        }
+        if (!segments.isEmpty()) {
+            log.info(
+                    "Replaying {} segment(s): {} net create(s), {} net delete(s)",
+                    segments.size(),
+                    replay.creates.size(),
+                    replay.deletes.size());
+        }
+        replay.applyTo(roster);
+        long next = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+        return new MockEmployeeWriteAheadLog(snapshotFile, next, maxBatch);
+    }
+
+    public CompletableFuture<Void> appendCreate(@NonNull MockEmployee employee) {
+        final var payload = ByteBuffer.allocate(1
+                        + 2 * Long.BYTES
+                        + 2 * Integer.BYTES
+                        + stringSize(employee.getName())
+                        + stringSize(employee.getTitle())
+                        + stringSize(employee.getEmail()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        payload.put(CREATE)
+                .putLong(employee.getId().getMostSignificantBits())
+                .putLong(employee.getId().getLeastSignificantBits())
+                .putInt(employee.getSalary() == null ? MockEmployeeRoster.NULL_INT : employee.getSalary())
+                .putInt(employee.getAge() == null ? MockEmployeeRoster.NULL_INT : employee.getAge());
+        putString(payload, employee.getName());
+        putString(payload, employee.getTitle());
+        putString(payload, employee.getEmail());
+        return append(payload);
+    }
+
+    public CompletableFuture<Void> appendDelete(@NonNull UUID id) {
+        final var payload = ByteBuffer.allocate(1 + 2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        payload.put(DELETE).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        return append(payload);
+    }
+
+    /**
+     * Closes the current segment once everything queued before this call is durable and starts a new one.
+     *
+     * @return future of the generation that was closed
+     */
+    public CompletableFuture<Long> rotate() {
+        final var rotation = new Pending(null);
+        return enqueue(rotation).thenApply(ignored -> rotation.closedGeneration);
+    }
+
+    /**
+     * Deletes closed segments up to and including {@code generation}, which a snapshot now covers.
+     */
+    public void deleteSegmentsThrough(long generation) throws IOException {
+        for (long candidate : segments(snapshotFile)) {
+            if (candidate <= generation) {
+                Files.deleteIfExists(segmentPath(snapshotFile, candidate));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        enqueueLock.lock();
+        try {
+            running = false;
+        } finally {
+            enqueueLock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        // Only left behind if the writer was interrupted; their callers must not wait forever
+        for (Pending pending; (pending = queue.poll()) != null; ) {
+            pending.future.completeExceptionally(new IllegalStateException("Write-ahead log is closed"));
+        }
+        segment.close();
+    }
+
+    private CompletableFuture<Void> append(ByteBuffer payload) {
+        payload.flip();
+        final var crc = new CRC32();
+        crc.update(payload.duplicate());
+        final var record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.remaining())
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(payload.remaining())
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        return enqueue(new Pending(record));
+    }
+
+    private CompletableFuture<Void> enqueue(Pending pending) {
+        enqueueLock.lock();
+        try {
+            if (!running) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Write-ahead log is closed"));
+            }
+            queue.add(pending);
+            return pending.future;
+        } finally {
+            enqueueLock.unlock();
+        }
+    }
+
+    private void drain() {
+        final var batch = new ArrayList<Pending>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                final var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                commit(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /*
+     * Writes and syncs the records of the batch; a rotation marker first flushes the records queued before it.
+     */
+    private void commit(List<Pending> batch) {
+        final var records = new ArrayList<Pending>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.record != null) {
+                records.add(pending);
+                continue;
+            }
+            flush(records);
+            try {
+                segment.close();
+                pending.closedGeneration = generation;
+                segment = openSegment(++generation);
+                pending.future.complete(null);
+            } catch (IOException ex) {
+                pending.future.completeExceptionally(new UncheckedIOException(ex));
+            }
+        }
+        flush(records);
+    }
+
+    private void flush(List<Pending> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            final var buffers = records.stream().map(pending -> pending.record).toArray(ByteBuffer[]::new);
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= segment.write(buffers);
+            }
+            segment.force(false);
+            records.forEach(pending -> pending.future.complete(null));
+        } catch (IOException ex) {
+            log.error("Failed to write {} record(s) to the write-ahead log", records.size(), ex);
+            records.forEach(pending -> pending.future.completeExceptionally(new UncheckedIOException(ex)));
+        }
+        records.clear();
+    }
+
+    private FileChannel openSegment(long generation) throws IOException {
+        return FileChannel.open(
+                segmentPath(snapshotFile, generation),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private static Path segmentPath(Path snapshotFile, long generation) {
+        return snapshotFile.resolveSibling("%s.wal.%d".formatted(snapshotFile.getFileName(), generation));
+    }
+
+    private static List<Long> segments(Path snapshotFile) throws IOException {
+        final var directory = snapshotFile.toAbsolutePath().getParent();
+        final var prefix = snapshotFile.getFileName() + ".wal.";
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (var files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix)
+                            && name.substring(prefix.length()).chars().allMatch(Character::isDigit))
+                    .map(name -> Long.parseLong(name.substring(prefix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int stringSize(String value) {
+        return Integer.BYTES + (value == null ? 0 : Character.BYTES * value.length());
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer.putChar(value.charAt(i));
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar();
+        }
+        return new String(chars);
+    }
+
+    private static final class Pending {
+
+        private final ByteBuffer record;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private long closedGeneration;
+
+        private Pending(ByteBuffer record) {
+            this.record = record;
+        }
+    }
+
+    /*
+     * Folds all logged mutations into their net effect, so applying them costs one pass over the roster.
+     */
+    private static final class Replay {
+
+        private final Map<UUID, MockEmployee> creates = new LinkedHashMap<>();
+        private final Set<UUID> deletes = new HashSet<>();
+
+        private void read(Path segment) throws IOException {
+            final var buffer = ByteBuffer.wrap(Files.readAllBytes(segment)).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                int offset = buffer.position() - RECORD_HEADER_BYTES;
+                if (length <= 0 || length > buffer.remaining()) {
+                    log.warn("Ignoring torn record at offset {} of {}", offset, segment);
+                    return;
+                }
+                final var payload = buffer.slice(buffer.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+                final var crc = new CRC32();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Ignoring corrupt record at offset {} of {}", offset, segment);
+                    return;
+                }
+                buffer.position(buffer.position() + length);
+                apply(payload);
+            }
+        }
+
+        private void apply(ByteBuffer payload) {
+            byte type = payload.get();
+            final var id = new UUID(payload.getLong(), payload.getLong());
+            if (type == DELETE) {
+                // Kept even after cancelling a create: a snapshot written before the delete may already hold the id
+                creates.remove(id);
+                deletes.add(id);
+                return;
+            }
+            deletes.remove(id);
+            int salary = payload.getInt();
+            int age = payload.getInt();
+            creates.put(
+                    id,
+                    MockEmployee.builder()
+                            .id(id)
+                            .salary(salary == MockEmployeeRoster.NULL_INT ? null : salary)
+                            .age(age == MockEmployeeRoster.NULL_INT ? null : age)
+                            .name(getString(payload))
+                            .title(getString(payload))
+                            .email(getString(payload))
+                            .build());
+        }
+
+        private void applyTo(MockEmployeeRoster roster) {
+            if (creates.isEmpty() && deletes.isEmpty()) {
+                return;
+            }
+            roster.forEachLive(row -> {
+                final var id = roster.id(row);
+                if (deletes.contains(id)) {
+                    roster.remove(row);
+                } else {
+                    creates.remove(id);
+                }
+            });
+            creates.values().forEach(roster::add);
+            roster.compactIfFragmented();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.reliaquest.server.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from every lower-cased three-character run of a name to the rows whose name contains it. A row
+ * whose name contains a fragment contains all of the fragment's trigrams, so intersecting their posting lists yields
+ * a small superset of the matches that only needs to be verified, instead of comparing every name.
+ * <p>
+ * Rows must be added in increasing order, which keeps every posting list sorted.
+ */
+final class NameTrigramIndex {
+
+    private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+
+    void add(StringColumn names, int row) {
+        names.forEachLowerCaseTrigram(
+                row, trigram -> postingsByTrigram.computeIfAbsent(trigram, key -> new Postings()).add(row));
+    }
+
+    /**
+     * @param lowerCaseNeedle at least three characters, lower-cased character by character
+     * @return sorted rows whose name contains every trigram of the needle
+     */
+    int[] candidates(char[] lowerCaseNeedle) {
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= lowerCaseNeedle.length; i++) {
+            Postings postings = postingsByTrigram.get(
+                    StringColumn.trigram(lowerCaseNeedle[i], lowerCaseNeedle[i + 1], lowerCaseNeedle[i + 2]));
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+        int[] candidates = Arrays.copyOf(lists.get(0).rows, lists.get(0).size);
+        int count = candidates.length;
+        for (int list = 1; list < lists.size() && count > 0; list++) {
+            count = lists.get(list).retainAll(candidates, count);
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private static final class Postings {
+
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        /*
+         * Keeps the first count candidates that are also in this list, in place; both are sorted.
+         */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int position = Arrays.binarySearch(rows, from, size, candidates[i]);
+                if (position >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
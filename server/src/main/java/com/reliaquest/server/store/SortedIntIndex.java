@@ -0,0 +1,96 @@
+package com.reliaquest.server.store;
+
+import java.util.Arrays;
+
+/**
+ * Range index over an {@code int} column: (value, row) pairs packed into single {@code long}s, value in the high half,
+ * kept sorted. A range lookup is two binary searches, after which the matching rows are read off contiguously.
+ * Inserting or removing shifts the tail of the array, which is a plain memory move even for large rosters.
+ */
+final class SortedIntIndex {
+
+    private long[] entries;
+    private int size;
+
+    SortedIntIndex(int capacity) {
+        this.entries = new long[Math.max(1, capacity)];
+    }
+
+    void add(int value, int row) {
+        long entry = pack(value, row);
+        int index = lowerBound(entry);
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        System.arraycopy(entries, index, entries, index + 1, size - index);
+        entries[index] = entry;
+        size++;
+    }
+
+    void remove(int value, int row) {
+        long entry = pack(value, row);
+        int index = lowerBound(entry);
+        if (index < size && entries[index] == entry) {
+            System.arraycopy(entries, index + 1, entries, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Appends an entry without keeping the order, for bulk loads; {@link #sort()} must follow the last one.
+     */
+    void addUnsorted(int value, int row) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = pack(value, row);
+    }
+
+    void sort() {
+        Arrays.sort(entries, 0, size);
+    }
+
+    /**
+     * @return position of the first entry with a value of at least {@code min}
+     */
+    int from(int min) {
+        return lowerBound(pack(min, 0));
+    }
+
+    /**
+     * @return position after the last entry with a value of at most {@code max}
+     */
+    int to(int max) {
+        return max == Integer.MAX_VALUE ? size : lowerBound(pack(max + 1, 0));
+    }
+
+    int size() {
+        return size;
+    }
+
+    int value(int position) {
+        return (int) (entries[position] >> 32);
+    }
+
+    int row(int position) {
+        return (int) entries[position];
+    }
+
+    private int lowerBound(long entry) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid] < entry) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long pack(int value, int row) {
+        return ((long) value << 32) | row;
+    }
+}
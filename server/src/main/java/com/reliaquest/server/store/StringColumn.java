@@ -0,0 +1,293 @@
+package com.reliaquest.server.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.LongConsumer;
+
+/**
+ * Append-only column of strings packed into one shared buffer. Row {@code i} spans {@code offsets[i]} (inclusive) to
+ * {@code offsets[i + 1]} (exclusive); {@code null} values are tracked separately.
+ * <p>
+ * Like the JDK's compact strings, characters are stored one byte each (Latin-1) until the first value that needs
+ * UTF-16 arrives, at which point the whole column is inflated to {@code char}s.
+ */
+final class StringColumn {
+
+    private byte[] latin1;
+    private char[] utf16;
+    private int charCount;
+    private int[] offsets;
+    private int size;
+    private final BitSet nulls = new BitSet();
+
+    StringColumn(int capacity, int averageLength) {
+        this.latin1 = new byte[Math.max(16, capacity * averageLength)];
+        this.offsets = new int[Math.max(1, capacity) + 1];
+    }
+
+    private StringColumn(byte[] latin1, char[] utf16, int[] offsets, BitSet nulls) {
+        this.latin1 = latin1;
+        this.utf16 = utf16;
+        this.offsets = offsets;
+        this.size = offsets.length - 1;
+        this.charCount = offsets[size];
+        this.nulls.or(nulls);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(String value) {
+        ensureRowCapacity(size + 1);
+        if (value == null) {
+            nulls.set(size);
+        } else {
+            int length = value.length();
+            ensureCharCapacity(charCount + length);
+            if (latin1 != null && !isLatin1(value)) {
+                inflate();
+            }
+            if (latin1 != null) {
+                for (int i = 0; i < length; i++) {
+                    latin1[charCount + i] = (byte) value.charAt(i);
+                }
+            } else {
+                value.getChars(0, length, utf16, charCount);
+            }
+            charCount += length;
+        }
+        offsets[++size] = charCount;
+    }
+
+    /**
+     * Appends row {@code row} of {@code source} without materializing it as a {@link String}.
+     */
+    void addFrom(StringColumn source, int row) {
+        ensureRowCapacity(size + 1);
+        if (source.isNull(row)) {
+            nulls.set(size);
+        } else {
+            int start = source.offsets[row];
+            int length = source.length(row);
+            ensureCharCapacity(charCount + length);
+            if (latin1 != null && source.latin1 == null) {
+                inflate();
+            }
+            if (source.latin1 != null && latin1 != null) {
+                System.arraycopy(source.latin1, start, latin1, charCount, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    utf16[charCount + i] = source.charAt(start + i);
+                }
+            }
+            charCount += length;
+        }
+        offsets[++size] = charCount;
+    }
+
+    boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    int length(int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+
+    String get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        if (latin1 != null) {
+            return new String(latin1, offsets[row], length(row), StandardCharsets.ISO_8859_1);
+        }
+        return new String(utf16, offsets[row], length(row));
+    }
+
+    boolean equalsIgnoreCase(int row, String value) {
+        if (isNull(row) || value == null || length(row) != value.length()) {
+            return false;
+        }
+        int start = offsets[row];
+        for (int i = 0; i < value.length(); i++) {
+            char c1 = charAt(start + i);
+            char c2 = value.charAt(i);
+            if (c1 != c2) {
+                char u1 = Character.toUpperCase(c1);
+                char u2 = Character.toUpperCase(c2);
+                if (u1 != u2 && Character.toLowerCase(u1) != Character.toLowerCase(u2)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param lowerCaseNeedle needle already lower-cased character by character
+     */
+    boolean containsIgnoreCase(int row, char[] lowerCaseNeedle) {
+        if (isNull(row)) {
+            return false;
+        }
+        int start = offsets[row];
+        int last = offsets[row + 1] - lowerCaseNeedle.length;
+        outer:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < lowerCaseNeedle.length; j++) {
+                if (Character.toLowerCase(charAt(i + j)) != lowerCaseNeedle[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Passes every run of three consecutive characters of the row, lower-cased and packed by {@link #trigram}, to
+     * {@code action}, repeats included.
+     */
+    void forEachLowerCaseTrigram(int row, LongConsumer action) {
+        if (isNull(row)) {
+            return;
+        }
+        int end = offsets[row + 1];
+        for (int i = offsets[row]; i + 3 <= end; i++) {
+            action.accept(trigram(
+                    Character.toLowerCase(charAt(i)),
+                    Character.toLowerCase(charAt(i + 1)),
+                    Character.toLowerCase(charAt(i + 2))));
+        }
+    }
+
+    static long trigram(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    /**
+     * Releases spare capacity left over from growth, e.g. after a bulk load.
+     */
+    void trimToSize() {
+        offsets = Arrays.copyOf(offsets, size + 1);
+        if (latin1 != null) {
+            latin1 = Arrays.copyOf(latin1, charCount);
+        } else {
+            utf16 = Arrays.copyOf(utf16, charCount);
+        }
+    }
+
+    /**
+     * @return bytes {@link #write} needs for the given rows
+     */
+    long serializedSize(int[] rows) {
+        long chars = 0;
+        for (int row : rows) {
+            chars += length(row);
+        }
+        int bytesPerChar = latin1 != null ? Byte.BYTES : Character.BYTES;
+        return 1
+                + Integer.BYTES * (rows.length + 1L)
+                + Long.BYTES * (1L + nullWords(rows.length))
+                + chars * bytesPerChar;
+    }
+
+    /**
+     * Writes the given rows as: encoding flag, {@code rows.length + 1} offsets, the null bit set and the characters.
+     */
+    void write(ByteBuffer target, int[] rows) {
+        target.put((byte) (latin1 != null ? 0 : 1));
+        int offset = 0;
+        target.putInt(offset);
+        for (int row : rows) {
+            offset += length(row);
+            target.putInt(offset);
+        }
+        long[] nullWords = new long[nullWords(rows.length)];
+        for (int i = 0; i < rows.length; i++) {
+            if (isNull(rows[i])) {
+                nullWords[i >>> 6] |= 1L << i;
+            }
+        }
+        target.putLong(nullWords.length);
+        for (long word : nullWords) {
+            target.putLong(word);
+        }
+        for (int row : rows) {
+            int start = offsets[row];
+            int length = length(row);
+            if (latin1 != null) {
+                target.put(latin1, start, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    target.putChar(utf16[start + i]);
+                }
+            }
+        }
+    }
+
+    static StringColumn read(ByteBuffer source, int size) {
+        boolean isLatin1 = source.get() == 0;
+        int[] offsets = new int[size + 1];
+        source.asIntBuffer().get(offsets);
+        source.position(source.position() + Integer.BYTES * offsets.length);
+        long[] nullWords = new long[(int) source.getLong()];
+        source.asLongBuffer().get(nullWords);
+        source.position(source.position() + Long.BYTES * nullWords.length);
+        int charCount = offsets[size];
+        if (isLatin1) {
+            byte[] latin1 = new byte[charCount];
+            source.get(latin1);
+            return new StringColumn(latin1, null, offsets, BitSet.valueOf(nullWords));
+        }
+        char[] utf16 = new char[charCount];
+        source.asCharBuffer().get(utf16);
+        source.position(source.position() + Character.BYTES * charCount);
+        return new StringColumn(null, utf16, offsets, BitSet.valueOf(nullWords));
+    }
+
+    private static int nullWords(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    private char charAt(int index) {
+        return latin1 != null ? (char) (latin1[index] & 0xFF) : utf16[index];
+    }
+
+    private void inflate() {
+        utf16 = new char[latin1.length];
+        for (int i = 0; i < charCount; i++) {
+            utf16[i] = (char) (latin1[i] & 0xFF);
+        }
+        latin1 = null;
+    }
+
+    private void ensureRowCapacity(int rows) {
+        if (rows + 1 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(rows + 1, offsets.length + (offsets.length >> 1)));
+        }
+    }
+
+    private void ensureCharCapacity(int length) {
+        int capacity = latin1 != null ? latin1.length : utf16.length;
+        if (length > capacity) {
+            int newCapacity = Math.max(length, capacity + (capacity >> 1));
+            if (latin1 != null) {
+                latin1 = Arrays.copyOf(latin1, newCapacity);
+            } else {
+                utf16 = Arrays.copyOf(utf16, newCapacity);
+            }
+        }
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,225 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Makes the mock server behave like a realistic, imperfect upstream: injects latency drawn from a configurable
+ * distribution, fails a fraction of requests, drops connections mid-response and trickles response bodies out slowly.
+ * <p>
+ * Implemented as a servlet filter rather than a {@code HandlerInterceptor} because slow-drip needs to wrap the
+ * response body. The body is paced as it is written rather than buffered, so responses written after the handler
+ * returns, such as the streamed export, drip as well. Enabled with {@code mock.faults.enabled}; see
+ * {@link FaultInjectionProperties}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FaultInjectionFilter extends OncePerRequestFilter {
+
+    private static final double Z_99 = 2.3263478740408408;
+    private static final long DRIP_INTERVAL_MILLIS = 100;
+
+    private final List<FaultInjectionProperties.Profile> profiles;
+    private final RandomGenerator random;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final var profile = match(request);
+        if (profile == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        sleep(delay(profile.getLatency()));
+        final var dice = random.nextDouble();
+        if (dice < profile.getResetRate()) {
+            log.debug("Injecting connection reset for {} {}", request.getMethod(), request.getRequestURI());
+            reset(response);
+            return;
+        }
+        if (dice < profile.getResetRate() + profile.getErrorRate()) {
+            log.debug(
+                    "Injecting status {} for {} {}",
+                    profile.getErrorStatus(),
+                    request.getMethod(),
+                    request.getRequestURI());
+            response.setStatus(profile.getErrorStatus());
+            return;
+        }
+        if (profile.getSlowDripBytesPerSecond() > 0) {
+            final var dripping = new DrippingResponse(response, profile.getSlowDripBytesPerSecond());
+            chain.doFilter(request, dripping);
+            dripping.flushWriter();
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private FaultInjectionProperties.Profile match(HttpServletRequest request) {
+        for (FaultInjectionProperties.Profile profile : profiles) {
+            if ((profile.getMethod() == null || profile.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(profile.getPath(), request.getRequestURI())) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    Duration delay(FaultInjectionProperties.Latency latency) {
+        final var millis =
+                switch (latency.getDistribution()) {
+                    case NONE -> 0d;
+                    case FIXED -> (double) latency.getValue().toMillis();
+                    case NORMAL -> latency.getValue().toMillis()
+                            + random.nextGaussian() * latency.getStddev().toMillis();
+                    case LONG_TAIL -> {
+                        // log-normal with the configured median and p99
+                        final var median = Math.max(1, latency.getValue().toMillis());
+                        final var p99 = Math.max(median, latency.getP99().toMillis());
+                        final var sigma = Math.log((double) p99 / median) / Z_99;
+                        yield Math.exp(Math.log(median) + sigma * random.nextGaussian());
+                    }
+                };
+        return Duration.ofMillis((long) Math.min(Math.max(0, millis), latency.getMax().toMillis()));
+    }
+
+    /*
+     * Promises a body, sends part of it and closes the connection, which clients see as a premature close.
+     */
+    private static void reset(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType("application/json");
+        response.setContentLength(1024);
+        response.getOutputStream().write("{\"data\":[".getBytes());
+        response.flushBuffer();
+    }
+
+    /*
+     * Lets a chunk of the configured size through every drip interval, flushing each one. Only the body is paced; a
+     * content length set by the handler is kept.
+     */
+    private static final class DrippingResponse extends HttpServletResponseWrapper {
+
+        private final int chunk;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private DrippingResponse(HttpServletResponse response, int bytesPerSecond) {
+            super(response);
+            this.chunk = (int) Math.max(1, bytesPerSecond * DRIP_INTERVAL_MILLIS / 1000);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new DrippingOutputStream(super.getOutputStream(), chunk);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        private void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+    }
+
+    private static final class DrippingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream out;
+        private final int chunk;
+        private int leftInChunk;
+
+        private DrippingOutputStream(ServletOutputStream out, int chunk) {
+            this.out = out;
+            this.chunk = chunk;
+            this.leftInChunk = chunk;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            awaitChunk();
+            out.write(b);
+            leftInChunk--;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                awaitChunk();
+                final var n = Math.min(len, leftInChunk);
+                out.write(b, off, n);
+                leftInChunk -= n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return out.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            out.setWriteListener(writeListener);
+        }
+
+        private void awaitChunk() throws IOException {
+            if (leftInChunk == 0) {
+                out.flush();
+                sleep(Duration.ofMillis(DRIP_INTERVAL_MILLIS));
+                leftInChunk = chunk;
+            }
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-endpoint latency and fault profiles applied by {@link FaultInjectionFilter}. The first profile whose method and
+ * path pattern match a request applies; requests matching no profile pass through untouched.
+ */
+@Data
+@ConfigurationProperties(prefix = "mock.faults")
+public class FaultInjectionProperties {
+
+    private boolean enabled;
+
+    /**
+     * Seed for the fault dice, so a run can be reproduced; random when unset.
+     */
+    private Long seed;
+
+    private List<Profile> profiles = new ArrayList<>();
+
+    @Data
+    public static class Profile {
+
+        /**
+         * HTTP method to match; any method when unset.
+         */
+        private String method;
+
+        /**
+         * Ant-style path pattern, e.g. {@code /api/v1/employee/*}.
+         */
+        private String path = "/**";
+
+        private Latency latency = new Latency();
+
+        /**
+         * Fraction of requests answered with {@link #errorStatus} instead of reaching the controller.
+         */
+        private double errorRate;
+
+        private int errorStatus = 500;
+
+        /**
+         * Fraction of requests whose connection is closed in the middle of the response.
+         */
+        private double resetRate;
+
+        /**
+         * When positive, response bodies are released at this many bytes per second.
+         */
+        private int slowDripBytesPerSecond;
+    }
+
+    @Data
+    public static class Latency {
+
+        private Distribution distribution = Distribution.NONE;
+
+        /**
+         * Delay for {@code FIXED}, mean for {@code NORMAL}, median for {@code LONG_TAIL}.
+         */
+        private Duration value = Duration.ZERO;
+
+        /**
+         * Standard deviation for {@code NORMAL}.
+         */
+        private Duration stddev = Duration.ZERO;
+
+        /**
+         * 99th percentile for {@code LONG_TAIL}, which is log-normal around {@link #value}.
+         */
+        private Duration p99 = Duration.ZERO;
+
+        /**
+         * Upper bound on any injected delay.
+         */
+        private Duration max = Duration.ofSeconds(30);
+    }
+
+    public enum Distribution {
+        NONE,
+        FIXED,
+        NORMAL,
+        LONG_TAIL
+    }
+}
@@ -1,48 +1,74 @@
 package com.reliaquest.server.web;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.random.RandomGenerator;
 import lombok.Getter;
+import lombok.NonNull;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 public class RandomRequestLimitInterceptor implements HandlerInterceptor {
 
-    private static final int REQUEST_LIMIT = RandomGenerator.getDefault().nextInt(5, 10);
-    private static final Duration REQUEST_BACKOFF_DURATION =
-            Duration.ofSeconds(RandomGenerator.getDefault().nextInt(30, 90));
+    private final int requestLimitCount;
+    private final Duration requestBackoffDuration;
+    private final Clock clock;
 
-    private final AtomicReference<RequestLimit> requestLimit = new AtomicReference<>(RequestLimit.init());
+    private final AtomicReference<RequestLimit> requestLimit;
+
+    public RandomRequestLimitInterceptor() {
+        this(
+                RandomGenerator.getDefault().nextInt(5, 10),
+                Duration.ofSeconds(RandomGenerator.getDefault().nextInt(30, 90)),
+                Clock.systemUTC());
+    }
+
+    /**
+     * Fixed limit and backoff window, with time read from {@code clock}, so traffic can be replayed against the
+     * limiter in virtual time.
+     */
+    public RandomRequestLimitInterceptor(
+            int requestLimitCount, @NonNull Duration requestBackoffDuration, @NonNull Clock clock) {
+        this.requestLimitCount = requestLimitCount;
+        this.requestBackoffDuration = requestBackoffDuration;
+        this.clock = clock;
+        this.requestLimit = new AtomicReference<>(RequestLimit.init(clock.instant()));
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        if (requestLimit.get().getCount() >= REQUEST_LIMIT) {
-            if (Instant.now()
-                    .minus(REQUEST_BACKOFF_DURATION)
+        // A streamed response is dispatched again once it completes; it was already counted when it came in
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (requestLimit.get().getCount() >= requestLimitCount) {
+            if (clock.instant()
+                    .minus(requestBackoffDuration)
                     .isBefore(requestLimit.get().getLastRequested())) {
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
                 return false;
             }
-            if (Instant.now()
-                    .minus(REQUEST_BACKOFF_DURATION)
+            if (clock.instant()
+                    .minus(requestBackoffDuration)
                     .isAfter(requestLimit.get().getLastRequested())) {
-                requestLimit.set(RequestLimit.init());
+                requestLimit.set(RequestLimit.init(clock.instant()));
             }
         } else {
             requestLimit.getAndUpdate(
-                    currentRequestLimit -> new RequestLimit(currentRequestLimit.count() + 1, Instant.now()));
+                    currentRequestLimit -> new RequestLimit(currentRequestLimit.count() + 1, clock.instant()));
         }
 
         return true;
     }
 
     private record RequestLimit(@Getter int count, @Getter Instant lastRequested) {
-        public static RequestLimit init() {
-            return new RequestLimit(0, Instant.now());
+        public static RequestLimit init(Instant now) {
+            return new RequestLimit(0, now);
         }
     }
 }
@@ -0,0 +1,66 @@
+package com.reliaquest.server.profiling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+public class JfrRecorderTest {
+
+    private final JfrRecorder recorder = new JfrRecorder(Duration.ofSeconds(5));
+
+    private CompletableFuture<byte[]> recordAsync(Duration duration) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return recorder.record(duration, "default");
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+
+    @Test
+    public void testRecordingContainsEmployeeRequestEvents() throws Exception {
+        final var recording = recordAsync(Duration.ofMillis(300));
+        while (!recording.isDone()) {
+            final var event = new EmployeeRequestEvent();
+            event.begin();
+            event.method = "GET";
+            event.path = "/api/v1/employee";
+            event.status = 200;
+            event.commit();
+            Thread.sleep(10);
+        }
+
+        final var file = Files.createTempFile("jfr-recorder-test-", ".jfr");
+        try {
+            Files.write(file, recording.get());
+            final var employeeRequest = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.reliaquest.server.EmployeeRequest"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals("/api/v1/employee", employeeRequest.getString("path"));
+            assertEquals(200, employeeRequest.getInt("status"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testInvalidRequestsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ZERO, "profile"));
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ofSeconds(6), "profile"));
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ofSeconds(1), "custom"));
+    }
+
+    @Test
+    public void testOneRecordingAtATime() throws Exception {
+        final var first = recordAsync(Duration.ofSeconds(1));
+        Thread.sleep(200);
+        assertThrows(IllegalStateException.class, () -> recorder.record(Duration.ofMillis(100), "default"));
+        assertTrue(first.get().length > 0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.reliaquest.server.profiling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class ManagementTokenFilterTest {
+
+    private MockHttpServletResponse filter(String token, String authorization) throws Exception {
+        final var request = new MockHttpServletRequest("POST", "/actuator/jfr");
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        final var response = new MockHttpServletResponse();
+        final var chain = new MockFilterChain();
+        new ManagementTokenFilter(token).doFilter(request, response, chain);
+        if (chain.getRequest() != null) {
+            response.setStatus(204);
+        }
+        return response;
+    }
+
+    @Test
+    public void testMatchingTokenAdmitted() throws Exception {
+        assertEquals(204, filter("s3cret", "Bearer s3cret").getStatus());
+    }
+
+    @Test
+    public void testMissingOrWrongTokenUnauthorized() throws Exception {
+        assertEquals(401, filter("s3cret", null).getStatus());
+        assertEquals(401, filter("s3cret", "Bearer wrong").getStatus());
+        assertEquals(401, filter("s3cret", "Basic s3cret").getStatus());
+        assertEquals("Bearer", filter("s3cret", null).getHeader(HttpHeaders.WWW_AUTHENTICATE));
+    }
+
+    @Test
+    public void testEverythingForbiddenWithoutConfiguredToken() throws Exception {
+        assertEquals(403, filter("", "Bearer ").getStatus());
+    }
+
+    @Test
+    public void testNullTokenRejected() {
+        assertThrows(NullPointerException.class, () -> new ManagementTokenFilter(null));
+    }
+}
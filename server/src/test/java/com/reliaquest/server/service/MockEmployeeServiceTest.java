@@ -0,0 +1,81 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.MockEmployeeRoster;
+import com.reliaquest.server.store.MockEmployeeRosterFile;
+import com.reliaquest.server.store.MockEmployeeWriteAheadLog;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MockEmployeeServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private static CreateMockEmployeeInput input(String name) {
+        final var input = new CreateMockEmployeeInput();
+        input.setName(name);
+        input.setSalary(50000);
+        input.setAge(30);
+        input.setTitle("Engineer");
+        return input;
+    }
+
+    private MockEmployeeWriteAheadLog closedWriteAheadLog(MockEmployeeRoster roster) throws IOException {
+        final var snapshot = directory.resolve("roster.bin");
+        MockEmployeeRosterFile.write(roster, snapshot);
+        final var wal = MockEmployeeWriteAheadLog.recover(snapshot, roster, 16);
+        wal.close();
+        return wal;
+    }
+
+    @Test
+    public void testCreateThatFailsToLogLeavesRosterUntouched() throws IOException {
+        final var roster = new MockEmployeeRoster();
+        final var service =
+                new MockEmployeeService(new Faker(Locale.ENGLISH), roster, Optional.of(closedWriteAheadLog(roster)));
+
+        assertThrows(CompletionException.class, () -> service.create(input("Nikhil")));
+        assertEquals(0, roster.size());
+    }
+
+    @Test
+    public void testDeleteThatFailsToLogLeavesRosterUntouched() throws IOException {
+        final var roster = new MockEmployeeRoster();
+        roster.add(MockEmployee.from("nikhil@company.com", input("Nikhil")));
+        final var service =
+                new MockEmployeeService(new Faker(Locale.ENGLISH), roster, Optional.of(closedWriteAheadLog(roster)));
+        final var delete = new DeleteMockEmployeeInput();
+        delete.setName("nikhil");
+
+        assertThrows(CompletionException.class, () -> service.delete(delete));
+        assertEquals(1, roster.size());
+    }
+
+    @Test
+    public void testFindsEmployeesById() {
+        final var roster = new MockEmployeeRoster();
+        final var service = new MockEmployeeService(new Faker(Locale.ENGLISH), roster, Optional.empty());
+        final var first = service.create(input("Nikhil"));
+        final var second = service.create(input("Mayuri"));
+        final var unknown = UUID.randomUUID();
+
+        assertEquals(Optional.of(first), service.findById(first.getId()));
+        assertEquals(Optional.empty(), service.findById(unknown));
+        assertEquals(
+                List.of(second, first),
+                service.findAllById(List.of(second.getId(), unknown, first.getId(), second.getId())));
+    }
+}
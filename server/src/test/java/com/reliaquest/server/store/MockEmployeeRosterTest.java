@@ -0,0 +1,78 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class MockEmployeeRosterTest {
+
+    private static final int EMPLOYEES = 5_000;
+
+    private static int add(MockEmployeeRoster roster, UUID id) {
+        return roster.add(id, "Employee " + id, 50000, 30, "Engineer", null);
+    }
+
+    @Test
+    public void testIndexOfFindsEveryLiveEmployee() {
+        final var roster = new MockEmployeeRoster();
+        final var ids = new ArrayList<UUID>();
+        // Queried once before the adds, so the id index is kept up to date from the start
+        assertEquals(-1, roster.indexOf(UUID.randomUUID()));
+        for (int i = 0; i < EMPLOYEES; i++) {
+            ids.add(UUID.randomUUID());
+            assertEquals(i, add(roster, ids.get(i)));
+        }
+
+        for (int i = 0; i < EMPLOYEES; i++) {
+            assertEquals(i, roster.indexOf(ids.get(i)));
+        }
+        assertEquals(-1, roster.indexOf(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testIndexOfForgetsRemovedEmployees() {
+        final var roster = new MockEmployeeRoster();
+        final var ids = new ArrayList<UUID>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            ids.add(UUID.randomUUID());
+            add(roster, ids.get(i));
+        }
+        roster.indexOf(ids.get(0));
+        // Enough removals that many of them shift later entries of a probe run back into the freed slot
+        for (int i = 0; i < EMPLOYEES; i += 3) {
+            assertTrue(roster.remove(roster.indexOf(ids.get(i))));
+        }
+
+        for (int i = 0; i < EMPLOYEES; i++) {
+            final var row = roster.indexOf(ids.get(i));
+            if (i % 3 == 0) {
+                assertEquals(-1, row);
+            } else {
+                assertEquals(ids.get(i), roster.id(row));
+            }
+        }
+    }
+
+    @Test
+    public void testIndexOfAfterCompaction() {
+        final var roster = new MockEmployeeRoster();
+        final var ids = new ArrayList<UUID>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(UUID.randomUUID());
+            add(roster, ids.get(i));
+        }
+        for (int i = 0; i < 60; i++) {
+            roster.remove(roster.indexOf(ids.get(i)));
+        }
+        assertTrue(roster.compactIfFragmented());
+
+        assertEquals(-1, roster.indexOf(ids.get(0)));
+        assertEquals(0, roster.indexOf(ids.get(60)));
+        assertEquals(39, roster.indexOf(ids.get(99)));
+        final var added = UUID.randomUUID();
+        assertEquals(40, add(roster, added));
+        assertEquals(40, roster.indexOf(added));
+    }
+}
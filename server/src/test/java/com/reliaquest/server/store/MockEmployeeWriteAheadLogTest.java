@@ -0,0 +1,119 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MockEmployeeWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50000)
+                .age(30)
+                .title("Engineer")
+                .email(name.toLowerCase() + "@company.com")
+                .build();
+    }
+
+    private MockEmployeeRoster recover(Path snapshot) throws IOException {
+        final var roster = MockEmployeeRosterFile.read(snapshot);
+        MockEmployeeWriteAheadLog.recover(snapshot, roster, 16).close();
+        return roster;
+    }
+
+    @Test
+    public void testReplaysMutationsLoggedAfterSnapshot() throws IOException {
+        final var snapshot = directory.resolve("roster.bin");
+        final var roster = new MockEmployeeRoster();
+        final var kept = employee("Nikhil");
+        final var deleted = employee("Mayuri");
+        MockEmployeeRosterFile.write(roster, snapshot);
+        try (final var wal = MockEmployeeWriteAheadLog.recover(snapshot, roster, 16)) {
+            wal.appendCreate(kept).join();
+            wal.appendCreate(deleted).join();
+            wal.appendDelete(deleted.getId()).join();
+        }
+
+        final var recovered = recover(snapshot);
+        assertEquals(1, recovered.size());
+        assertEquals(kept, recovered.get(recovered.indexOf(kept.getId())));
+    }
+
+    @Test
+    public void testDeleteAfterSnapshotSurvivesCrashBeforeSegmentsAreDropped() throws IOException {
+        final var snapshot = directory.resolve("roster.bin");
+        final var roster = new MockEmployeeRoster();
+        final var employee = employee("Nikhil");
+        MockEmployeeRosterFile.write(roster, snapshot);
+        try (final var wal = MockEmployeeWriteAheadLog.recover(snapshot, roster, 16)) {
+            wal.appendCreate(employee).join();
+            roster.add(employee);
+            wal.rotate().join();
+            MockEmployeeRosterFile.write(roster, snapshot);
+            wal.appendDelete(employee.getId()).join();
+            // Crashes before deleteSegmentsThrough, so the create is replayed along with the delete
+        }
+
+        final var recovered = recover(snapshot);
+        assertEquals(0, recovered.size());
+        assertEquals(-1, recovered.indexOf(employee.getId()));
+    }
+
+    @Test
+    public void testSnapshotAlreadyHoldingCreateIsNotDuplicated() throws IOException {
+        final var snapshot = directory.resolve("roster.bin");
+        final var roster = new MockEmployeeRoster();
+        final var employee = employee("Nikhil");
+        MockEmployeeRosterFile.write(roster, snapshot);
+        try (final var wal = MockEmployeeWriteAheadLog.recover(snapshot, roster, 16)) {
+            wal.appendCreate(employee).join();
+            roster.add(employee);
+            wal.rotate().join();
+            MockEmployeeRosterFile.write(roster, snapshot);
+        }
+
+        assertEquals(1, recover(snapshot).size());
+    }
+
+    @Test
+    public void testAppendsRacingCloseAllComplete() throws Exception {
+        final var snapshot = directory.resolve("roster.bin");
+        MockEmployeeRosterFile.write(new MockEmployeeRoster(), snapshot);
+        final var wal = MockEmployeeWriteAheadLog.recover(snapshot, new MockEmployeeRoster(), 16);
+        final var futures = new ConcurrentLinkedQueue<CompletableFuture<Void>>();
+        final var appenders = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            final var appender = new Thread(() -> {
+                for (int j = 0; j < 500; j++) {
+                    futures.add(wal.appendCreate(employee("Employee")));
+                }
+            });
+            appenders.add(appender);
+            appender.start();
+        }
+        wal.close();
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+
+        // Each append is either durable or failed as closed; none is left pending
+        for (CompletableFuture<Void> future : futures) {
+            assertTrue(future.handle((ignored, failure) -> true).get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(wal.appendDelete(UUID.randomUUID()).isCompletedExceptionally());
+    }
+}
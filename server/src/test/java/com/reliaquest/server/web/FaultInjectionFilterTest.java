@@ -0,0 +1,200 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.controller.MockEmployeeController;
+import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.store.MockEmployeeRoster;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+public class FaultInjectionFilterTest {
+
+    private static final int SAMPLES = 20_000;
+
+    private static FaultInjectionFilter filter(FaultInjectionProperties.Profile profile) {
+        return new FaultInjectionFilter(List.of(profile), new Random(42));
+    }
+
+    private static FaultInjectionProperties.Latency latency(
+            FaultInjectionProperties.Distribution distribution, long valueMillis) {
+        final var latency = new FaultInjectionProperties.Latency();
+        latency.setDistribution(distribution);
+        latency.setValue(Duration.ofMillis(valueMillis));
+        return latency;
+    }
+
+    private static long[] sampleMillis(FaultInjectionProperties.Latency latency) {
+        final var filter = filter(new FaultInjectionProperties.Profile());
+        final var samples = new long[SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = filter.delay(latency).toMillis();
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    @Test
+    public void testNoneAndFixedDelays() {
+        assertEquals(
+                Duration.ZERO,
+                filter(new FaultInjectionProperties.Profile())
+                        .delay(latency(FaultInjectionProperties.Distribution.NONE, 250)));
+        final var fixed = sampleMillis(latency(FaultInjectionProperties.Distribution.FIXED, 250));
+        assertEquals(250, fixed[0]);
+        assertEquals(250, fixed[fixed.length - 1]);
+    }
+
+    @Test
+    public void testNormalDelayHasConfiguredMean() {
+        final var latency = latency(FaultInjectionProperties.Distribution.NORMAL, 200);
+        latency.setStddev(Duration.ofMillis(50));
+        final var samples = sampleMillis(latency);
+
+        final var mean = Arrays.stream(samples).average().orElseThrow();
+        assertEquals(200, mean, 2);
+        assertEquals(200, samples[SAMPLES / 2], 2);
+    }
+
+    @Test
+    public void testLongTailDelayHasConfiguredMedianAndP99() {
+        final var latency = latency(FaultInjectionProperties.Distribution.LONG_TAIL, 100);
+        latency.setP99(Duration.ofSeconds(1));
+        final var samples = sampleMillis(latency);
+
+        assertEquals(100, samples[SAMPLES / 2], 5);
+        assertEquals(1000, samples[SAMPLES * 99 / 100], 150);
+    }
+
+    @Test
+    public void testDelayIsClampedToZeroAndMax() {
+        final var latency = latency(FaultInjectionProperties.Distribution.NORMAL, 0);
+        latency.setStddev(Duration.ofMillis(500));
+        latency.setMax(Duration.ofMillis(100));
+        final var samples = sampleMillis(latency);
+
+        assertEquals(0, samples[0]);
+        assertEquals(100, samples[SAMPLES - 1]);
+    }
+
+    @Test
+    public void testSplitsResetsAndErrorsByRate() throws ServletException, IOException {
+        final var profile = new FaultInjectionProperties.Profile();
+        profile.setResetRate(0.2);
+        profile.setErrorRate(0.3);
+        profile.setErrorStatus(503);
+        final var filter = filter(profile);
+        final var passed = new AtomicInteger();
+        int resets = 0;
+        int errors = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            final var response = new MockHttpServletResponse();
+            filter.doFilter(
+                    new MockHttpServletRequest("GET", "/api/v1/employee"),
+                    response,
+                    (request, ignored) -> passed.incrementAndGet());
+            if ("close".equals(response.getHeader(HttpHeaders.CONNECTION))) {
+                resets++;
+            } else if (response.getStatus() == 503) {
+                errors++;
+            }
+        }
+
+        assertEquals(0.2, (double) resets / SAMPLES, 0.01);
+        assertEquals(0.3, (double) errors / SAMPLES, 0.01);
+        assertEquals(SAMPLES - resets - errors, passed.get());
+    }
+
+    @Test
+    public void testPassesUnmatchedRequestsThrough() throws ServletException, IOException {
+        final var profile = new FaultInjectionProperties.Profile();
+        profile.setMethod("POST");
+        profile.setErrorRate(1);
+        final var passed = new AtomicInteger();
+
+        filter(profile)
+                .doFilter(
+                        new MockHttpServletRequest("GET", "/api/v1/employee"),
+                        new MockHttpServletResponse(),
+                        (request, response) -> passed.incrementAndGet());
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    public void testDripsBodyAtConfiguredRate() throws ServletException, IOException {
+        final var profile = new FaultInjectionProperties.Profile();
+        profile.setSlowDripBytesPerSecond(1000);
+        final var body = new byte[250];
+        Arrays.fill(body, (byte) 'x');
+        final var response = new MockHttpServletResponse();
+
+        final var start = System.nanoTime();
+        filter(profile)
+                .doFilter(
+                        new MockHttpServletRequest("GET", "/api/v1/employee"),
+                        response,
+                        (request, wrapped) -> wrapped.getOutputStream().write(body));
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // 100 bytes every 100ms: the third chunk goes out 200ms after the first
+        assertTrue(elapsed.compareTo(Duration.ofMillis(200)) >= 0, "Dripped in " + elapsed);
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testDripsStreamedExport() throws Exception {
+        final var service =
+                new MockEmployeeService(new Faker(Locale.ENGLISH), new MockEmployeeRoster(), Optional.empty());
+        final var names = List.of("Nikhil", "Mayuri", "Ravi");
+        for (String name : names) {
+            final var input = new CreateMockEmployeeInput();
+            input.setName(name);
+            input.setSalary(50000);
+            input.setAge(30);
+            input.setTitle("Engineer");
+            service.create(input);
+        }
+        final var profile = new FaultInjectionProperties.Profile();
+        profile.setPath("/api/v1/employee/export");
+        profile.setSlowDripBytesPerSecond(1000);
+        final var mockMvc = MockMvcBuilders.standaloneSetup(new MockEmployeeController(service, new ObjectMapper()))
+                .addFilters(filter(profile))
+                .build();
+
+        final var start = System.nanoTime();
+        // The body is written on another thread after the handler has returned
+        final var export = mockMvc.perform(get("/api/v1/employee/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        final var lines = export.getResponse().getContentAsString().lines().toList();
+        assertEquals(names.size(), lines.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertTrue(lines.get(i).contains("\"employee_name\":\"" + names.get(i) + "\""), lines.get(i));
+        }
+        final var bytes = export.getResponse().getContentAsByteArray().length;
+        assertTrue(bytes > 100, "Exported " + bytes + " bytes");
+        assertTrue(elapsed.compareTo(Duration.ofMillis((bytes - 1) / 100 * 100)) >= 0, "Dripped in " + elapsed);
+    }
+}
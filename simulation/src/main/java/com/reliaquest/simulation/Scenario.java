@@ -0,0 +1,14 @@
+package com.reliaquest.simulation;
+
+import java.time.Duration;
+
+/**
+ * One combination of upstream rate limit and api retry policy to replay traffic against.
+ *
+ * @param requestLimit requests the upstream admits before it starts throttling
+ * @param limitWindow how long the upstream throttles once the limit is reached
+ * @param retryAttempts attempts per call in total, as {@code employee.client.retry.max-attempts}
+ * @param retryDelay wait between attempts, as {@code employee.client.retry.delay}
+ * @author nikhilchavan
+ */
+public record Scenario(int requestLimit, Duration limitWindow, int retryAttempts, Duration retryDelay) {}
@@ -0,0 +1,102 @@
+package com.reliaquest.simulation;
+
+import com.reliaquest.api.external.UpstreamResult;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Outcome of replaying traffic against one {@link Scenario}. Latencies are in simulated time and cover a whole api
+ * call, retries and the waits between them included.
+ *
+ * @author nikhilchavan
+ */
+public final class ScenarioResult {
+
+    private final Scenario scenario;
+    private final Duration length;
+    private long[] latencies = new long[1024];
+    private int calls;
+    private boolean sorted = true;
+    private long succeeded;
+    private long throttled;
+    private long failed;
+    private long upstreamCalls;
+    private long throttledUpstreamCalls;
+
+    ScenarioResult(Scenario scenario, Duration length) {
+        this.scenario = scenario;
+        this.length = length;
+    }
+
+    void record(UpstreamResult<?> outcome, long latencyNanos) {
+        if (calls == latencies.length) {
+            latencies = Arrays.copyOf(latencies, calls * 2);
+        }
+        latencies[calls++] = latencyNanos;
+        sorted = false;
+        if (outcome instanceof UpstreamResult.Success<?>) {
+            succeeded++;
+        } else if (outcome.isThrottled()) {
+            throttled++;
+        } else {
+            failed++;
+        }
+    }
+
+    void upstream(long calls, long throttledCalls) {
+        this.upstreamCalls = calls;
+        this.throttledUpstreamCalls = throttledCalls;
+    }
+
+    public Scenario scenario() {
+        return scenario;
+    }
+
+    public int calls() {
+        return calls;
+    }
+
+    public long succeeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return calls still throttled after the last attempt
+     */
+    public long throttled() {
+        return throttled;
+    }
+
+    public long failed() {
+        return failed;
+    }
+
+    public double succeededPerHour() {
+        return succeeded * 3_600_000_000_000d / length.toNanos();
+    }
+
+    public long upstreamCalls() {
+        return upstreamCalls;
+    }
+
+    /**
+     * @return upstream calls that were throttled and so did no useful work
+     */
+    public long wastedUpstreamCalls() {
+        return throttledUpstreamCalls;
+    }
+
+    /**
+     * @param quantile between 0 (exclusive) and 1 (inclusive)
+     */
+    public Duration latency(double quantile) {
+        if (calls == 0) {
+            return Duration.ZERO;
+        }
+        if (!sorted) {
+            Arrays.sort(latencies, 0, calls);
+            sorted = true;
+        }
+        return Duration.ofNanos(latencies[Math.max(0, (int) Math.ceil(quantile * calls) - 1)]);
+    }
+}
@@ -0,0 +1,67 @@
+package com.reliaquest.simulation;
+
+import com.reliaquest.server.web.RandomRequestLimitInterceptor;
+import java.time.Duration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stands in for one mock employee service behind a {@code WebClient}: every request first passes the server's real
+ * {@link RandomRequestLimitInterceptor}, reading time from the virtual clock, and an admitted request then takes
+ * {@code serviceTime} of simulated time before it is answered with an empty result. Responses are produced on the
+ * calling thread, so the api's blocking calls complete without leaving the simulated participant.
+ *
+ * @author nikhilchavan
+ */
+final class SimulatedEmployeeService implements ExchangeFunction {
+
+    private static final String EMPTY_LIST = "{\"data\":[],\"status\":\"Successfully processed request.\"}";
+    private static final String SALARY = "{\"data\":100000,\"status\":\"Successfully processed request.\"}";
+
+    private final RandomRequestLimitInterceptor limiter;
+    private final VirtualClock clock;
+    private final Duration serviceTime;
+    private long calls;
+    private long throttledCalls;
+
+    SimulatedEmployeeService(RandomRequestLimitInterceptor limiter, VirtualClock clock, Duration serviceTime) {
+        this.limiter = limiter;
+        this.clock = clock;
+        this.serviceTime = serviceTime;
+    }
+
+    @Override
+    public Mono<ClientResponse> exchange(ClientRequest request) {
+        return Mono.fromSupplier(() -> respond(request));
+    }
+
+    long calls() {
+        return calls;
+    }
+
+    long throttledCalls() {
+        return throttledCalls;
+    }
+
+    private ClientResponse respond(ClientRequest request) {
+        calls++;
+        final String path = request.url().getPath();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        if (!limiter.preHandle(new MockHttpServletRequest(request.method().name(), path), response, this)) {
+            throttledCalls++;
+            return ClientResponse.create(HttpStatus.valueOf(response.getStatus())).build();
+        }
+        clock.sleep(serviceTime);
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(path.endsWith("/highest-salary") ? SALARY : EMPTY_LIST)
+                .build();
+    }
+}
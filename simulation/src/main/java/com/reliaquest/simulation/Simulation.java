@@ -0,0 +1,234 @@
+package com.reliaquest.simulation;
+
+import com.reliaquest.api.config.ApplicationConfiguration;
+import com.reliaquest.api.dto.EmployeeFilterDto;
+import com.reliaquest.api.external.EmployeeIntegrationService;
+import com.reliaquest.api.external.EmployeeLookupBatcher;
+import com.reliaquest.api.external.EmployeeShards;
+import com.reliaquest.api.external.HedgeBudget;
+import com.reliaquest.api.external.KnownEmployeeIds;
+import com.reliaquest.api.external.UpstreamLatencyTracker;
+import com.reliaquest.api.external.UpstreamResult;
+import com.reliaquest.api.logging.LogSampler;
+import com.reliaquest.server.web.RandomRequestLimitInterceptor;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Replays hours of mixed api traffic against the mock server's request limiter in seconds of real time, once per
+ * combination of limiter and retry settings, and prints throughput, latency and wasted upstream calls for each.
+ * <p>
+ * The api's real {@link EmployeeIntegrationService} retry loop and the server's real
+ * {@link RandomRequestLimitInterceptor} run unchanged; only their clock and sleeper are replaced by a
+ * {@link VirtualClock}, and the network by {@link SimulatedEmployeeService}. Options, all optional:
+ * {@code --hours=4 --clients=10 --think-seconds=30 --service-millis=50 --seed=42}.
+ *
+ * @author nikhilchavan
+ */
+public final class Simulation {
+
+    private static final Instant ORIGIN = Instant.parse("2024-01-01T00:00:00Z");
+
+    /**
+     * The two ends of the limiter's randomly chosen settings, each crossed with a range of retry policies.
+     */
+    static final List<Scenario> SCENARIOS = scenarios(
+            new int[] {5, 9},
+            new Duration[] {Duration.ofSeconds(30), Duration.ofSeconds(89)},
+            new int[] {3, 5},
+            new Duration[] {Duration.ofSeconds(5), Duration.ofSeconds(20), Duration.ofSeconds(60)});
+
+    private Simulation() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        final Map<String, String> options = options(args);
+        final Traffic traffic = new Traffic(
+                Duration.ofMinutes(Math.round(Double.parseDouble(options.getOrDefault("hours", "4")) * 60)),
+                Integer.parseInt(options.getOrDefault("clients", "10")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("think-seconds", "30"))),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("service-millis", "50"))),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        final long start = System.nanoTime();
+        final List<ScenarioResult> results = new ArrayList<>();
+        for (Scenario scenario : SCENARIOS) {
+            results.add(run(scenario, traffic));
+        }
+        print(traffic, results, System.out);
+        System.out.printf("Simulated %d scenarios in %d ms%n", results.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replays {@code traffic} against one scenario. Runs with equal arguments produce equal results.
+     */
+    public static ScenarioResult run(Scenario scenario, Traffic traffic) throws InterruptedException {
+        final VirtualClock clock = new VirtualClock(ORIGIN);
+        final SimulatedEmployeeService upstream = new SimulatedEmployeeService(
+                new RandomRequestLimitInterceptor(scenario.requestLimit(), scenario.limitWindow(), clock),
+                clock,
+                traffic.serviceTime());
+        final EmployeeIntegrationService integrationService = integrationService(scenario, clock, upstream);
+        final ScenarioResult result = new ScenarioResult(scenario, traffic.length());
+        final long end = traffic.length().toNanos();
+        for (int client = 0; client < traffic.clients(); client++) {
+            final SplittableRandom random = new SplittableRandom(traffic.seed() * 1_000_003 + client);
+            clock.start("simulated-client-" + client, thinkTime(random, traffic), () -> {
+                while (clock.nanoTime() < end) {
+                    final Operation operation = Operation.pick(random);
+                    final long issuedAt = clock.nanoTime();
+                    final UpstreamResult<?> outcome = operation.call.apply(integrationService);
+                    result.record(outcome, clock.nanoTime() - issuedAt);
+                    clock.sleep(thinkTime(random, traffic));
+                }
+            });
+        }
+        clock.run();
+        result.upstream(upstream.calls(), upstream.throttledCalls());
+        return result;
+    }
+
+    static void print(Traffic traffic, List<ScenarioResult> results, PrintStream out) {
+        out.printf(
+                "%s of traffic from %d clients (mean think time %ss, upstream service time %sms, seed %d)%n%n",
+                traffic.length(),
+                traffic.clients(),
+                traffic.meanThinkTime().toSeconds(),
+                traffic.serviceTime().toMillis(),
+                traffic.seed());
+        out.printf(
+                "%-6s %-7s %-8s %-6s | %7s %9s %9s %7s | %8s %8s %8s %8s | %9s %9s%n",
+                "limit",
+                "window",
+                "attempts",
+                "delay",
+                "calls",
+                "ok/hour",
+                "throttled",
+                "failed",
+                "p50",
+                "p90",
+                "p99",
+                "max",
+                "upstream",
+                "wasted");
+        for (ScenarioResult result : results) {
+            final Scenario scenario = result.scenario();
+            out.printf(
+                    "%-6d %-7s %-8d %-6s | %7d %9.1f %9d %7d | %8s %8s %8s %8s | %9d %9d%n",
+                    scenario.requestLimit(),
+                    seconds(scenario.limitWindow()),
+                    scenario.retryAttempts(),
+                    seconds(scenario.retryDelay()),
+                    result.calls(),
+                    result.succeededPerHour(),
+                    result.throttled(),
+                    result.failed(),
+                    seconds(result.latency(0.5)),
+                    seconds(result.latency(0.9)),
+                    seconds(result.latency(0.99)),
+                    seconds(result.latency(1)),
+                    result.upstreamCalls(),
+                    result.wastedUpstreamCalls());
+        }
+    }
+
+    private static EmployeeIntegrationService integrationService(
+            Scenario scenario, VirtualClock clock, SimulatedEmployeeService upstream) {
+        final ApplicationConfiguration appConfig = new ApplicationConfiguration();
+        appConfig.employeeClientRetryMaxAttempts = scenario.retryAttempts();
+        appConfig.employeeClientRetryDelay = scenario.retryDelay();
+        final WebClient client = WebClient.builder()
+                .baseUrl("http://mock-employee-service/api/v1/employee")
+                .exchangeFunction(upstream)
+                .build();
+        return new EmployeeIntegrationService(
+                new EmployeeShards(List.of(client)),
+                appConfig,
+                new UpstreamLatencyTracker(1024, 20),
+                new HedgeBudget(0.1, 10, Duration.ofSeconds(30)),
+                new LogSampler(100, Map.of(), 10, Duration.ofMinutes(1), clock::nanoTime),
+                new KnownEmployeeIds(false, 0.01, Duration.ZERO),
+                new EmployeeLookupBatcher(false, Duration.ZERO, 1),
+                clock);
+    }
+
+    private static Duration thinkTime(SplittableRandom random, Traffic traffic) {
+        return Duration.ofNanos(
+                (long) (-Math.log(1 - random.nextDouble()) * traffic.meanThinkTime().toNanos()));
+    }
+
+    private static List<Scenario> scenarios(int[] limits, Duration[] windows, int[] attempts, Duration[] delays) {
+        final List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < limits.length; i++) {
+            scenarios.add(new Scenario(limits[i], windows[i], 1, Duration.ZERO));
+            for (int attempt : attempts) {
+                for (Duration delay : delays) {
+                    scenarios.add(new Scenario(limits[i], windows[i], attempt, delay));
+                }
+            }
+        }
+        return List.copyOf(scenarios);
+    }
+
+    private static Map<String, String> options(String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String seconds(Duration duration) {
+        return String.format("%.1fs", duration.toNanos() / 1e9);
+    }
+
+    /**
+     * The api calls the simulated clients make, weighted roughly like a dashboard: mostly listing, some searching
+     * and filtering, the occasional aggregate.
+     */
+    private enum Operation {
+        LIST(4, service -> service.getAllEmployeesByShard()),
+        SEARCH(2, service -> service.searchEmployeesByName("an")),
+        FILTER(2, service -> service.filterEmployees(highEarners())),
+        HIGHEST_SALARY(1, service -> service.getHighestSalary()),
+        TOP_EARNERS(1, service -> service.getTopEarners(10));
+
+        private static final int TOTAL_WEIGHT = 10;
+
+        private final int weight;
+        private final Function<EmployeeIntegrationService, UpstreamResult<?>> call;
+
+        Operation(int weight, Function<EmployeeIntegrationService, UpstreamResult<?>> call) {
+            this.weight = weight;
+            this.call = call;
+        }
+
+        static Operation pick(SplittableRandom random) {
+            int ticket = random.nextInt(TOTAL_WEIGHT);
+            for (Operation operation : values()) {
+                ticket -= operation.weight;
+                if (ticket < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException("Operation weights do not add up to " + TOTAL_WEIGHT);
+        }
+
+        private static EmployeeFilterDto highEarners() {
+            final EmployeeFilterDto filter = new EmployeeFilterDto();
+            filter.setMinSalary(200_000);
+            return filter;
+        }
+    }
+}
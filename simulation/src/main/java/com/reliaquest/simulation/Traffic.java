@@ -0,0 +1,13 @@
+package com.reliaquest.simulation;
+
+import java.time.Duration;
+
+/**
+ * The load replayed in every scenario: {@code clients} simulated callers that each issue one api call at a time and
+ * pause for an exponentially distributed think time between calls, for {@code length} of simulated time.
+ *
+ * @param serviceTime how long an admitted upstream request takes
+ * @param seed makes runs with the same parameters identical
+ * @author nikhilchavan
+ */
+public record Traffic(Duration length, int clients, Duration meanThinkTime, Duration serviceTime, long seed) {}
@@ -0,0 +1,153 @@
+package com.reliaquest.simulation;
+
+import com.reliaquest.api.external.Sleeper;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Simulated time, shared by every participant of a simulation run. Each participant (one simulated client) runs on
+ * its own thread, but only one of them runs at a time: a participant runs until it sleeps or finishes, then time jumps
+ * straight to the earliest pending wake-up and that participant runs next. Sleeping therefore costs no real time, and
+ * wake-ups due at the same instant run in the order they were scheduled, so a run depends only on its inputs and
+ * never on how the JVM schedules threads.
+ * <p>
+ * Code under simulation must wait only through {@link #sleep(Duration)}; blocking on anything else would stall the
+ * run, since no other participant can proceed meanwhile.
+ *
+ * @author nikhilchavan
+ */
+public final class VirtualClock extends Clock implements Sleeper {
+
+    private final Instant origin;
+    private final PriorityQueue<Wakeup> wakeups =
+            new PriorityQueue<>(Comparator.comparingLong(Wakeup::at).thenComparingLong(Wakeup::sequence));
+    private final Semaphore finished = new Semaphore(0);
+    private long nanos;
+    private long sequence;
+    private int participants;
+    private RuntimeException failure;
+
+    public VirtualClock(Instant origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * @return nanoseconds elapsed since the origin
+     */
+    public synchronized long nanoTime() {
+        return nanos;
+    }
+
+    @Override
+    public synchronized Instant instant() {
+        return origin.plusNanos(nanos);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (!ZoneOffset.UTC.equals(zone)) {
+            throw new UnsupportedOperationException("The virtual clock only runs in UTC");
+        }
+        return this;
+    }
+
+    /**
+     * Adds a participant that first runs {@code delay} after the current time. Participants only run once
+     * {@link #run()} is called.
+     */
+    public synchronized void start(String name, Duration delay, Runnable participant) {
+        final Wakeup first = schedule(delay);
+        participants++;
+        final Thread thread = new Thread(
+                () -> {
+                    first.turn().acquireUninterruptibly();
+                    try {
+                        participant.run();
+                    } catch (RuntimeException ex) {
+                        fail(ex);
+                    } finally {
+                        finish();
+                    }
+                },
+                name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs all participants until the last one finishes.
+     *
+     * @throws IllegalStateException if a participant failed
+     */
+    public void run() throws InterruptedException {
+        synchronized (this) {
+            if (participants == 0) {
+                return;
+            }
+            handOff();
+        }
+        finished.acquire();
+        synchronized (this) {
+            if (failure != null) {
+                throw new IllegalStateException("A simulated participant failed", failure);
+            }
+        }
+    }
+
+    /**
+     * Suspends the calling participant for {@code duration} of simulated time. Interrupts are ignored: a participant
+     * that stopped waiting early would run alongside the one holding the turn.
+     */
+    @Override
+    public void sleep(Duration duration) {
+        final Wakeup wakeup;
+        synchronized (this) {
+            wakeup = schedule(duration);
+            handOff();
+        }
+        wakeup.turn().acquireUninterruptibly();
+    }
+
+    private Wakeup schedule(Duration delay) {
+        final Wakeup wakeup = new Wakeup(nanos + Math.max(0, delay.toNanos()), sequence++, new Semaphore(0));
+        wakeups.add(wakeup);
+        return wakeup;
+    }
+
+    private synchronized void fail(RuntimeException ex) {
+        if (failure == null) {
+            failure = ex;
+        }
+    }
+
+    private synchronized void finish() {
+        participants--;
+        handOff();
+    }
+
+    /*
+     * Passes the turn to the earliest pending wake-up. With none left, every participant has finished.
+     */
+    private void handOff() {
+        final Wakeup next = wakeups.poll();
+        if (next == null) {
+            finished.release();
+            return;
+        }
+        nanos = Math.max(nanos, next.at());
+        next.turn().release();
+    }
+
+    private record Wakeup(long at, long sequence, Semaphore turn) {}
+}
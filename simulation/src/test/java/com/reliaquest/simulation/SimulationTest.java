@@ -0,0 +1,50 @@
+package com.reliaquest.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class SimulationTest {
+
+    private final Traffic traffic =
+            new Traffic(Duration.ofHours(1), 5, Duration.ofSeconds(10), Duration.ofMillis(50), 7);
+
+    @Test
+    public void testRunsAreReproducible() throws InterruptedException {
+        Scenario scenario = new Scenario(5, Duration.ofSeconds(30), 3, Duration.ofSeconds(20));
+
+        ScenarioResult first = Simulation.run(scenario, traffic);
+        ScenarioResult second = Simulation.run(scenario, traffic);
+
+        assertEquals(first.calls(), second.calls());
+        assertEquals(first.succeeded(), second.succeeded());
+        assertEquals(first.upstreamCalls(), second.upstreamCalls());
+        assertEquals(first.wastedUpstreamCalls(), second.wastedUpstreamCalls());
+        assertEquals(first.latency(0.99), second.latency(0.99));
+    }
+
+    @Test
+    public void testWithoutRetriesEveryThrottledCallIsGivenUp() throws InterruptedException {
+        ScenarioResult result = Simulation.run(new Scenario(5, Duration.ofSeconds(30), 1, Duration.ZERO), traffic);
+
+        assertEquals(result.calls(), result.upstreamCalls());
+        assertEquals(result.throttled(), result.wastedUpstreamCalls());
+        assertEquals(result.calls(), result.succeeded() + result.throttled() + result.failed());
+        assertEquals(0, result.failed());
+        assertTrue(result.throttled() > 0);
+    }
+
+    @Test
+    public void testRetriesWaitTheConfiguredDelay() throws InterruptedException {
+        ScenarioResult result =
+                Simulation.run(new Scenario(5, Duration.ofSeconds(30), 3, Duration.ofSeconds(20)), traffic);
+
+        assertTrue(result.upstreamCalls() > result.calls());
+        assertTrue(result.latency(1).compareTo(Duration.ofSeconds(20)) > 0);
+        assertTrue(result.latency(1).compareTo(Duration.ofSeconds(41)) < 0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.reliaquest.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author nikhilchavan
+ */
+public class VirtualClockTest {
+
+    @Test
+    public void testSleepAdvancesTimeWithoutWaiting() throws InterruptedException {
+        VirtualClock clock = new VirtualClock(Instant.EPOCH);
+        clock.start("sleeper", Duration.ZERO, () -> clock.sleep(Duration.ofHours(5)));
+
+        long start = System.nanoTime();
+        clock.run();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(Instant.EPOCH.plus(Duration.ofHours(5)), clock.instant());
+    }
+
+    @Test
+    public void testParticipantsRunInTimeOrderThenScheduleOrder() throws InterruptedException {
+        VirtualClock clock = new VirtualClock(Instant.EPOCH);
+        List<String> events = new ArrayList<>();
+        clock.start("slow", Duration.ZERO, () -> {
+            events.add("slow@" + clock.nanoTime());
+            clock.sleep(Duration.ofSeconds(3));
+            events.add("slow@" + clock.nanoTime());
+        });
+        clock.start("fast", Duration.ZERO, () -> {
+            events.add("fast@" + clock.nanoTime());
+            clock.sleep(Duration.ofSeconds(1));
+            events.add("fast@" + clock.nanoTime());
+            clock.sleep(Duration.ofSeconds(2));
+            events.add("fast@" + clock.nanoTime());
+        });
+
+        clock.run();
+
+        assertEquals(
+                List.of("slow@0", "fast@0", "fast@1000000000", "slow@3000000000", "fast@3000000000"), events);
+    }
+
+    @Test
+    public void testParticipantFailureIsReported() {
+        VirtualClock clock = new VirtualClock(Instant.EPOCH);
+        clock.start("failing", Duration.ZERO, () -> {
+            throw new IllegalArgumentException("boom");
+        });
+        clock.start("healthy", Duration.ofSeconds(1), () -> clock.sleep(Duration.ofSeconds(1)));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, clock::run);
+        assertEquals("boom", exception.getCause().getMessage());
+        assertEquals(Instant.EPOCH.plusSeconds(2), clock.instant());
+    }
+}